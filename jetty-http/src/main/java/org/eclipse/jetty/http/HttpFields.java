@@ -75,6 +75,27 @@ public interface HttpFields extends Iterable<HttpField>
         return new Immutable(fields);
     }
 
+    /**
+     * <p>Create an immutable copy of fields in which every field is a {@link PreEncodedHttpField}.</p>
+     * <p>The result is intended to be used as a template of fields that are added to many messages,
+     * for example the common headers of all the responses of a context. When added to an empty
+     * {@link Mutable}, the template is shared by reference rather than copied, and the fields are
+     * generated from their pre-encoded bytes.</p>
+     *
+     * @param fields the fields to pre-encode
+     * @return the pre-encoded fields
+     */
+    static Immutable preEncoded(HttpFields fields)
+    {
+        HttpField[] preEncoded = new HttpField[fields.size()];
+        int i = 0;
+        for (HttpField f : fields)
+        {
+            preEncoded[i++] = (f instanceof PreEncodedHttpField) ? f : new PreEncodedHttpField(f.getHeader(), f.getName(), f.getValue());
+        }
+        return new Immutable(preEncoded);
+    }
+
     Immutable asImmutable();
 
     default String asString()
@@ -510,11 +531,16 @@ public interface HttpFields extends Iterable<HttpField>
      * single thread.
      *
      * <p>The cookie handling provided by this class is guided by the Servlet specification and RFC6265.
+     *
+     * <p>When {@link Immutable} fields are added to an empty instance, their array is shared by
+     * reference and is only copied when the fields are first modified.
      */
     class Mutable implements Iterable<HttpField>, HttpFields
     {
         private HttpField[] _fields;
         private int _size;
+        private boolean _shared;
+        private HttpField[] _spare;
 
         /**
          * Initialize an empty HttpFields.
@@ -630,6 +656,7 @@ public interface HttpFields extends Iterable<HttpField>
         {
             if (field != null)
             {
+                copyOnWrite(_size + 1);
                 if (_size == _fields.length)
                     _fields = Arrays.copyOf(_fields, _size * 2);
                 _fields[_size++] = field;
@@ -639,6 +666,18 @@ public interface HttpFields extends Iterable<HttpField>
 
         public Mutable add(HttpFields fields)
         {
+            if (_size == 0 && fields instanceof Immutable && fields.size() > 0)
+            {
+                // Share the immutable fields until this instance is modified.
+                if (!_shared)
+                    _spare = _fields;
+                _fields = ((Immutable)fields)._fields;
+                _size = _fields.length;
+                _shared = true;
+                return this;
+            }
+
+            copyOnWrite(_size + fields.size());
             if (_fields == null)
                 _fields = new HttpField[fields.size() + 4];
             else if (_size + fields.size() >= _fields.length)
@@ -735,15 +774,41 @@ public interface HttpFields extends Iterable<HttpField>
         @Override
         public Immutable asImmutable()
         {
+            if (_shared)
+                return new Immutable(_fields);
             return new Immutable(Arrays.copyOf(_fields, _size));
         }
 
         public Mutable clear()
         {
+            if (_shared)
+            {
+                _fields = _spare == null ? new HttpField[16] : _spare;
+                _spare = null;
+                _shared = false;
+            }
             _size = 0;
             return this;
         }
 
+        /**
+         * Replace shared fields by a private copy before they are modified.
+         *
+         * @param capacity the minimum capacity of the copy
+         */
+        private void copyOnWrite(int capacity)
+        {
+            if (!_shared)
+                return;
+            HttpField[] fields = _spare;
+            if (fields == null || fields.length < capacity)
+                fields = new HttpField[Math.max(capacity, _size + 4)];
+            System.arraycopy(_fields, 0, fields, 0, _size);
+            _fields = fields;
+            _spare = null;
+            _shared = false;
+        }
+
         /** Ensure that specific HttpField exists when the field may not exist or may
          * exist and be multi valued.  Multiple existing fields are merged into a
          * single field.
@@ -974,6 +1039,7 @@ public interface HttpFields extends Iterable<HttpField>
                 HttpField f = _fields[i];
                 if (f.isSameName(field))
                 {
+                    copyOnWrite(_size);
                     if (put)
                         System.arraycopy(_fields, i + 1, _fields, i, _size-- - i-- - 1);
                     else
@@ -1232,7 +1298,10 @@ public interface HttpFields extends Iterable<HttpField>
             if (newField == null)
                 remove(first);
             else
+            {
+                copyOnWrite(_size);
                 _fields[first] = newField;
+            }
         }
 
         /**
@@ -1282,6 +1351,7 @@ public interface HttpFields extends Iterable<HttpField>
 
         private void remove(int i)
         {
+            copyOnWrite(_size);
             _size--;
             System.arraycopy(_fields, i + 1, _fields, i, _size - i);
             _fields[_size] = null;
@@ -1351,6 +1421,7 @@ public interface HttpFields extends Iterable<HttpField>
                 if (field == null)
                     return;
 
+                copyOnWrite(_size + 1);
                 _fields = Arrays.copyOf(_fields, _fields.length + 1);
                 System.arraycopy(_fields, _cursor, _fields, _cursor + 1, _size++);
                 _fields[_cursor++] = field;
@@ -1417,7 +1488,10 @@ public interface HttpFields extends Iterable<HttpField>
                 if (field == null)
                     remove();
                 else
+                {
+                    copyOnWrite(_size);
                     _fields[_current] = field;
+                }
             }
         }
     }
@@ -397,6 +397,16 @@ public class HttpGenerator
 
                         if (status != HttpStatus.SWITCHING_PROTOCOLS_101)
                         {
+                            // Interim responses such as 103 Early Hints may carry fields.
+                            HttpFields fields = info.getFields();
+                            if (fields != null)
+                            {
+                                for (HttpField field : fields)
+                                {
+                                    if (field != null)
+                                        putTo(field, header);
+                                }
+                            }
                             header.put(HttpTokens.CRLF);
                             _state = State.COMPLETING_1XX;
                             return Result.FLUSH;
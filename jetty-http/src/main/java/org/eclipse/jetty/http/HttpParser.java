@@ -222,7 +222,7 @@ public class HttpParser
     private final ComplianceViolation.Listener _complianceListener;
     private final int _maxHeaderBytes;
     private final HttpCompliance _complianceMode;
-    private final Utf8StringBuilder _uri = new Utf8StringBuilder(INITIAL_URI_LENGTH);
+    private Utf8StringBuilder _uri = new Utf8StringBuilder(INITIAL_URI_LENGTH);
     private HttpField _field;
     private HttpHeader _header;
     private String _headerString;
@@ -249,7 +249,7 @@ public class HttpParser
     private ByteBuffer _contentChunk;
     private Index.Mutable<HttpField> _fieldCache;
     private int _length;
-    private final StringBuilder _string = new StringBuilder();
+    private StringBuilder _string = new StringBuilder();
     private int _headerCacheSize = 1024;
     private boolean _headerCacheCaseSensitive;
 
@@ -1880,6 +1880,56 @@ public class HttpParser
         setState(State.CLOSE);
     }
 
+    /**
+     * <p>Releases the memory retained between messages by the scratch state of this
+     * parser, such as the builders that may have grown to hold a long URI or header.</p>
+     * <p>This is only effective in the {@link State#START} state, for example while a
+     * persistent connection waits for its next request.</p>
+     */
+    public void compact()
+    {
+        if (_state != State.START)
+            return;
+
+        if (debugEnabled)
+            LOG.debug("compact {}", this);
+
+        // Oversized builders are replaced rather than trimmed, so they start again from their initial capacity.
+        _uri.reset();
+        if (_uri.getStringBuilder().capacity() > INITIAL_URI_LENGTH)
+            _uri = new Utf8StringBuilder(INITIAL_URI_LENGTH);
+        _string.setLength(0);
+        if (_string.capacity() > INITIAL_URI_LENGTH)
+            _string = new StringBuilder();
+        _field = null;
+        _headerString = null;
+        _valueString = null;
+    }
+
+    /**
+     * @return the capacity of the URI builder, for the tests of {@link #compact()}
+     */
+    int getURICapacity()
+    {
+        return _uri.getStringBuilder().capacity();
+    }
+
+    /**
+     * @return the capacity of the header builder, for the tests of {@link #compact()}
+     */
+    int getStringCapacity()
+    {
+        return _string.capacity();
+    }
+
+    /**
+     * @return whether the last parsed field is retained, for the tests of {@link #compact()}
+     */
+    boolean hasFieldState()
+    {
+        return _field != null || _headerString != null || _valueString != null;
+    }
+
     public void reset()
     {
         if (debugEnabled)
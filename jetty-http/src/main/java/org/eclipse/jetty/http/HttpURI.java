@@ -48,6 +48,8 @@ import org.eclipse.jetty.util.UrlEncoded;
  * <p>Any parameters will be returned from {@link #getPath()}, but are excluded from the
  * return value of {@link #getDecodedPath()}.   If there are multiple parameters, the
  * {@link #getParam()} method returns only the last one.
+ * <p>The query of a parsed URI is only kept as offsets into the parsed string, and the
+ * decoded path is only decoded and canonicalized, until first requested.
  */
 public interface HttpURI
 {
@@ -148,6 +150,14 @@ public interface HttpURI
         }
     }
 
+    /**
+     * @return true if the source is exactly the path followed by the query
+     */
+    private static boolean isPathQuery(String source, String path, int queryStart, int queryEnd)
+    {
+        return path != null && queryEnd == source.length() && queryStart == path.length() + 1 && source.startsWith(path);
+    }
+
     class Immutable implements HttpURI
     {
         private final String _scheme;
@@ -156,7 +166,10 @@ public interface HttpURI
         private final int _port;
         private final String _path;
         private final String _param;
-        private final String _query;
+        private String _query;
+        private final String _querySource;
+        private final int _queryStart;
+        private final int _queryEnd;
         private final String _fragment;
         private String _uri;
         private String _decodedPath;
@@ -170,6 +183,9 @@ public interface HttpURI
             _path = builder._path;
             _param = builder._param;
             _query = builder._query;
+            _querySource = builder._querySource;
+            _queryStart = builder._queryStart;
+            _queryEnd = builder._queryEnd;
             _fragment = builder._fragment;
             _uri = builder._uri;
             _decodedPath = builder._decodedPath;
@@ -184,6 +200,9 @@ public interface HttpURI
             _path = uri;
             _param = null;
             _query = null;
+            _querySource = null;
+            _queryStart = 0;
+            _queryEnd = 0;
             _fragment = null;
             _uri = uri;
             _decodedPath = null;
@@ -219,7 +238,9 @@ public interface HttpURI
                 if (_path != null)
                     out.append(_path);
 
-                if (_query != null)
+                if (_querySource != null && _query == null)
+                    out.append('?').append(_querySource, _queryStart, _queryEnd);
+                else if (_query != null)
                     out.append('?').append(_query);
 
                 if (_fragment != null)
@@ -289,9 +310,12 @@ public interface HttpURI
         @Override
         public String getPathQuery()
         {
-            if (_query == null)
+            if (_querySource != null && isPathQuery(_querySource, _path, _queryStart, _queryEnd))
+                return _querySource;
+            String query = getQuery();
+            if (query == null)
                 return _path;
-            return _path + "?" + _query;
+            return _path + "?" + query;
         }
 
         @Override
@@ -303,6 +327,8 @@ public interface HttpURI
         @Override
         public String getQuery()
         {
+            if (_query == null && _querySource != null)
+                _query = _querySource.substring(_queryStart, _queryEnd);
             return _query;
         }
 
@@ -347,7 +373,8 @@ public interface HttpURI
         {
             try
             {
-                return new URI(_scheme, null, _host, _port, _path, _query == null ? null : UrlEncoded.decodeString(_query), _fragment);
+                String query = getQuery();
+                return new URI(_scheme, null, _host, _port, _path, query == null ? null : UrlEncoded.decodeString(query), _fragment);
             }
             catch (URISyntaxException x)
             {
@@ -380,6 +407,9 @@ public interface HttpURI
         private String _path;
         private String _param;
         private String _query;
+        private String _querySource;
+        private int _queryStart;
+        private int _queryEnd;
         private String _fragment;
         private String _uri;
         private String _decodedPath;
@@ -509,6 +539,7 @@ public interface HttpURI
             _path = null;
             _param = null;
             _query = null;
+            _querySource = null;
             _fragment = null;
             _uri = null;
             _decodedPath = null;
@@ -583,9 +614,12 @@ public interface HttpURI
         @Override
         public String getPathQuery()
         {
-            if (_query == null)
+            if (_querySource != null && isPathQuery(_querySource, _path, _queryStart, _queryEnd))
+                return _querySource;
+            String query = getQuery();
+            if (query == null)
                 return _path;
-            return _path + "?" + _query;
+            return _path + "?" + query;
         }
 
         @Override
@@ -597,6 +631,8 @@ public interface HttpURI
         @Override
         public String getQuery()
         {
+            if (_query == null && _querySource != null)
+                _query = _querySource.substring(_queryStart, _queryEnd);
             return _query;
         }
 
@@ -691,6 +727,7 @@ public interface HttpURI
         public Mutable query(String query)
         {
             _query = query;
+            _querySource = null;
             _uri = null;
             return this;
         }
@@ -717,7 +754,8 @@ public interface HttpURI
         {
             try
             {
-                return new URI(_scheme, null, _host, _port, _path, _query == null ? null : UrlEncoded.decodeString(_query), null);
+                String query = getQuery();
+                return new URI(_scheme, null, _host, _port, _path, query == null ? null : UrlEncoded.decodeString(query), null);
             }
             catch (URISyntaxException x)
             {
@@ -733,7 +771,20 @@ public interface HttpURI
             _port = uri.getPort();
             _path = uri.getPath();
             _param = uri.getParam();
-            _query = uri.getQuery();
+            if (uri instanceof Immutable && ((Immutable)uri)._query == null)
+            {
+                // Keep an unparsed query unparsed
+                Immutable immutable = (Immutable)uri;
+                _query = null;
+                _querySource = immutable._querySource;
+                _queryStart = immutable._queryStart;
+                _queryEnd = immutable._queryEnd;
+            }
+            else
+            {
+                _query = uri.getQuery();
+                _querySource = null;
+            }
             _uri = null;
             _decodedPath = uri.getDecodedPath();
             return this;
@@ -781,6 +832,14 @@ public interface HttpURI
             return this;
         }
 
+        private void query(String uri, int start, int end)
+        {
+            _query = null;
+            _querySource = uri;
+            _queryStart = start;
+            _queryEnd = end;
+        }
+
         private void parse(State state, final String uri)
         {
             boolean encoded = false;
@@ -1070,7 +1129,7 @@ public interface HttpURI
                     {
                         if (c == '#')
                         {
-                            _query = uri.substring(mark, i);
+                            query(uri, mark, i);
                             mark = i + 1;
                             state = State.FRAGMENT;
                         }
@@ -1130,7 +1189,7 @@ public interface HttpURI
                     break;
 
                 case QUERY:
-                    _query = uri.substring(mark, end);
+                    query(uri, mark, end);
                     break;
 
                 case FRAGMENT:
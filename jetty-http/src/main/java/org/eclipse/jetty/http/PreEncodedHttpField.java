@@ -22,6 +22,9 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jetty.util.TypeUtil;
 import org.slf4j.Logger;
@@ -35,11 +38,16 @@ import org.slf4j.LoggerFactory;
  * for each version of HTTP in use.  This will save garbage
  * and CPU each time the field is encoded into a response.
  * </p>
+ * <p>Fields whose values come from configuration, rather than from
+ * each request, may be shared with {@link #intern(HttpHeader, String)}.</p>
  */
 public class PreEncodedHttpField extends HttpField
 {
     private static final Logger LOG = LoggerFactory.getLogger(PreEncodedHttpField.class);
     private static final HttpFieldPreEncoder[] __encoders;
+    private static final int MAX_INTERNED_FIELDS = 1024;
+    private static final ConcurrentMap<String, ConcurrentMap<String, PreEncodedHttpField>> __interned = new ConcurrentHashMap<>();
+    private static final AtomicInteger __internedCount = new AtomicInteger();
 
     static
     {
@@ -92,6 +100,74 @@ public class PreEncodedHttpField extends HttpField
         }
     }
 
+    /**
+     * <p>Get a shared pre-encoded field, creating it if necessary.</p>
+     * <p>This is intended for fields whose values come from configuration, such as
+     * content types, so that the same value is encoded only once. The shared fields
+     * are looked up by exact name and value, without allocating. The table is bounded:
+     * once it is full, the fields already shared are kept and new values are no longer
+     * shared, so that values that vary with each request only cost the encoding they
+     * would have cost anyway.</p>
+     *
+     * @param header the header, or null if not a known header
+     * @param name the field name
+     * @param value the field value
+     * @return a pre-encoded field with the exact given name and value
+     */
+    public static PreEncodedHttpField intern(HttpHeader header, String name, String value)
+    {
+        // Fields are keyed by exact name, so that they are generated as given.
+        ConcurrentMap<String, PreEncodedHttpField> values = __interned.get(name);
+        PreEncodedHttpField field = values == null ? null : values.get(value);
+        if (field != null && field.getHeader() == header)
+            return field;
+
+        field = new PreEncodedHttpField(header, name, value);
+        if (__internedCount.get() >= MAX_INTERNED_FIELDS)
+            return field;
+        if (values == null)
+            values = __interned.computeIfAbsent(name, k -> new ConcurrentHashMap<>());
+        PreEncodedHttpField existing = values.putIfAbsent(value, field);
+        if (existing == null)
+        {
+            __internedCount.incrementAndGet();
+            return field;
+        }
+        return existing.getHeader() == header ? existing : field;
+    }
+
+    /**
+     * Forget the shared fields, for the tests of {@link #intern(HttpHeader, String, String)}.
+     */
+    static void clearInterned()
+    {
+        __interned.clear();
+        __internedCount.set(0);
+    }
+
+    /**
+     * @param header the header
+     * @param value the field value
+     * @return a shared pre-encoded field
+     * @see #intern(HttpHeader, String, String)
+     */
+    public static PreEncodedHttpField intern(HttpHeader header, String value)
+    {
+        return intern(header, header.asString(), value);
+    }
+
+    /**
+     * @param field the field
+     * @return the field itself if it is already pre-encoded, otherwise a shared pre-encoded copy
+     * @see #intern(HttpHeader, String, String)
+     */
+    public static PreEncodedHttpField intern(HttpField field)
+    {
+        if (field instanceof PreEncodedHttpField)
+            return (PreEncodedHttpField)field;
+        return intern(field.getHeader(), field.getName(), field.getValue());
+    }
+
     private final byte[][] _encodedField = new byte[__encoders.length][];
 
     public PreEncodedHttpField(HttpHeader header, String name, String value)
@@ -103,6 +179,27 @@ public class PreEncodedHttpField extends HttpField
         }
     }
 
+    /**
+     * <p>Creates a field with an already known encoding for one version of HTTP,
+     * for example as retained when the field was decoded.</p>
+     * <p>The encodings for other versions are not cached, but computed each
+     * time the field is put for those versions.</p>
+     *
+     * @param header the header, or null if not a known header
+     * @param name the field name
+     * @param value the field value
+     * @param version the version of HTTP of the encoded field
+     * @param encodedField the encoded field
+     */
+    public PreEncodedHttpField(HttpHeader header, String name, String value, HttpVersion version, byte[] encodedField)
+    {
+        super(header, name, value);
+        int index = index(version);
+        if (index < 0 || index >= __encoders.length)
+            throw new IllegalArgumentException("Unsupported version " + version);
+        _encodedField[index] = encodedField;
+    }
+
     public PreEncodedHttpField(HttpHeader header, String value)
     {
         this(header, header.asString(), value);
@@ -115,6 +212,10 @@ public class PreEncodedHttpField extends HttpField
 
     public void putTo(ByteBuffer bufferInFillMode, HttpVersion version)
     {
-        bufferInFillMode.put(_encodedField[index(version)]);
+        int index = index(version);
+        byte[] encodedField = _encodedField[index];
+        if (encodedField == null)
+            encodedField = __encoders[index].getEncodedField(getHeader(), getName(), getValue());
+        bufferInFillMode.put(encodedField);
     }
 }
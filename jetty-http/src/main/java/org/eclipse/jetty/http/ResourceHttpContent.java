@@ -81,7 +81,7 @@ public class ResourceHttpContent implements HttpContent
     @Override
     public HttpField getContentType()
     {
-        return _contentType == null ? null : new HttpField(HttpHeader.CONTENT_TYPE, _contentType);
+        return _contentType == null ? null : PreEncodedHttpField.intern(HttpHeader.CONTENT_TYPE, _contentType);
     }
 
     @Override
@@ -0,0 +1,254 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http.pathmap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Matches a path against all the {@link UriTemplatePathSpec} and {@link RegexPathSpec}
+ * mappings of a {@link PathMappings} in a single pass.</p>
+ * <p>URI templates are compiled into a trie of path segments, and regular expressions into a
+ * single alternation, so that the cost of a lookup does not grow linearly with the number of
+ * mappings. Mappings that cannot be compiled (for example regular expressions that use back
+ * references) are matched one by one.</p>
+ * <p>Each mapping is given its position in the {@link PathMappings} search order, and the
+ * matching mapping with the lowest position is returned, so the ordering semantics of
+ * {@link PathSpec} are preserved.</p>
+ *
+ * @param <E> the type of mapping endpoint
+ */
+class CombinedPathSpecMatcher<E>
+{
+    // Back references, named groups, quoting and comments cannot be combined into an alternation
+    private static final Pattern UNCOMBINABLE_REGEX = Pattern.compile("\\\\[1-9kQ]|\\(\\?<[a-zA-Z]|#");
+    private static final String UNSAFE_TEMPLATE_LITERAL = "()+?|^$";
+
+    private final Node<E> _templates = new Node<>();
+    private final Pattern _regexes;
+    private final int[] _regexGroups;
+    private final int[] _regexOrdinals;
+    private final List<MappedResource<E>> _regexResources = new ArrayList<>();
+    private final List<MappedResource<E>> _others = new ArrayList<>();
+    private final List<Integer> _otherOrdinals = new ArrayList<>();
+
+    /**
+     * @param pathSpec the path spec to test
+     * @return true if the path spec is matched by this class rather than by {@link PathSpec#matches(String)}
+     */
+    static boolean isCombined(PathSpec pathSpec)
+    {
+        Class<?> type = pathSpec.getClass();
+        return type == UriTemplatePathSpec.class || type == RegexPathSpec.class;
+    }
+
+    /**
+     * @param mappings the mappings in search order
+     */
+    CombinedPathSpecMatcher(Iterable<MappedResource<E>> mappings)
+    {
+        StringBuilder regexes = new StringBuilder();
+        List<Integer> regexGroups = new ArrayList<>();
+        List<Integer> regexOrdinals = new ArrayList<>();
+        int group = 1;
+        int ordinal = 0;
+        for (MappedResource<E> mapping : mappings)
+        {
+            PathSpec pathSpec = mapping.getPathSpec();
+            if (!isCombined(pathSpec))
+            {
+                ordinal++;
+                continue;
+            }
+
+            if (pathSpec instanceof UriTemplatePathSpec)
+            {
+                if (!addTemplate(pathSpec.getDeclaration(), mapping, ordinal))
+                {
+                    _others.add(mapping);
+                    _otherOrdinals.add(ordinal);
+                }
+            }
+            else
+            {
+                Pattern pattern = ((RegexPathSpec)pathSpec).getPattern();
+                if (UNCOMBINABLE_REGEX.matcher(pattern.pattern()).find())
+                {
+                    _others.add(mapping);
+                    _otherOrdinals.add(ordinal);
+                }
+                else
+                {
+                    if (regexes.length() > 0)
+                        regexes.append('|');
+                    regexes.append('(').append(pattern.pattern()).append(')');
+                    regexGroups.add(group);
+                    regexOrdinals.add(ordinal);
+                    _regexResources.add(mapping);
+                    group += 1 + pattern.matcher("").groupCount();
+                }
+            }
+            ordinal++;
+        }
+
+        _regexes = _regexResources.isEmpty() ? null : Pattern.compile(regexes.toString());
+        _regexGroups = regexGroups.stream().mapToInt(Integer::intValue).toArray();
+        _regexOrdinals = regexOrdinals.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private boolean addTemplate(String declaration, MappedResource<E> mapping, int ordinal)
+    {
+        // Split exactly as the regex built by UriTemplatePathSpec would match,
+        // with a trailing slash represented by a trailing empty segment.
+        String[] segments = declaration.substring(1).split("/", -1);
+        for (String segment : segments)
+        {
+            if (isVariable(segment))
+                continue;
+            for (int i = 0; i < segment.length(); i++)
+            {
+                if (UNSAFE_TEMPLATE_LITERAL.indexOf(segment.charAt(i)) >= 0)
+                    return false;
+            }
+        }
+
+        Node<E> node = _templates;
+        for (String segment : segments)
+        {
+            if (isVariable(segment))
+            {
+                if (node._variable == null)
+                    node._variable = new Node<>();
+                node = node._variable;
+            }
+            else
+            {
+                node = node._literals.computeIfAbsent(segment, k -> new Node<>());
+            }
+        }
+
+        if (node._resource == null || ordinal < node._ordinal)
+        {
+            node._resource = mapping;
+            node._ordinal = ordinal;
+        }
+        return true;
+    }
+
+    private static boolean isVariable(String segment)
+    {
+        return segment.length() > 1 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    /**
+     * @param path the path to match
+     * @return the first mapping, in search order, that matches the path, or null if none match
+     */
+    MappedResource<E> getMatch(String path)
+    {
+        // Only the non-query part of the path is matched
+        int query = path.indexOf('?');
+        if (query >= 0)
+            path = path.substring(0, query);
+
+        MappedResource<E> best = null;
+        int bestOrdinal = Integer.MAX_VALUE;
+
+        if (path.length() > 0 && path.charAt(0) == '/')
+        {
+            Node<E> node = _templates.find(path, 1);
+            if (node != null)
+            {
+                best = node._resource;
+                bestOrdinal = node._ordinal;
+            }
+        }
+
+        if (_regexes != null && (_regexOrdinals[0] < bestOrdinal))
+        {
+            Matcher matcher = _regexes.matcher(path);
+            if (matcher.matches())
+            {
+                // The alternation matches the first regex, in order, that matches the whole path
+                for (int i = 0; i < _regexGroups.length && _regexOrdinals[i] < bestOrdinal; i++)
+                {
+                    if (matcher.start(_regexGroups[i]) >= 0)
+                    {
+                        best = _regexResources.get(i);
+                        bestOrdinal = _regexOrdinals[i];
+                        break;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < _others.size() && _otherOrdinals.get(i) < bestOrdinal; i++)
+        {
+            MappedResource<E> other = _others.get(i);
+            if (other.getPathSpec().matches(path))
+                return other;
+        }
+
+        return best;
+    }
+
+    private static class Node<E>
+    {
+        private final Map<String, Node<E>> _literals = new HashMap<>();
+        private Node<E> _variable;
+        private MappedResource<E> _resource;
+        private int _ordinal = Integer.MAX_VALUE;
+
+        /**
+         * @param path the path to match
+         * @param start the index of the first character of the segment to match against the children of this node
+         * @return the matching terminal node with the lowest ordinal, or null
+         */
+        private Node<E> find(String path, int start)
+        {
+            int end = path.indexOf('/', start);
+            boolean last = end < 0;
+            if (last)
+                end = path.length();
+
+            Node<E> best = null;
+            Node<E> literal = _literals.isEmpty() ? null : _literals.get(path.substring(start, end));
+            if (literal != null)
+                best = last ? terminal(literal) : literal.find(path, end + 1);
+
+            // A variable matches a whole, non empty, segment
+            if (_variable != null && end > start)
+            {
+                Node<E> variable = last ? terminal(_variable) : _variable.find(path, end + 1);
+                if (variable != null && (best == null || variable._ordinal < best._ordinal))
+                    best = variable;
+            }
+            return best;
+        }
+
+        private static <E> Node<E> terminal(Node<E> node)
+        {
+            return node._resource == null ? null : node;
+        }
+    }
+}
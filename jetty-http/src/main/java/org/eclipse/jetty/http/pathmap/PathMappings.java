@@ -60,6 +60,7 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
         .caseSensitive(true)
         .mutable()
         .build();
+    private volatile CombinedPathSpecMatcher<E> _combinedMatcher;
 
     @Override
     public String dump()
@@ -89,11 +90,13 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
         _mappings.clear();
         _prefixMap.clear();
         _suffixMap.clear();
+        _combinedMatcher = null;
     }
 
     public void removeIf(Predicate<MappedResource<E>> predicate)
     {
         _mappings.removeIf(predicate);
+        _combinedMatcher = null;
     }
 
     /**
@@ -131,11 +134,14 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
     public MappedResource<E> getMatch(String path)
     {
         PathSpecGroup lastGroup = null;
+        CombinedPathSpecMatcher<E> combinedMatcher = null;
+        MappedResource<E> combinedMatch = null;
 
         // Search all the mappings
         for (MappedResource<E> mr : _mappings)
         {
-            PathSpecGroup group = mr.getPathSpec().getGroup();
+            PathSpec pathSpec = mr.getPathSpec();
+            PathSpecGroup group = pathSpec.getGroup();
             if (group != lastGroup)
             {
                 // New group in list, so let's look for an optimization
@@ -187,8 +193,22 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
                 }
             }
 
-            if (mr.getPathSpec().matches(path))
+            if (CombinedPathSpecMatcher.isCombined(pathSpec))
+            {
+                // URI templates and regexes are all matched in one pass the first time one is
+                // reached, which finds the first of them (in search order) that matches.
+                if (combinedMatcher == null)
+                {
+                    combinedMatcher = getCombinedMatcher();
+                    combinedMatch = combinedMatcher.getMatch(path);
+                }
+                if (mr == combinedMatch)
+                    return mr;
+            }
+            else if (pathSpec.matches(path))
+            {
                 return mr;
+            }
 
             lastGroup = group;
         }
@@ -196,6 +216,17 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
         return null;
     }
 
+    private CombinedPathSpecMatcher<E> getCombinedMatcher()
+    {
+        CombinedPathSpecMatcher<E> combinedMatcher = _combinedMatcher;
+        if (combinedMatcher == null)
+        {
+            combinedMatcher = new CombinedPathSpecMatcher<>(_mappings);
+            _combinedMatcher = combinedMatcher;
+        }
+        return combinedMatcher;
+    }
+
     @Override
     public Iterator<MappedResource<E>> iterator()
     {
@@ -252,6 +283,7 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
         }
 
         boolean added = _mappings.add(entry);
+        _combinedMatcher = null;
         if (LOG.isDebugEnabled())
             LOG.debug("{} {} to {}", added ? "Added" : "Ignored", entry, this);
         return added;
@@ -288,6 +320,7 @@ public class PathMappings<E> implements Iterable<MappedResource<E>>, Dumpable
             {
                 removed = true;
                 iter.remove();
+                _combinedMatcher = null;
                 break;
             }
         }
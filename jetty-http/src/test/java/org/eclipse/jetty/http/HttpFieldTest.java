@@ -27,7 +27,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -194,4 +196,54 @@ public class HttpFieldTest
         assertEquals("X-My-Custom-Header", field.getName());
         assertEquals("something", field.getValue());
     }
+
+    @Test
+    public void testInternedField()
+    {
+        PreEncodedHttpField field = PreEncodedHttpField.intern(HttpHeader.CONTENT_TYPE, "text/x-interned");
+        assertSame(field, PreEncodedHttpField.intern(HttpHeader.CONTENT_TYPE, "text/x-interned"));
+        assertSame(field, PreEncodedHttpField.intern(new HttpField(HttpHeader.CONTENT_TYPE, "text/x-interned")));
+        assertSame(field, PreEncodedHttpField.intern(field));
+
+        ByteBuffer buf = BufferUtil.allocate(256);
+        BufferUtil.clearToFill(buf);
+        field.putTo(buf, HttpVersion.HTTP_1_1);
+        BufferUtil.flipToFlush(buf, 0);
+        assertEquals("Content-Type: text/x-interned\r\n", BufferUtil.toString(buf));
+
+        // The name is generated exactly as given, even if an interned field differs only by case.
+        PreEncodedHttpField lower = PreEncodedHttpField.intern(null, "x-interned", "value");
+        PreEncodedHttpField upper = PreEncodedHttpField.intern(null, "X-Interned", "value");
+        assertEquals("x-interned", lower.getName());
+        assertEquals("X-Interned", upper.getName());
+        assertSame(lower, PreEncodedHttpField.intern(null, "x-interned", "value"));
+        assertSame(upper, PreEncodedHttpField.intern(null, "X-Interned", "value"));
+    }
+
+    @Test
+    public void testInternedFieldsBounded()
+    {
+        PreEncodedHttpField.clearInterned();
+        try
+        {
+            PreEncodedHttpField hot = PreEncodedHttpField.intern(HttpHeader.CACHE_CONTROL, "max-age=3600, x-hot");
+
+            // Values that vary with each request fill the table, but do not evict the fields already shared.
+            for (int i = 0; i < 4096; i++)
+            {
+                PreEncodedHttpField field = PreEncodedHttpField.intern(HttpHeader.CACHE_CONTROL, "max-age=" + i);
+                assertEquals("max-age=" + i, field.getValue());
+            }
+            assertSame(hot, PreEncodedHttpField.intern(HttpHeader.CACHE_CONTROL, "max-age=3600, x-hot"));
+
+            // Once the table is full, new values are still pre-encoded but no longer shared.
+            PreEncodedHttpField cold = PreEncodedHttpField.intern(HttpHeader.CACHE_CONTROL, "max-age=0, x-cold");
+            assertEquals("max-age=0, x-cold", cold.getValue());
+            assertNotSame(cold, PreEncodedHttpField.intern(HttpHeader.CACHE_CONTROL, "max-age=0, x-cold"));
+        }
+        finally
+        {
+            PreEncodedHttpField.clearInterned();
+        }
+    }
 }
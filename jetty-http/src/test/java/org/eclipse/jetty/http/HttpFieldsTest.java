@@ -761,6 +761,52 @@ public class HttpFieldsTest
         assertThat(fields.get("five"), is("5"));
     }
 
+    @Test
+    public void testSharedTemplate()
+    {
+        HttpFields.Immutable template = HttpFields.preEncoded(HttpFields.build()
+            .add(HttpHeader.SERVER, "jetty")
+            .add("X-Frame-Options", "DENY")
+            .add(HttpHeader.VARY, "Accept-Encoding"));
+        for (HttpField field : template)
+        {
+            assertThat(field, instanceOf(PreEncodedHttpField.class));
+        }
+
+        HttpFields.Mutable one = HttpFields.build().add(template);
+        HttpFields.Mutable two = HttpFields.build(template);
+        assertThat(one.size(), is(3));
+        assertThat(one.asImmutable(), is(template));
+
+        // Modifications are applied to a copy, not to the shared template.
+        one.add("X-One", "1");
+        one.put(HttpHeader.SERVER, "other");
+        two.remove("X-Frame-Options");
+        two.computeField(HttpHeader.VARY, (h, l) -> new HttpField(h, "Accept-Language"));
+        ListIterator<HttpField> iterator = two.listIterator();
+        iterator.next();
+        iterator.set(new HttpField("X-Two", "2"));
+
+        assertThat(template.size(), is(3));
+        assertThat(template.get(HttpHeader.SERVER), is("jetty"));
+        assertThat(template.get("X-Frame-Options"), is("DENY"));
+        assertThat(template.get(HttpHeader.VARY), is("Accept-Encoding"));
+
+        assertThat(one.size(), is(4));
+        assertThat(one.get(HttpHeader.SERVER), is("other"));
+        assertThat(one.get("X-One"), is("1"));
+        assertThat(two.size(), is(2));
+        assertThat(two.get("X-Two"), is("2"));
+        assertThat(two.get(HttpHeader.VARY), is("Accept-Language"));
+
+        // A cleared instance can share the template again.
+        one.clear().add(template);
+        one.add("X-One", "1");
+        assertThat(one.size(), is(4));
+        assertThat(template.size(), is(3));
+        assertNull(template.get("X-One"));
+    }
+
     @Test
     public void testPutNullName()
     {
@@ -853,6 +853,40 @@ public class HttpGeneratorServerTest
         assertThat(out, containsString("\r\n\r\nHello World! The quick brown fox jumped over the lazy dog. "));
     }
 
+    @Test
+    public void test103EarlyHintsThenResponse() throws Exception
+    {
+        ByteBuffer header = BufferUtil.allocate(4096);
+        HttpGenerator gen = new HttpGenerator();
+
+        HttpFields.Mutable hints = HttpFields.build();
+        hints.add("Link", "</style.css>; rel=preload; as=style");
+        hints.add("Link", "</script.js>; rel=preload; as=script");
+        MetaData.Response earlyHints = new MetaData.Response(HttpVersion.HTTP_1_1, HttpStatus.EARLY_HINTS_103, null, hints, -1);
+
+        HttpGenerator.Result result = gen.generateResponse(earlyHints, false, header, null, null, false);
+        assertEquals(HttpGenerator.Result.FLUSH, result);
+        assertEquals(HttpGenerator.State.COMPLETING_1XX, gen.getState());
+        String out = BufferUtil.toString(header);
+        BufferUtil.clear(header);
+
+        result = gen.generateResponse(null, false, null, null, null, false);
+        assertEquals(HttpGenerator.Result.DONE, result);
+        assertEquals(HttpGenerator.State.START, gen.getState());
+
+        assertEquals("HTTP/1.1 103 Early Hints\r\n" +
+            "Link: </style.css>; rel=preload; as=style\r\n" +
+            "Link: </script.js>; rel=preload; as=script\r\n" +
+            "\r\n", out);
+
+        MetaData.Response info = new MetaData.Response(HttpVersion.HTTP_1_1, 200, null, HttpFields.build(), 0);
+        result = gen.generateResponse(info, false, header, null, null, true);
+        assertEquals(HttpGenerator.Result.FLUSH, result);
+        out = BufferUtil.toString(header);
+        assertThat(out, containsString("HTTP/1.1 200 OK"));
+        assertThat(out, not(containsString("Link")));
+    }
+
     @Test
     public void testConnectionKeepAliveWithAdditionalCustomValue() throws Exception
     {
@@ -42,7 +42,9 @@ import static org.eclipse.jetty.http.HttpCompliance.Violation.TRANSFER_ENCODING_
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -1199,6 +1201,50 @@ public class HttpParserTest
         assertTrue(_early);
     }
 
+    @Test
+    public void testCompactBetweenRequests()
+    {
+        String longPath = "/" + "x".repeat(4 * HttpParser.INITIAL_URI_LENGTH);
+        String longValue = "y".repeat(4 * HttpParser.INITIAL_URI_LENGTH);
+        ByteBuffer buffer = BufferUtil.toBuffer(
+            "GET " + longPath + " HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Header1: " + longValue + "\r\n" +
+                "\r\n" +
+
+                "GET /short HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Header2: value2\r\n" +
+                "\r\n");
+
+        HttpParser.RequestHandler handler = new Handler();
+        HttpParser parser = new HttpParser(handler);
+        parser.parseNext(buffer);
+        assertEquals(longPath, _uriOrStatus);
+        assertEquals(longValue, _val[1]);
+
+        assertThat(parser.getURICapacity(), greaterThan(HttpParser.INITIAL_URI_LENGTH));
+        assertThat(parser.getStringCapacity(), greaterThan(HttpParser.INITIAL_URI_LENGTH));
+
+        // Compacting is ignored until the parser is reset for the next message
+        parser.compact();
+        assertThat(parser.getURICapacity(), greaterThan(HttpParser.INITIAL_URI_LENGTH));
+        assertThat(parser.getStringCapacity(), greaterThan(HttpParser.INITIAL_URI_LENGTH));
+
+        parser.reset();
+        parser.compact();
+        assertEquals(HttpParser.INITIAL_URI_LENGTH, parser.getURICapacity());
+        assertThat(parser.getStringCapacity(), lessThanOrEqualTo(HttpParser.INITIAL_URI_LENGTH));
+        assertFalse(parser.hasFieldState());
+        init();
+        parser.parseNext(buffer);
+        assertEquals("GET", _methodOrVersion);
+        assertEquals("/short", _uriOrStatus);
+        assertEquals("HTTP/1.1", _versionOrReason);
+        assertEquals("Header2", _hdr[1]);
+        assertEquals("value2", _val[1]);
+    }
+
     @Test
     public void testMultiParse()
     {
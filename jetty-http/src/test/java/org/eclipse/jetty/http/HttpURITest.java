@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -305,4 +306,35 @@ public class HttpURITest
         uri = HttpURI.from("http:./path/info/.");
         assertEquals("path/info/", uri.getDecodedPath());
     }
+
+    @Test
+    public void testLazyQuery()
+    {
+        String target = "/path/info?query=value&other=thing";
+        HttpURI uri = HttpURI.from("GET", target);
+        assertThat(uri.getPathQuery(), sameInstance(target));
+        assertThat(uri.getPath(), is("/path/info"));
+        assertThat(uri.getQuery(), is("query=value&other=thing"));
+        assertThat(uri.getQuery(), sameInstance(uri.getQuery()));
+
+        HttpURI request = HttpURI.build(HttpURI.from("GET", target))
+            .scheme("http")
+            .host("localhost")
+            .port(8080)
+            .asImmutable();
+        assertThat(request.getPathQuery(), sameInstance(target));
+        assertThat(request.toString(), is("http://localhost:8080" + target));
+        assertThat(request.getQuery(), is("query=value&other=thing"));
+
+        uri = HttpURI.build(request).path("/other").asImmutable();
+        assertThat(uri.getPathQuery(), is("/other?query=value&other=thing"));
+
+        uri = HttpURI.build(request).query("changed").asImmutable();
+        assertThat(uri.getPathQuery(), is("/path/info?changed"));
+
+        uri = HttpURI.from("/path?query#fragment");
+        assertThat(uri.getPathQuery(), is("/path?query"));
+        assertThat(uri.getQuery(), is("query"));
+        assertThat(uri.getFragment(), is("fragment"));
+    }
 }
@@ -461,4 +461,55 @@ public class PathMappingsTest
         assertThat(p.remove(new ServletPathSpec("/a/b/c")), is(true));
         assertThat(p.remove(new ServletPathSpec("/a/b/c")), is(false));
     }
+
+    @Test
+    public void testCombinedMatchSameAsSequentialMatch()
+    {
+        PathMappings<String> p = new PathMappings<>();
+        for (int i = 0; i < 50; i++)
+        {
+            p.put(new UriTemplatePathSpec("/api/v" + i + "/orders/{id}"), "orders" + i);
+            p.put(new UriTemplatePathSpec("/api/v" + i + "/orders/{id}/items/{item}"), "items" + i);
+            p.put(new UriTemplatePathSpec("/api/v" + i + "/{resource}/count"), "count" + i);
+            p.put(new RegexPathSpec("^/rx/v" + i + "/(\\w+)/(\\d+)$"), "regex" + i);
+        }
+        p.put(new UriTemplatePathSpec("/api/v1/orders/latest"), "latest");
+        p.put(new UriTemplatePathSpec("/api/{version}/orders/{id}/"), "trailing");
+        p.put(new UriTemplatePathSpec("/"), "root");
+        p.put(new UriTemplatePathSpec("/{a}/{b}/{c}/{d}"), "fourSegments");
+        p.put(new UriTemplatePathSpec("/api/a+b/{id}"), "plus");
+        p.put(new RegexPathSpec("^/rx/(\\w+)/\\1$"), "backReference");
+        p.put(new RegexPathSpec("^/rx/.*$"), "anyRegex");
+
+        String[] paths = {
+            "/", "/api/v1/orders/latest", "/api/v1/orders/42", "/api/v7/orders/42/items/3",
+            "/api/v7/orders/42/", "/api/v49/customers/count", "/api/v50/orders/42", "/api/v1/orders//items/3",
+            "/api/v1/orders/42?query=1", "/w/x/y/z", "/w/x/y", "/api/aab/1", "/api/a+b/1", "/rx/v3/abc/123",
+            "/rx/v3/abc/def", "/rx/same/same", "/rx/same/other", "/nomatch", ""
+        };
+        for (String path : paths)
+        {
+            MappedResource<String> expected = null;
+            for (MappedResource<String> mapping : p)
+            {
+                if (mapping.getPathSpec().matches(path))
+                {
+                    expected = mapping;
+                    break;
+                }
+            }
+            assertThat(path, p.getMatch(path), is(expected));
+        }
+
+        assertMatch(p, "/api/v1/orders/latest", "latest");
+        assertMatch(p, "/api/v7/orders/42/items/3", "items7");
+        // Literal segments of a URI template are matched as the regex they compile to
+        assertMatch(p, "/api/aab/1", "plus");
+        assertMatch(p, "/rx/same/same", "backReference");
+        assertMatch(p, "/rx/v3/abc/123", "regex3");
+
+        // Changes to the mappings are seen by the combined matcher
+        p.remove(new UriTemplatePathSpec("/api/v1/orders/latest"));
+        assertMatch(p, "/api/v1/orders/latest", "orders1");
+    }
 }
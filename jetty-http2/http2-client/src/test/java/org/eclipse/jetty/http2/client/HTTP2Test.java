@@ -56,6 +56,7 @@ import org.eclipse.jetty.http2.parser.ServerParser;
 import org.eclipse.jetty.http2.server.RawHTTP2ServerConnectionFactory;
 import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.FuturePromise;
@@ -203,6 +204,52 @@ public class HTTP2Test extends AbstractTest
         assertTrue(latch.await(5, TimeUnit.SECONDS));
     }
 
+    @Test
+    public void testEarlyHintsInterimResponse() throws Exception
+    {
+        String link = "</style.css>; rel=preload; as=style";
+        start(new HttpServlet()
+        {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException
+            {
+                assertTrue(Request.getBaseRequest(req).getResponse().sendEarlyHints(HttpFields.build().add("Link", link)));
+                assertFalse(resp.isCommitted());
+                resp.getOutputStream().write("page".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        Session session = newClient(new Session.Listener.Adapter());
+
+        MetaData.Request metaData = newRequest("GET", HttpFields.EMPTY);
+        HeadersFrame frame = new HeadersFrame(metaData, null, true);
+        CountDownLatch earlyHintsLatch = new CountDownLatch(1);
+        CountDownLatch responseLatch = new CountDownLatch(1);
+        session.newStream(frame, new Promise.Adapter<>(), new Stream.Listener.Adapter()
+        {
+            @Override
+            public void onHeaders(Stream stream, HeadersFrame frame)
+            {
+                MetaData.Response response = (MetaData.Response)frame.getMetaData();
+                if (response.getStatus() == HttpStatus.EARLY_HINTS_103)
+                {
+                    assertFalse(frame.isEndStream());
+                    assertEquals(link, response.getFields().get("Link"));
+                    earlyHintsLatch.countDown();
+                }
+                else
+                {
+                    assertEquals(0, earlyHintsLatch.getCount());
+                    assertEquals(200, response.getStatus());
+                    responseLatch.countDown();
+                }
+            }
+        });
+
+        assertTrue(earlyHintsLatch.await(5, TimeUnit.SECONDS));
+        assertTrue(responseLatch.await(5, TimeUnit.SECONDS));
+    }
+
     @Test
     public void testRequestContentResponseContent() throws Exception
     {
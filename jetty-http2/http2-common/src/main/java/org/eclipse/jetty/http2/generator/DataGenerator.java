@@ -74,7 +74,9 @@ public class DataGenerator
         if (last)
             flags |= Flags.END_STREAM;
 
-        ByteBuffer header = headerGenerator.generate(lease, FrameType.DATA, Frame.HEADER_LENGTH + length, length, flags, streamId);
+        // The data is not copied, so only acquire a buffer large enough for the frame header,
+        // and gather the header with a slice of the (possibly read-only, mapped) data buffer.
+        ByteBuffer header = headerGenerator.generate(lease, FrameType.DATA, Frame.HEADER_LENGTH, length, flags, streamId);
         BufferUtil.flipToFlush(header, 0);
         lease.append(header, true);
         // Skip empty data buffers.
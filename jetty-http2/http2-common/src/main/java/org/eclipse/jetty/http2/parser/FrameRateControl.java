@@ -0,0 +1,180 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http2.parser;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jetty.http2.frames.Frame;
+import org.eclipse.jetty.http2.frames.FrameType;
+import org.eclipse.jetty.io.EndPoint;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
+import org.eclipse.jetty.util.annotation.Name;
+
+/**
+ * <p>An implementation of {@link RateControl} that limits the rate of events
+ * separately for each {@link FrameType}, so that for example a flood of
+ * {@code RST_STREAM} frames is detected independently of other frames.</p>
+ * <p>Each frame type has a token bucket that holds up to one second worth of
+ * events and that is refilled at the configured rate; each event consumes a
+ * token and exceeds the rate when the bucket is empty.
+ * Events that are not frames of a known type share a bucket of their own.</p>
+ * <p>The buckets are implemented as a theoretical arrival time per frame type,
+ * so no allocation is performed per event.</p>
+ */
+public class FrameRateControl implements RateControl
+{
+    private static final int OTHERS = FrameType.values().length;
+
+    private final Factory factory;
+    private final long[] intervals;
+    private final long[] tolerances;
+    private final long[] arrivals;
+
+    private FrameRateControl(Factory factory)
+    {
+        this.factory = factory;
+        this.intervals = new long[OTHERS + 1];
+        this.tolerances = new long[OTHERS + 1];
+        this.arrivals = new long[OTHERS + 1];
+        for (int i = 0; i < intervals.length; ++i)
+        {
+            int eventsPerSecond = factory.maxEventsPerSecond[i];
+            if (eventsPerSecond > 0)
+            {
+                intervals[i] = TimeUnit.SECONDS.toNanos(1) / eventsPerSecond;
+                tolerances[i] = intervals[i] * (eventsPerSecond - 1);
+            }
+        }
+        long now = System.nanoTime();
+        Arrays.fill(arrivals, now);
+    }
+
+    @Override
+    public boolean onEvent(Object event)
+    {
+        int bucket = bucketOf(event);
+        long interval = intervals[bucket];
+        if (interval == 0)
+            return true;
+
+        synchronized (this)
+        {
+            long now = System.nanoTime();
+            long arrival = arrivals[bucket];
+            if (arrival - now < 0)
+                arrival = now;
+            if (arrival - now > tolerances[bucket])
+            {
+                factory.rejected[bucket].increment();
+                return false;
+            }
+            arrivals[bucket] = arrival + interval;
+            return true;
+        }
+    }
+
+    private static int bucketOf(Object event)
+    {
+        if (event instanceof Frame)
+        {
+            FrameType type = ((Frame)event).getType();
+            if (type != null)
+                return type.ordinal();
+        }
+        return OTHERS;
+    }
+
+    /**
+     * <p>Creates {@link FrameRateControl} instances, and collects the
+     * number of events that exceeded the rate across all of them.</p>
+     */
+    @ManagedObject("The rate control of HTTP/2 frames per frame type")
+    public static class Factory implements RateControl.Factory
+    {
+        private final int[] maxEventsPerSecond = new int[OTHERS + 1];
+        private final LongAdder[] rejected = new LongAdder[OTHERS + 1];
+
+        /**
+         * @param maxEventsPerSecond the max number of events per second for each frame type
+         */
+        public Factory(@Name("maxEventsPerSecond") int maxEventsPerSecond)
+        {
+            Arrays.fill(this.maxEventsPerSecond, maxEventsPerSecond);
+            Arrays.setAll(rejected, i -> new LongAdder());
+        }
+
+        /**
+         * @param frameType the frame type, or null for events that are not frames of a known type
+         * @return the max number of events per second for the given frame type
+         */
+        public int getMaxEventsPerSecond(FrameType frameType)
+        {
+            return maxEventsPerSecond[frameType == null ? OTHERS : frameType.ordinal()];
+        }
+
+        /**
+         * <p>Sets the max number of events per second for the given frame type,
+         * applied to the rate controls created after this call.</p>
+         *
+         * @param frameType the frame type, or null for events that are not frames of a known type
+         * @param maxEventsPerSecond the max number of events per second, or zero or less for no limit
+         */
+        public void setMaxEventsPerSecond(FrameType frameType, int maxEventsPerSecond)
+        {
+            this.maxEventsPerSecond[frameType == null ? OTHERS : frameType.ordinal()] = maxEventsPerSecond;
+        }
+
+        @ManagedAttribute("The number of events that exceeded the rate")
+        public long getRejectedEvents()
+        {
+            return Arrays.stream(rejected).mapToLong(LongAdder::sum).sum();
+        }
+
+        @ManagedOperation(value = "The number of events of the given frame type that exceeded the rate", impact = "INFO")
+        public long getRejectedEvents(@Name("frameType") String frameType)
+        {
+            return rejected[FrameType.valueOf(frameType).ordinal()].sum();
+        }
+
+        @ManagedOperation(value = "Resets the statistics", impact = "ACTION")
+        public void reset()
+        {
+            for (LongAdder adder : rejected)
+            {
+                adder.reset();
+            }
+        }
+
+        @Override
+        public RateControl newRateControl(EndPoint endPoint)
+        {
+            return new FrameRateControl(this);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s@%x{max=%s,rejected=%d}", getClass().getSimpleName(), hashCode(), Arrays.toString(maxEventsPerSecond), getRejectedEvents());
+        }
+    }
+}
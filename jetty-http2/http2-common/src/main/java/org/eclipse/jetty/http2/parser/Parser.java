@@ -239,6 +239,20 @@ public class Parser
         this.maxSettingsKeys = maxSettingsKeys;
     }
 
+    public boolean isRetainEncodedFields()
+    {
+        return hpackDecoder.isRetainEncodedFields();
+    }
+
+    /**
+     * @param retainEncodedFields whether decoded header fields retain their HPACK encoding
+     * @see HpackDecoder#setRetainEncodedFields(boolean)
+     */
+    public void setRetainEncodedFields(boolean retainEncodedFields)
+    {
+        hpackDecoder.setRetainEncodedFields(retainEncodedFields);
+    }
+
     protected void notifyConnectionFailure(int error, String reason)
     {
         try
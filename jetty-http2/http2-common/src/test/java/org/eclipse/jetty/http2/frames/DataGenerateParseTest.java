@@ -88,6 +88,40 @@ public class DataGenerateParseTest
         assertEquals(content, aggregate);
     }
 
+    @Test
+    public void testGenerateLargeReadOnlyContentWithoutCopy()
+    {
+        // Emulates a read-only mapped file buffer.
+        ByteBuffer content = ByteBuffer.allocateDirect(largeContent.length);
+        content.put(largeContent).flip();
+        content = content.asReadOnlyBuffer();
+
+        DataGenerator generator = new DataGenerator(new HeaderGenerator());
+        ByteBufferPool.Lease lease = new ByteBufferPool.Lease(byteBufferPool);
+        ByteBuffer slice = content.slice();
+        int generated = 0;
+        while (generated < content.remaining())
+        {
+            generated += generator.generateData(lease, 13, slice, true, slice.remaining()) - Frame.HEADER_LENGTH;
+        }
+
+        List<ByteBuffer> buffers = lease.getByteBuffers();
+        assertEquals(16, buffers.size());
+        for (int i = 0; i < buffers.size(); i += 2)
+        {
+            // The frame header is generated in a small buffer of its own.
+            ByteBuffer header = buffers.get(i);
+            assertEquals(Frame.HEADER_LENGTH, header.remaining());
+            assertTrue(header.capacity() < Frame.DEFAULT_MAX_LENGTH);
+
+            // The frame payload is a slice of the content.
+            ByteBuffer payload = buffers.get(i + 1);
+            assertTrue(payload.isReadOnly());
+            assertTrue(payload.isDirect());
+            assertEquals(Frame.DEFAULT_MAX_LENGTH, payload.remaining());
+        }
+    }
+
     private List<DataFrame> testGenerateParse(ByteBuffer data)
     {
         DataGenerator generator = new DataGenerator(new HeaderGenerator());
@@ -27,7 +27,9 @@ import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.http.MetaData;
 import org.eclipse.jetty.http2.Flags;
 import org.eclipse.jetty.http2.hpack.HpackEncoder;
+import org.eclipse.jetty.http2.parser.FrameRateControl;
 import org.eclipse.jetty.http2.parser.Parser;
+import org.eclipse.jetty.http2.parser.RateControl;
 import org.eclipse.jetty.http2.parser.WindowRateControl;
 import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.io.MappedByteBufferPool;
@@ -35,6 +37,9 @@ import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FrameFloodTest
 {
@@ -108,6 +113,13 @@ public class FrameFloodTest
         testFrameFlood(null, frameFrom(payload.length, FrameType.PING.getType(), 0, 0, payload));
     }
     
+    @Test
+    public void testResetFrameFlood()
+    {
+        byte[] payload = {0, 0, 0, 0};
+        testFrameFlood(null, frameFrom(payload.length, FrameType.RST_STREAM.getType(), 0, 13, payload));
+    }
+
     @Test
     public void testContinuationFrameFlood()
     {
@@ -125,6 +137,34 @@ public class FrameFloodTest
         testFrameFlood(null, frameFrom(payload.length, 64, 0, 0, payload));
     }
 
+    @Test
+    public void testFrameRateControlPerFrameType()
+    {
+        FrameRateControl.Factory factory = new FrameRateControl.Factory(8);
+        factory.setMaxEventsPerSecond(FrameType.PING, 0);
+        RateControl rateControl = factory.newRateControl(null);
+
+        // PING frames are not limited.
+        PingFrame ping = new PingFrame(false);
+        for (int i = 0; i < 1024; ++i)
+        {
+            assertTrue(rateControl.onEvent(ping));
+        }
+
+        // Exceeding the rate of RST_STREAM frames does not affect PRIORITY frames.
+        ResetFrame reset = new ResetFrame(13, 0);
+        for (int i = 0; i < 8; ++i)
+        {
+            assertTrue(rateControl.onEvent(reset));
+        }
+        assertFalse(rateControl.onEvent(reset));
+        assertTrue(rateControl.onEvent(new PriorityFrame(13, 0, 16, false)));
+
+        assertEquals(1, factory.getRejectedEvents());
+        assertEquals(1, factory.getRejectedEvents(FrameType.RST_STREAM.name()));
+        assertEquals(0, factory.getRejectedEvents(FrameType.PRIORITY.name()));
+    }
+
     private void testFrameFlood(byte[] preamble, byte[] bytes)
     {
         AtomicBoolean failed = new AtomicBoolean();
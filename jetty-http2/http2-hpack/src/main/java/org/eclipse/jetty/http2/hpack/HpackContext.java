@@ -30,7 +30,6 @@ import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpScheme;
 import org.eclipse.jetty.util.Index;
-import org.eclipse.jetty.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -189,8 +188,6 @@ public class HpackContext
     private int _maxDynamicTableSizeInBytes;
     private int _dynamicTableSizeInBytes;
     private final DynamicTable _dynamicTable;
-    private final Map<HttpField, Entry> _fieldMap = new HashMap<>();
-    private final Map<String, Entry> _nameMap = new HashMap<>();
 
     HpackContext(int maxDynamicTableSize)
     {
@@ -211,7 +208,7 @@ public class HpackContext
 
     public Entry get(HttpField field)
     {
-        Entry entry = _fieldMap.get(field);
+        Entry entry = _dynamicTable.get(field);
         if (entry == null)
             entry = __staticFieldMap.get(field);
         return entry;
@@ -222,7 +219,7 @@ public class HpackContext
         Entry entry = __staticNameMap.get(name);
         if (entry != null)
             return entry;
-        return _nameMap.get(StringUtil.asciiToLowerCase(name));
+        return _dynamicTable.get(name);
     }
 
     public Entry get(int index)
@@ -259,8 +256,6 @@ public class HpackContext
         }
         _dynamicTableSizeInBytes += size;
         _dynamicTable.add(entry);
-        _fieldMap.put(field, entry);
-        _nameMap.put(field.getLowerCaseName(), entry);
 
         if (LOG.isDebugEnabled())
             LOG.debug(String.format("HdrTbl[%x] added %s", hashCode(), entry));
@@ -318,36 +313,79 @@ public class HpackContext
         return String.format("HpackContext@%x{entries=%d,size=%d,max=%d}", hashCode(), _dynamicTable.size(), _dynamicTableSizeInBytes, _maxDynamicTableSizeInBytes);
     }
 
+    /**
+     * <p>The dynamic table, held as a circular array of entries.</p>
+     * <p>Entries are looked up by field and by name through two open-addressing
+     * (linear probing) hash indexes over the entry slots, so that adding and
+     * evicting entries does not allocate map nodes. Each index cell holds the
+     * entry slot plus one, with zero marking an empty cell. An index only ever
+     * refers to the most recently added entry for a given field or name, and is
+     * kept at most half full by sizing it to twice the entries capacity.</p>
+     */
     private class DynamicTable
     {
         Entry[] _entries;
         int _size;
         int _offset;
         int _growby;
+        int[] _fieldHashes;
+        int[] _nameHashes;
+        int[] _fieldIndex;
+        int[] _nameIndex;
 
         private DynamicTable(int initCapacity)
         {
             _entries = new Entry[initCapacity];
             _growby = initCapacity;
+            _fieldHashes = new int[initCapacity];
+            _nameHashes = new int[initCapacity];
+            int indexCapacity = indexCapacity(initCapacity);
+            _fieldIndex = new int[indexCapacity];
+            _nameIndex = new int[indexCapacity];
         }
 
         public void add(Entry entry)
         {
             if (_size == _entries.length)
-            {
-                Entry[] entries = new Entry[_entries.length + _growby];
-                for (int i = 0; i < _size; i++)
-                {
-                    int slot = (_offset + i) % _entries.length;
-                    entries[i] = _entries[slot];
-                    entries[i]._slot = i;
-                }
-                _entries = entries;
-                _offset = 0;
-            }
+                grow();
             int slot = (_size++ + _offset) % _entries.length;
             _entries[slot] = entry;
             entry._slot = slot;
+            HttpField field = entry.getHttpField();
+            _fieldHashes[slot] = field.hashCode();
+            _nameHashes[slot] = nameHash(field.getName());
+            put(_fieldIndex, _fieldHashes, slot, true);
+            put(_nameIndex, _nameHashes, slot, false);
+        }
+
+        private void grow()
+        {
+            int capacity = _entries.length + _growby;
+            Entry[] entries = new Entry[capacity];
+            int[] fieldHashes = new int[capacity];
+            int[] nameHashes = new int[capacity];
+            for (int i = 0; i < _size; i++)
+            {
+                int slot = (_offset + i) % _entries.length;
+                entries[i] = _entries[slot];
+                entries[i]._slot = i;
+                fieldHashes[i] = _fieldHashes[slot];
+                nameHashes[i] = _nameHashes[slot];
+            }
+            _entries = entries;
+            _fieldHashes = fieldHashes;
+            _nameHashes = nameHashes;
+            _offset = 0;
+
+            // Slots have moved, so rebuild the indexes oldest first so that the newest entries win.
+            int indexCapacity = indexCapacity(capacity);
+            _fieldIndex = new int[indexCapacity];
+            _nameIndex = new int[indexCapacity];
+            for (int i = 0; i < _size; i++)
+            {
+                put(_fieldIndex, _fieldHashes, i, true);
+                put(_nameIndex, _nameHashes, i, false);
+            }
         }
 
         public int index(Entry entry)
@@ -364,27 +402,118 @@ public class HpackContext
             return _entries[slot];
         }
 
+        public Entry get(HttpField field)
+        {
+            if (_size == 0)
+                return null;
+            int[] index = _fieldIndex;
+            int mask = index.length - 1;
+            int hash = field.hashCode();
+            for (int i = spread(hash) & mask; ; i = (i + 1) & mask)
+            {
+                int cell = index[i];
+                if (cell == 0)
+                    return null;
+                int slot = cell - 1;
+                if (_fieldHashes[slot] == hash && field.equals(_entries[slot].getHttpField()))
+                    return _entries[slot];
+            }
+        }
+
+        public Entry get(String name)
+        {
+            if (_size == 0)
+                return null;
+            int[] index = _nameIndex;
+            int mask = index.length - 1;
+            int hash = nameHash(name);
+            for (int i = spread(hash) & mask; ; i = (i + 1) & mask)
+            {
+                int cell = index[i];
+                if (cell == 0)
+                    return null;
+                int slot = cell - 1;
+                if (_nameHashes[slot] == hash && name.equalsIgnoreCase(_entries[slot].getHttpField().getName()))
+                    return _entries[slot];
+            }
+        }
+
         public int size()
         {
             return _size;
         }
 
+        private boolean matches(int slotA, int slotB, boolean byField)
+        {
+            HttpField a = _entries[slotA].getHttpField();
+            HttpField b = _entries[slotB].getHttpField();
+            return byField ? a.equals(b) : a.getName().equalsIgnoreCase(b.getName());
+        }
+
+        private void put(int[] index, int[] hashes, int slot, boolean byField)
+        {
+            int mask = index.length - 1;
+            int hash = hashes[slot];
+            for (int i = spread(hash) & mask; ; i = (i + 1) & mask)
+            {
+                int cell = index[i];
+                if (cell == 0 || hashes[cell - 1] == hash && matches(cell - 1, slot, byField))
+                {
+                    // Either a free cell or an older entry that this one replaces.
+                    index[i] = slot + 1;
+                    return;
+                }
+            }
+        }
+
+        private void remove(int[] index, int[] hashes, int slot)
+        {
+            int mask = index.length - 1;
+            int i = spread(hashes[slot]) & mask;
+            while (true)
+            {
+                int cell = index[i];
+                if (cell == 0)
+                    return; // Not indexed, as replaced by a newer entry.
+                if (cell == slot + 1)
+                    break;
+                i = (i + 1) & mask;
+            }
+
+            // Backward shift deletion, so that probe sequences remain unbroken without tombstones.
+            int hole = i;
+            int j = i;
+            while (true)
+            {
+                j = (j + 1) & mask;
+                int cell = index[j];
+                if (cell == 0)
+                    break;
+                int home = spread(hashes[cell - 1]) & mask;
+                boolean reachable = hole <= j ? (hole < home && home <= j) : (hole < home || home <= j);
+                if (reachable)
+                    continue;
+                index[hole] = cell;
+                hole = j;
+            }
+            index[hole] = 0;
+        }
+
         private void evict()
         {
             while (_dynamicTableSizeInBytes > _maxDynamicTableSizeInBytes)
             {
-                Entry entry = _entries[_offset];
-                _entries[_offset] = null;
+                int slot = _offset;
+                Entry entry = _entries[slot];
+                remove(_fieldIndex, _fieldHashes, slot);
+                remove(_nameIndex, _nameHashes, slot);
+                _entries[slot] = null;
                 _offset = (_offset + 1) % _entries.length;
                 _size--;
                 if (LOG.isDebugEnabled())
                     LOG.debug(String.format("HdrTbl[%x] evict %s", HpackContext.this.hashCode(), entry));
                 _dynamicTableSizeInBytes -= entry.getSize();
                 entry._slot = -1;
-                _fieldMap.remove(entry.getHttpField());
-                String lc = entry.getHttpField().getLowerCaseName();
-                if (entry == _nameMap.get(lc))
-                    _nameMap.remove(lc);
             }
             if (LOG.isDebugEnabled())
                 LOG.debug(String.format("HdrTbl[%x] entries=%d, size=%d, max=%d", HpackContext.this.hashCode(), _dynamicTable.size(), _dynamicTableSizeInBytes, _maxDynamicTableSizeInBytes));
@@ -396,16 +525,48 @@ public class HpackContext
                 LOG.debug(String.format("HdrTbl[%x] evictAll", HpackContext.this.hashCode()));
             if (size() > 0)
             {
-                _fieldMap.clear();
-                _nameMap.clear();
+                for (int i = 0; i < _size; i++)
+                {
+                    _entries[(_offset + i) % _entries.length]._slot = -1;
+                }
                 _offset = 0;
                 _size = 0;
                 _dynamicTableSizeInBytes = 0;
                 Arrays.fill(_entries, null);
+                Arrays.fill(_fieldIndex, 0);
+                Arrays.fill(_nameIndex, 0);
             }
         }
     }
 
+    private static int indexCapacity(int entries)
+    {
+        // The smallest power of two that is at least twice the number of entries.
+        return Integer.highestOneBit(Math.max(2, entries) * 2 - 1) << 1;
+    }
+
+    private static int spread(int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @param name the field name
+     * @return the hash code of the lower cased name, computed without allocating
+     */
+    private static int nameHash(String name)
+    {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++)
+        {
+            char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z')
+                c = (char)(c + ('a' - 'A'));
+            hash = 31 * hash + c;
+        }
+        return hash;
+    }
+
     public static class Entry
     {
         final HttpField _field;
@@ -23,7 +23,9 @@ import java.nio.ByteBuffer;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpTokens;
+import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.http.MetaData;
+import org.eclipse.jetty.http.PreEncodedHttpField;
 import org.eclipse.jetty.http2.hpack.HpackContext.Entry;
 import org.eclipse.jetty.util.BufferUtil;
 import org.slf4j.Logger;
@@ -42,6 +44,7 @@ public class HpackDecoder
     private final HpackContext _context;
     private final MetaDataBuilder _builder;
     private int _localMaxDynamicTableSize;
+    private boolean _retainEncodedFields;
 
     /**
      * @param localMaxDynamicTableSize The maximum allowed size of the local dynamic header field table.
@@ -64,6 +67,29 @@ public class HpackDecoder
         _localMaxDynamicTableSize = localMaxdynamciTableSize;
     }
 
+    /**
+     * @return whether decoded literal fields retain their received encoding
+     * @see #setRetainEncodedFields(boolean)
+     */
+    public boolean isRetainEncodedFields()
+    {
+        return _retainEncodedFields;
+    }
+
+    /**
+     * <p>Sets whether literal fields that do not refer to the dynamic table are decoded
+     * as {@link PreEncodedHttpField}s that retain the octets they were received as.</p>
+     * <p>When such fields are forwarded unchanged, for example by a proxy, they are
+     * encoded again by copying the retained octets rather than by Huffman coding
+     * their name and value, and a never indexed representation is preserved.</p>
+     *
+     * @param retainEncodedFields whether decoded literal fields retain their received encoding
+     */
+    public void setRetainEncodedFields(boolean retainEncodedFields)
+    {
+        _retainEncodedFields = retainEncodedFields;
+    }
+
     public MetaData decode(ByteBuffer buffer) throws HpackException.SessionException, HpackException.StreamException
     {
         if (LOG.isDebugEnabled())
@@ -111,6 +137,8 @@ public class HpackDecoder
             }
             else
             {
+                int start = buffer.position() - 1;
+
                 // look at the first nibble in detail
                 byte f = (byte)((b & 0xF0) >> 4);
                 String name;
@@ -218,7 +246,7 @@ public class HpackDecoder
                 if (header == null)
                 {
                     // just make a normal field and bypass header name lookup
-                    field = new HttpField(null, name, value);
+                    field = newHttpField(buffer, start, nameIndex, null, name, value);
                 }
                 else
                 {
@@ -245,7 +273,7 @@ public class HpackDecoder
                             break;
 
                         default:
-                            field = new HttpField(header, name, value);
+                            field = newHttpField(buffer, start, nameIndex, header, name, value);
                             break;
                     }
                 }
@@ -272,6 +300,19 @@ public class HpackDecoder
         return _builder.build();
     }
 
+    private HttpField newHttpField(ByteBuffer buffer, int start, int nameIndex, HttpHeader header, String name, String value)
+    {
+        // Only an encoding that does not refer to the dynamic table can be reused by another encoder.
+        if (!_retainEncodedFields || nameIndex > HpackContext.STATIC_SIZE)
+            return new HttpField(header, name, value);
+
+        byte[] encoded = new byte[buffer.position() - start];
+        ByteBuffer octets = buffer.duplicate();
+        octets.position(start);
+        octets.get(encoded);
+        return new PreEncodedHttpField(header, name, value, HttpVersion.HTTP_2, encoded);
+    }
+
     public static String toASCIIString(ByteBuffer buffer, int length)
     {
         StringBuilder builder = new StringBuilder(length);
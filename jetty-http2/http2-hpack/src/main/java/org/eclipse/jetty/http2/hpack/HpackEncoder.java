@@ -337,8 +337,6 @@ public class HpackEncoder
             if (header == null)
             {
                 // Select encoding strategy for unknown header names
-                Entry name = _context.get(field.getName());
-
                 if (field instanceof PreEncodedHttpField)
                 {
                     int i = buffer.position();
@@ -348,7 +346,7 @@ public class HpackEncoder
                     if (_debug)
                         encoding = indexed ? "PreEncodedIdx" : "PreEncoded";
                 }
-                else if (name == null && fieldSize < _context.getMaxDynamicTableSize())
+                else if (_context.get(field.getName()) == null && fieldSize < _context.getMaxDynamicTableSize())
                 {
                     // unknown name and value that will fit in dynamic table, so let's index
                     // this just in case it is the first time we have seen a custom name or a
@@ -30,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -450,4 +451,46 @@ public class HpackContextTest
         assertEquals("Wibble", ctx.get("wibble").getHttpField().getName());
         assertEquals("Wibble", ctx.get("Wibble").getHttpField().getName());
     }
+
+    @Test
+    public void testEvictDuplicateKeepsNewest()
+    {
+        // Only enough space for 2 entries
+        HpackContext ctx = new HpackContext(38 * 2);
+        HttpField field = new HttpField("foo", "bar");
+
+        Entry first = ctx.add(field);
+        Entry second = ctx.add(new HttpField("foo", "bar"));
+        assertEquals(2, ctx.size());
+        assertSame(second, ctx.get(field));
+        assertSame(second, ctx.get("foo"));
+
+        // Evicting the older duplicate must not lose the newer one.
+        Entry third = ctx.add(new HttpField("xxx", "yyy"));
+        assertEquals(2, ctx.size());
+        assertEquals(0, ctx.index(first));
+        assertSame(second, ctx.get(field));
+        assertSame(second, ctx.get("FOO"));
+        assertSame(third, ctx.get("xxx"));
+    }
+
+    @Test
+    public void testManyEntriesGrowIndex()
+    {
+        HpackContext ctx = new HpackContext(64 * 1024);
+        for (int i = 0; i < 1000; i++)
+        {
+            ctx.add(new HttpField("name" + i, "value" + i));
+        }
+        assertEquals(1000, ctx.size());
+        for (int i = 0; i < 1000; i++)
+        {
+            Entry entry = ctx.get(new HttpField("name" + i, "value" + i));
+            assertNotNull(entry);
+            assertEquals(HpackContext.STATIC_SIZE + 1000 - i, ctx.index(entry));
+            assertSame(entry, ctx.get("NAME" + i));
+        }
+        assertNull(ctx.get(new HttpField("name0", "other")));
+        assertNull(ctx.get("name1000"));
+    }
 }
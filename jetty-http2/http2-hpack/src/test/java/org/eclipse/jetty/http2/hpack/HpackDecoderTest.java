@@ -20,14 +20,17 @@ package org.eclipse.jetty.http2.hpack;
 
 import java.nio.ByteBuffer;
 import java.util.Iterator;
+import java.util.Locale;
 
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpScheme;
 import org.eclipse.jetty.http.MetaData;
+import org.eclipse.jetty.http.PreEncodedHttpField;
 import org.eclipse.jetty.http2.hpack.HpackException.CompressionException;
 import org.eclipse.jetty.http2.hpack.HpackException.SessionException;
 import org.eclipse.jetty.http2.hpack.HpackException.StreamException;
+import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.TypeUtil;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -59,6 +62,60 @@ public class HpackDecoderTest
      +-------------------------------+
      */
 
+    @Test
+    public void testDecodeRetainEncodedFields() throws Exception
+    {
+        HpackDecoder decoder = new HpackDecoder(4096, 8192);
+        decoder.setRetainEncodedFields(true);
+        HpackEncoder encoder = new HpackEncoder();
+
+        // First request, with a literal authority with incremental indexing.
+        String encoded = "828684410f7777772e6578616d706c652e636f6d";
+        decoder.decode(ByteBuffer.wrap(TypeUtil.fromHexString(encoded)));
+
+        // Second request, with a static name and literal value.
+        encoded = "828684be58086e6f2d6361636865";
+        MetaData.Request request = (MetaData.Request)decoder.decode(ByteBuffer.wrap(TypeUtil.fromHexString(encoded)));
+        HttpField field = request.iterator().next();
+        assertThat(field, Matchers.instanceOf(PreEncodedHttpField.class));
+        assertEquals("58086e6f2d6361636865", encode(encoder, field));
+
+        // Third request, with a literal name and value.
+        encoded = "828785bf400a637573746f6d2d6b65790c637573746f6d2d76616c7565";
+        request = (MetaData.Request)decoder.decode(ByteBuffer.wrap(TypeUtil.fromHexString(encoded)));
+        field = request.iterator().next();
+        assertThat(field, Matchers.instanceOf(PreEncodedHttpField.class));
+        assertEquals(new HttpField("custom-key", "custom-value"), field);
+        assertEquals("400a637573746f6d2d6b65790c637573746f6d2d76616c7565", encode(encoder, field));
+
+        // The encoder indexed the retained field, so it is now referenced from its dynamic table.
+        assertEquals("be", encode(encoder, field));
+    }
+
+    @Test
+    public void testDecodeRetainEncodedFieldsDynamicName() throws Exception
+    {
+        HpackDecoder decoder = new HpackDecoder(4096, 8192);
+        decoder.setRetainEncodedFields(true);
+
+        // The name of the second field refers to the dynamic table, so its encoding cannot be retained.
+        String encoded = "8286844003666f6f03626172" + "7e0362617a";
+        MetaData.Request request = (MetaData.Request)decoder.decode(ByteBuffer.wrap(TypeUtil.fromHexString(encoded)));
+        Iterator<HttpField> iterator = request.iterator();
+        assertThat(iterator.next(), Matchers.instanceOf(PreEncodedHttpField.class));
+        HttpField field = iterator.next();
+        assertEquals(new HttpField("foo", "baz"), field);
+        assertFalse(field instanceof PreEncodedHttpField);
+    }
+
+    private static String encode(HpackEncoder encoder, HttpField field)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        encoder.encode(buffer, field);
+        buffer.flip();
+        return TypeUtil.toHexString(BufferUtil.toArray(buffer)).toLowerCase(Locale.ENGLISH);
+    }
+
     @Test
     public void testDecodeD3() throws Exception
     {
@@ -24,6 +24,7 @@ import java.util.function.Supplier;
 
 import org.eclipse.jetty.client.HttpExchange;
 import org.eclipse.jetty.client.HttpRequest;
+import org.eclipse.jetty.client.HttpRequestException;
 import org.eclipse.jetty.client.HttpSender;
 import org.eclipse.jetty.http.HostPortHttpField;
 import org.eclipse.jetty.http.HttpFields;
@@ -31,8 +32,11 @@ import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpURI;
 import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.http.MetaData;
+import org.eclipse.jetty.http2.ErrorCode;
+import org.eclipse.jetty.http2.HTTP2Session;
 import org.eclipse.jetty.http2.ISession;
 import org.eclipse.jetty.http2.IStream;
+import org.eclipse.jetty.http2.api.Session;
 import org.eclipse.jetty.http2.api.Stream;
 import org.eclipse.jetty.http2.frames.DataFrame;
 import org.eclipse.jetty.http2.frames.HeadersFrame;
@@ -72,6 +76,14 @@ public class HttpSenderOverHTTP2 extends HttpSender
             }
             else
             {
+                // RFC 8441, the :protocol pseudo-header may only be sent
+                // if the server advertised SETTINGS_ENABLE_CONNECT_PROTOCOL.
+                Session session = getHttpChannel().getSession();
+                if (session instanceof HTTP2Session && !((HTTP2Session)session).isConnectProtocolEnabled())
+                {
+                    callback.failed(new HttpRequestException(ErrorCode.PROTOCOL_ERROR.name() + ": extended CONNECT not enabled by " + session, request));
+                    return;
+                }
                 HostPortHttpField authority = new HostPortHttpField(request.getHost(), request.getPort());
                 metaData = new MetaData.ConnectRequest(request.getScheme(), authority, request.getPath(), request.getHeaders(), upgradeProtocol);
             }
@@ -37,9 +37,9 @@ import org.eclipse.jetty.http2.api.server.ServerSessionListener;
 import org.eclipse.jetty.http2.frames.Frame;
 import org.eclipse.jetty.http2.frames.SettingsFrame;
 import org.eclipse.jetty.http2.generator.Generator;
+import org.eclipse.jetty.http2.parser.FrameRateControl;
 import org.eclipse.jetty.http2.parser.RateControl;
 import org.eclipse.jetty.http2.parser.ServerParser;
-import org.eclipse.jetty.http2.parser.WindowRateControl;
 import org.eclipse.jetty.io.Connection;
 import org.eclipse.jetty.io.EndPoint;
 import org.eclipse.jetty.server.AbstractConnectionFactory;
@@ -65,7 +65,8 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
     private int maxFrameLength = Frame.DEFAULT_MAX_LENGTH;
     private int maxSettingsKeys = SettingsFrame.DEFAULT_MAX_KEYS;
     private boolean connectProtocolEnabled = true;
-    private RateControl.Factory rateControlFactory = new WindowRateControl.Factory(20);
+    private boolean retainEncodedFields;
+    private RateControl.Factory rateControlFactory = new FrameRateControl.Factory(20);
     private FlowControlStrategy.Factory flowControlStrategyFactory = () -> new BufferingFlowControlStrategy(0.5F);
     private long streamIdleTimeout;
     private boolean useInputDirectByteBuffers;
@@ -87,6 +88,7 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
         addBean(sessionContainer);
         this.httpConfiguration = Objects.requireNonNull(httpConfiguration);
         addBean(httpConfiguration);
+        addBean(rateControlFactory);
         setInputBufferSize(Frame.DEFAULT_MAX_LENGTH + Frame.HEADER_LENGTH);
         setUseInputDirectByteBuffers(httpConfiguration.isUseInputDirectByteBuffers());
         setUseOutputDirectByteBuffers(httpConfiguration.isUseOutputDirectByteBuffers());
@@ -201,6 +203,24 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
         this.connectProtocolEnabled = connectProtocolEnabled;
     }
 
+    @ManagedAttribute("Whether request header fields retain their HPACK encoding")
+    public boolean isRetainEncodedFields()
+    {
+        return retainEncodedFields;
+    }
+
+    /**
+     * <p>Sets whether request header fields are decoded retaining the HPACK octets they
+     * were received as, so that forwarding them unchanged over HTTP/2, as a proxy does,
+     * copies those octets instead of encoding the fields again.</p>
+     *
+     * @param retainEncodedFields whether request header fields retain their HPACK encoding
+     */
+    public void setRetainEncodedFields(boolean retainEncodedFields)
+    {
+        this.retainEncodedFields = retainEncodedFields;
+    }
+
     /**
      * @return the factory that creates RateControl objects
      */
@@ -216,7 +236,8 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
      */
     public void setRateControlFactory(RateControl.Factory rateControlFactory)
     {
-        this.rateControlFactory = Objects.requireNonNull(rateControlFactory);
+        updateBean(this.rateControlFactory, Objects.requireNonNull(rateControlFactory));
+        this.rateControlFactory = rateControlFactory;
     }
 
     @ManagedAttribute("Whether to use direct ByteBuffers for reading")
@@ -283,6 +304,7 @@ public abstract class AbstractHTTP2ServerConnectionFactory extends AbstractConne
         ServerParser parser = newServerParser(connector, session, getRateControlFactory().newRateControl(endPoint));
         parser.setMaxFrameLength(getMaxFrameLength());
         parser.setMaxSettingsKeys(getMaxSettingsKeys());
+        parser.setRetainEncodedFields(isRetainEncodedFields());
 
         HTTP2Connection connection = new HTTP2ServerConnection(connector.getByteBufferPool(), connector.getExecutor(),
             endPoint, httpConfiguration, parser, session, getInputBufferSize(), listener);
@@ -487,25 +487,30 @@ public abstract class AbstractProxyServlet extends HttpServlet
 
         Set<String> headersToRemove = findConnectionHeaders(clientRequest);
 
-        for (Enumeration<String> headerNames = clientRequest.getHeaderNames(); headerNames.hasMoreElements(); )
+        if (clientRequest instanceof org.eclipse.jetty.server.Request)
         {
-            String headerName = headerNames.nextElement();
-            String lowerHeaderName = headerName.toLowerCase(Locale.ENGLISH);
-
-            if (HttpHeader.HOST.is(headerName) && !_preserveHost)
-                continue;
-
-            // Remove hop-by-hop headers.
-            if (HOP_HEADERS.contains(lowerHeaderName))
-                continue;
-            if (headersToRemove != null && headersToRemove.contains(lowerHeaderName))
-                continue;
-
-            for (Enumeration<String> headerValues = clientRequest.getHeaders(headerName); headerValues.hasMoreElements(); )
+            // Copy the fields rather than their names and values, so that fields
+            // that retained their received encoding can be forwarded as they are.
+            for (HttpField field : ((org.eclipse.jetty.server.Request)clientRequest).getHttpFields())
             {
-                String headerValue = headerValues.nextElement();
-                if (headerValue != null)
-                    newHeaders.add(headerName, headerValue);
+                if (field.getValue() != null && isProxiedRequestHeader(field.getName(), headersToRemove))
+                    newHeaders.add(field);
+            }
+        }
+        else
+        {
+            for (Enumeration<String> headerNames = clientRequest.getHeaderNames(); headerNames.hasMoreElements(); )
+            {
+                String headerName = headerNames.nextElement();
+                if (!isProxiedRequestHeader(headerName, headersToRemove))
+                    continue;
+
+                for (Enumeration<String> headerValues = clientRequest.getHeaders(headerName); headerValues.hasMoreElements(); )
+                {
+                    String headerValue = headerValues.nextElement();
+                    if (headerValue != null)
+                        newHeaders.add(headerName, headerValue);
+                }
             }
         }
 
@@ -516,6 +521,18 @@ public abstract class AbstractProxyServlet extends HttpServlet
         proxyRequest.headers(headers -> headers.clear().add(newHeaders));
     }
 
+    private boolean isProxiedRequestHeader(String headerName, Set<String> headersToRemove)
+    {
+        if (HttpHeader.HOST.is(headerName) && !_preserveHost)
+            return false;
+
+        String lowerHeaderName = headerName.toLowerCase(Locale.ENGLISH);
+        // Remove hop-by-hop headers.
+        if (HOP_HEADERS.contains(lowerHeaderName))
+            return false;
+        return headersToRemove == null || !headersToRemove.contains(lowerHeaderName);
+    }
+
     protected Set<String> findConnectionHeaders(HttpServletRequest clientRequest)
     {
         // Any header listed by the Connection header must be removed:
@@ -50,4 +50,8 @@ etc/jetty-http.xml
 ## The SO_SNDBUF socket option to set on accepted sockets.
 ## A value of -1 indicates that the platform default is used.
 # jetty.http.acceptedSendBufferSize=-1
+
+## The number of idle HTTP/1.1 channels kept for reuse by new connections.
+## A value of 0 disables channel pooling.
+# jetty.http.channelPoolSize=0
 # end::documentation[]
@@ -403,7 +403,7 @@ public class CachedContentFactory implements HttpContent.ContentFactory
             _resource = resource;
 
             String contentType = _mimeTypes.getMimeByExtension(_resource.toString());
-            _contentType = contentType == null ? null : new PreEncodedHttpField(HttpHeader.CONTENT_TYPE, contentType);
+            _contentType = contentType == null ? null : PreEncodedHttpField.intern(HttpHeader.CONTENT_TYPE, contentType);
             _characterEncoding = _contentType == null ? null : MimeTypes.getCharsetFromContentType(contentType);
             _mimeType = _contentType == null ? null : MimeTypes.CACHE.get(MimeTypes.getContentTypeWithoutCharset(contentType));
 
@@ -78,8 +78,8 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
     private final Connector _connector;
     private final Executor _executor;
     private final HttpConfiguration _configuration;
-    private final EndPoint _endPoint;
-    private final HttpTransport _transport;
+    private EndPoint _endPoint;
+    private HttpTransport _transport;
     private final HttpChannelState _state;
     private final Request _request;
     private final Response _response;
@@ -339,6 +339,22 @@ public abstract class HttpChannel implements Runnable, HttpOutput.Interceptor
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * <p>Binds this channel to the endpoint and transport of another connection,
+     * so that the channel, with its request, response, input and output, can be
+     * reused rather than allocated again.</p>
+     * <p>The channel must be idle and recycled, and no longer used by its previous connection.</p>
+     *
+     * @param endPoint the endpoint of the new connection
+     * @param transport the transport of the new connection
+     */
+    protected void rebind(EndPoint endPoint, HttpTransport transport)
+    {
+        _endPoint = endPoint;
+        _transport = transport;
+        _requests.set(0);
+    }
+
     public void recycle()
     {
         _request.recycle();
@@ -52,7 +52,7 @@ public class HttpChannelOverHttp extends HttpChannel implements HttpParser.Reque
     private static final Logger LOG = LoggerFactory.getLogger(HttpChannelOverHttp.class);
     private static final HttpField PREAMBLE_UPGRADE_H2C = new HttpField(HttpHeader.UPGRADE, "h2c");
     private static final HttpInput.Content EOF = new HttpInput.EofContent();
-    private final HttpConnection _httpConnection;
+    private HttpConnection _httpConnection;
     private final RequestBuilder _requestBuilder = new RequestBuilder();
     private MetaData.Request _metadata;
     private HttpField _connection;
@@ -553,6 +553,20 @@ public class HttpChannelOverHttp extends HttpChannel implements HttpParser.Reque
         _trailers.add(field);
     }
 
+    /**
+     * Binds this channel to another connection.
+     *
+     * @param httpConnection the new connection
+     * @see #rebind(EndPoint, HttpTransport)
+     */
+    void rebind(HttpConnection httpConnection)
+    {
+        rebind(httpConnection.getEndPoint(), httpConnection);
+        _httpConnection = httpConnection;
+        _delayedForContent = false;
+        _complianceViolations = null;
+    }
+
     @Override
     public void recycle()
     {
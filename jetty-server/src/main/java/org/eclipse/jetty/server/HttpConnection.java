@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.WritePendingException;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.jetty.http.BadMessageException;
@@ -44,6 +45,7 @@ import org.eclipse.jetty.io.WriteFlusher;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.IteratingCallback;
+import org.eclipse.jetty.util.Pool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,6 +74,9 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
     private final boolean _recordHttpComplianceViolations;
     private final LongAdder bytesIn = new LongAdder();
     private final LongAdder bytesOut = new LongAdder();
+    private final Pool<HttpChannelOverHttp> _channelPool;
+    private final AtomicReference<Pool<HttpChannelOverHttp>.Entry> _channelEntry = new AtomicReference<>();
+    private volatile boolean _filling;
     private boolean _useInputDirectByteBuffers;
     private boolean _useOutputDirectByteBuffers;
 
@@ -96,13 +101,26 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
     }
 
     public HttpConnection(HttpConfiguration config, Connector connector, EndPoint endPoint, boolean recordComplianceViolations)
+    {
+        this(config, connector, endPoint, recordComplianceViolations, null);
+    }
+
+    /**
+     * @param config the HTTP configuration
+     * @param connector the connector
+     * @param endPoint the endpoint
+     * @param recordComplianceViolations whether to record compliance violations
+     * @param channelPool the pool of channels shared with other connections, or null
+     */
+    HttpConnection(HttpConfiguration config, Connector connector, EndPoint endPoint, boolean recordComplianceViolations, Pool<HttpChannelOverHttp> channelPool)
     {
         super(endPoint, connector.getExecutor());
         _config = config;
         _connector = connector;
         _bufferPool = _connector.getByteBufferPool();
+        _channelPool = channelPool;
         _generator = newHttpGenerator();
-        _channel = newHttpChannel();
+        _channel = acquireHttpChannel();
         _input = _channel.getRequest().getHttpInput();
         _parser = newHttpParser(config.getHttpCompliance());
         _recordHttpComplianceViolations = recordComplianceViolations;
@@ -130,6 +148,57 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         return new HttpChannelOverHttp(this, _connector, _config, getEndPoint(), this);
     }
 
+    private HttpChannelOverHttp acquireHttpChannel()
+    {
+        if (_channelPool == null)
+            return newHttpChannel();
+
+        Pool<HttpChannelOverHttp>.Entry entry = _channelPool.acquire();
+        if (entry != null)
+        {
+            HttpChannelOverHttp channel = entry.getPooled();
+            channel.rebind(this);
+            _channelEntry.set(entry);
+            return channel;
+        }
+
+        HttpChannelOverHttp channel = newHttpChannel();
+        entry = _channelPool.reserve(-1);
+        if (entry != null && entry.enable(channel, true))
+            _channelEntry.set(entry);
+        return channel;
+    }
+
+    /**
+     * <p>Returns the channel to the pool, if it was taken from one, once this connection is closed.</p>
+     * <p>The channel is only reused if it is idle, so that no request is using it, otherwise
+     * its entry is removed from the pool. This method must only be called when the connection
+     * is not filling, as filling may parse a new request into the channel.</p>
+     */
+    private void releaseHttpChannel()
+    {
+        Pool<HttpChannelOverHttp>.Entry entry = _channelEntry.getAndSet(null);
+        if (entry == null)
+            return;
+
+        try
+        {
+            if (_channel.getState().isIdle() && _contentBufferReferences.get() == 0)
+            {
+                _channel.recycle();
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Releasing {} from {}", _channel, this);
+                if (_channelPool.release(entry))
+                    return;
+            }
+        }
+        catch (Throwable x)
+        {
+            LOG.trace("IGNORED", x);
+        }
+        _channelPool.remove(entry);
+    }
+
     protected HttpParser newHttpParser(HttpCompliance compliance)
     {
         HttpParser parser = new HttpParser(newRequestHandler(), getHttpConfiguration().getRequestHeaderSize(), compliance);
@@ -262,6 +331,7 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
             LOG.debug("{} onFillable enter {} {}", this, _channel.getState(), BufferUtil.toDetailString(_requestBuffer));
 
         HttpConnection last = setCurrentConnection(this);
+        _filling = true;
         try
         {
             while (getEndPoint().isOpen())
@@ -294,6 +364,8 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
                 }
                 else if (filled == 0)
                 {
+                    // Nothing to read, so park the connection without holding scratch state.
+                    _parser.compact();
                     fillInterested();
                     break;
                 }
@@ -310,6 +382,9 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
             setCurrentConnection(last);
             if (LOG.isDebugEnabled())
                 LOG.debug("{} onFillable exit {} {}", this, _channel.getState(), BufferUtil.toDetailString(_requestBuffer));
+            _filling = false;
+            if (!getEndPoint().isOpen() || getEndPoint().getConnection() != this)
+                releaseHttpChannel();
         }
     }
 
@@ -519,6 +594,9 @@ public class HttpConnection extends AbstractConnection implements Runnable, Http
         else
             _sendCallback.failed(cause);
         super.onClose(cause);
+        // If filling, the channel is released when filling ends.
+        if (!_filling)
+            releaseHttpChannel();
     }
 
     @Override
@@ -18,11 +18,15 @@
 
 package org.eclipse.jetty.server;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.io.Connection;
 import org.eclipse.jetty.io.EndPoint;
+import org.eclipse.jetty.util.Pool;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.Name;
 
 /**
@@ -37,6 +41,8 @@ public class HttpConnectionFactory extends AbstractConnectionFactory implements
     private boolean _recordHttpComplianceViolations;
     private boolean _useInputDirectByteBuffers;
     private boolean _useOutputDirectByteBuffers;
+    private int _httpChannelPoolSize;
+    private final Map<Connector, Pool<HttpChannelOverHttp>> _channelPools = new ConcurrentHashMap<>();
 
     public HttpConnectionFactory()
     {
@@ -88,10 +94,44 @@ public class HttpConnectionFactory extends AbstractConnectionFactory implements
         _useOutputDirectByteBuffers = useOutputDirectByteBuffers;
     }
 
+    @ManagedAttribute("The max number of channels pooled for reuse by new connections")
+    public int getHttpChannelPoolSize()
+    {
+        return _httpChannelPoolSize;
+    }
+
+    /**
+     * <p>Sets the max number of channels, together with their request, response, input and output,
+     * that are kept to be reused by new connections once the connection they were used by is closed.</p>
+     * <p>Channels are always reused by the requests of the same persistent connection, so pooling
+     * them only reduces allocation when connections carry few requests, for example when a load
+     * balancer sends a single request per connection.</p>
+     *
+     * @param httpChannelPoolSize the max number of pooled channels, or 0 to not pool channels
+     */
+    public void setHttpChannelPoolSize(int httpChannelPoolSize)
+    {
+        if (isRunning())
+            throw new IllegalStateException(getState());
+        _httpChannelPoolSize = httpChannelPoolSize;
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        super.doStop();
+        _channelPools.values().forEach(Pool::close);
+        _channelPools.clear();
+    }
+
     @Override
     public Connection newConnection(Connector connector, EndPoint endPoint)
     {
-        HttpConnection connection = new HttpConnection(_config, connector, endPoint, isRecordHttpComplianceViolations());
+        // Channels are bound to the connector that created them, so each connector has its own pool.
+        Pool<HttpChannelOverHttp> channelPool = _httpChannelPoolSize > 0
+            ? _channelPools.computeIfAbsent(connector, c -> new Pool<>(Pool.StrategyType.THREAD_ID, _httpChannelPoolSize))
+            : null;
+        HttpConnection connection = new HttpConnection(_config, connector, endPoint, isRecordHttpComplianceViolations(), channelPool);
         connection.setUseInputDirectByteBuffers(isUseInputDirectByteBuffers());
         connection.setUseOutputDirectByteBuffers(isUseOutputDirectByteBuffers());
         return configure(connection, connector, endPoint);
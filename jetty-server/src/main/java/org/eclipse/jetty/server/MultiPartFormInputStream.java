@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -37,8 +39,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.servlet.MultipartConfigElement;
+import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.Part;
 
@@ -99,6 +104,7 @@ public class MultiPartFormInputStream
     private final AutoLock _lock = new AutoLock();
     private final MultiMap<Part> _parts = new MultiMap<>();
     private final InputStream _in;
+    private final ServletInputStream _servletIn;
     private final MultipartConfigElement _config;
     private final File _contextTmpDir;
     private final String _contentType;
@@ -107,6 +113,8 @@ public class MultiPartFormInputStream
     private volatile boolean _deleteOnExit;
     private volatile boolean _writeFilesWithFilenames;
     private volatile int _bufferSize = 16 * 1024;
+    private volatile Consumer<Part> _partListener;
+    private long _total;
     private State state = State.UNPARSED;
 
     public class MultiPart implements Part
@@ -120,6 +128,7 @@ public class MultiPartFormInputStream
         protected MultiMap<String> _headers;
         protected long _size = 0;
         protected boolean _temporary = true;
+        private FileChannel _channel;
 
         public MultiPart(String name, String filename)
         {
@@ -162,19 +171,25 @@ public class MultiPartFormInputStream
 
         protected void write(int b) throws IOException
         {
-            if (MultiPartFormInputStream.this._config.getMaxFileSize() > 0 && _size + 1 > MultiPartFormInputStream.this._config.getMaxFileSize())
-                throw new IllegalStateException("Multipart Mime part " + _name + " exceeds max filesize");
-
-            if (MultiPartFormInputStream.this._config.getFileSizeThreshold() > 0 &&
-                _size + 1 > MultiPartFormInputStream.this._config.getFileSizeThreshold() && _file == null)
-                createFile();
-
-            _out.write(b);
-            _size++;
+            write(new byte[]{(byte)b}, 0, 1);
         }
 
         protected void write(byte[] bytes, int offset, int length) throws IOException
         {
+            write(ByteBuffer.wrap(bytes, offset, length));
+        }
+
+        /**
+         * Write the remaining bytes of the buffer to the part, consuming them.
+         * Once the part has been spilled to a file, the buffer is written straight
+         * to the file channel without being copied into an intermediate stream buffer.
+         *
+         * @param buffer the content to write
+         * @throws IOException if unable to write the content
+         */
+        protected void write(ByteBuffer buffer) throws IOException
+        {
+            int length = buffer.remaining();
             if (MultiPartFormInputStream.this._config.getMaxFileSize() > 0 && _size + length > MultiPartFormInputStream.this._config.getMaxFileSize())
                 throw new IllegalStateException("Multipart Mime part " + _name + " exceeds max filesize");
 
@@ -182,7 +197,17 @@ public class MultiPartFormInputStream
                 _size + length > MultiPartFormInputStream.this._config.getFileSizeThreshold() && _file == null)
                 createFile();
 
-            _out.write(bytes, offset, length);
+            if (_channel != null)
+            {
+                while (buffer.hasRemaining())
+                {
+                    _channel.write(buffer);
+                }
+            }
+            else
+            {
+                BufferUtil.writeTo(buffer, _out);
+            }
             _size += length;
         }
 
@@ -227,18 +252,22 @@ public class MultiPartFormInputStream
             Path tempFile = Files.createTempFile(parent, "MultiPart", "");
             _file = tempFile.toFile();
 
-            OutputStream fos = Files.newOutputStream(tempFile, StandardOpenOption.WRITE);
-            BufferedOutputStream bos = new BufferedOutputStream(fos);
+            FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE);
 
             if (_size > 0 && _out != null)
             {
                 // already written some bytes, so need to copy them into the file
                 _out.flush();
-                _bout.writeTo(bos);
+                ByteBuffer buffered = ByteBuffer.wrap(_bout.getBuf(), 0, _bout.size());
+                while (buffered.hasRemaining())
+                {
+                    channel.write(buffered);
+                }
                 _out.close();
             }
             _bout = null;
-            _out = bos;
+            _channel = channel;
+            _out = Channels.newOutputStream(channel);
         }
 
         protected void setHeaders(MultiMap<String> headers)
@@ -372,17 +401,17 @@ public class MultiPartFormInputStream
         _contextTmpDir =  (contextTmpDir != null) ? contextTmpDir : new File(System.getProperty("java.io.tmpdir"));
         _config = (config != null) ? config : new MultipartConfigElement(_contextTmpDir.getAbsolutePath());
 
-        if (in instanceof ServletInputStream)
+        _servletIn = (in instanceof ServletInputStream) ? (ServletInputStream)in : null;
+        if (_servletIn != null && _servletIn.isFinished())
         {
-            if (((ServletInputStream)in).isFinished())
-            {
-                _in = null;
-                state = State.PARSED;
-                return;
-            }
+            _in = null;
+            state = State.PARSED;
+            return;
         }
 
-        _in = new BufferedInputStream(in);
+        // The parser reads in chunks of at least the buffer size, so a
+        // ServletInputStream does not need another layer of buffering.
+        _in = (_servletIn != null) ? _servletIn : new BufferedInputStream(in);
     }
 
     /**
@@ -532,35 +561,9 @@ public class MultiPartFormInputStream
         MultiPartParser parser = null;
         try
         {
-            // Sort out the location to which to write files:
-            // If there is a MultiPartConfigElement.location, use it
-            // otherwise default to the context tmp dir
-            if (StringUtil.isBlank(_config.getLocation()))
-                _tmpDir = _contextTmpDir.toPath();
-            else
-            {
-                // If the MultiPartConfigElement.location is
-                // relative, make it relative to the context tmp dir
-                Path location = FileSystems.getDefault().getPath(_config.getLocation());
-                _tmpDir = (location.isAbsolute() ? location : _contextTmpDir.toPath().resolve(location));
-            }
-
-            if (!Files.exists(_tmpDir))
-                Files.createDirectories(_tmpDir);
-
-            String contentTypeBoundary = "";
-            int bstart = _contentType.indexOf("boundary=");
-            if (bstart >= 0)
-            {
-                int bend = _contentType.indexOf(";", bstart);
-                bend = (bend < 0 ? _contentType.length() : bend);
-                contentTypeBoundary = QuotedStringTokenizer.unquote(value(_contentType.substring(bstart, bend)).trim());
-            }
-
-            parser = new MultiPartParser(new Handler(), contentTypeBoundary);
+            parser = newParser();
             byte[] data = new byte[_bufferSize];
             int len;
-            long total = 0;
 
             while (true)
             {
@@ -576,21 +579,8 @@ public class MultiPartFormInputStream
                 len = _in.read(data);
                 if (len > 0)
                 {
-                    // keep running total of size of bytes read from input and throw an exception if exceeds MultipartConfigElement._maxRequestSize
-                    total += len;
-                    if (_config.getMaxRequestSize() > 0 && total > _config.getMaxRequestSize())
-                    {
-                        _err = new IllegalStateException("Request exceeds maxRequestSize (" + _config.getMaxRequestSize() + ")");
-                        return;
-                    }
-
-                    ByteBuffer buffer = BufferUtil.toBuffer(data);
-                    buffer.limit(len);
-                    if (parser.parse(buffer, false))
+                    if (parse(parser, BufferUtil.toBuffer(data, 0, len)))
                         break;
-
-                    if (buffer.hasRemaining())
-                        throw new IllegalStateException("Buffer did not fully consume");
                 }
                 else if (len == -1)
                 {
@@ -605,19 +595,7 @@ public class MultiPartFormInputStream
                 return;
             }
 
-            // check we read to the end of the message
-            if (parser.getState() != MultiPartParser.State.END)
-            {
-                if (parser.getState() == MultiPartParser.State.PREAMBLE)
-                    _err = new IOException("Missing initial multi part boundary");
-                else
-                    _err = new IOException("Incomplete Multipart");
-            }
-
-            if (LOG.isDebugEnabled())
-            {
-                LOG.debug("Parsing Complete {} err={}", parser, _err);
-            }
+            checkComplete(parser);
         }
         catch (Throwable e)
         {
@@ -629,27 +607,244 @@ public class MultiPartFormInputStream
         }
         finally
         {
-            boolean cleanup = false;
-            try (AutoLock l = _lock.lock())
+            parsed();
+        }
+    }
+
+    /**
+     * <p>Parse the multipart stream asynchronously, as its content arrives, by
+     * registering a {@link ReadListener} on the request input stream.</p>
+     * <p>Parts are notified to the given listener as soon as their content has been
+     * completely received, so that a part may be processed while the following parts
+     * are still being uploaded. The parts must not be otherwise accessed until the
+     * returned future is completed.</p>
+     * <p>This method must be called from an async request, before any content has been read.</p>
+     *
+     * @param listener the listener notified of each completed part, or null
+     * @return a future completed with the parts once all the content has been parsed,
+     * or completed exceptionally if the parsing failed
+     */
+    public CompletableFuture<Collection<Part>> parseAsync(Consumer<Part> listener)
+    {
+        CompletableFuture<Collection<Part>> result = new CompletableFuture<>();
+        try (AutoLock l = _lock.lock())
+        {
+            switch (state)
             {
-                switch (state)
-                {
-                    case PARSING:
-                        state = State.PARSED;
-                        break;
+                case UNPARSED:
+                    if (_servletIn == null)
+                    {
+                        result.completeExceptionally(new IllegalStateException("Not a ServletInputStream"));
+                        return result;
+                    }
+                    state = State.PARSING;
+                    break;
 
-                    case DELETING:
-                        state = State.DELETED;
-                        cleanup = true;
-                        break;
+                case PARSED:
+                    if (_err != null)
+                        result.completeExceptionally(_err);
+                    else
+                        result.complete(_parts.values().stream().flatMap(List::stream).collect(Collectors.toList()));
+                    return result;
+
+                default:
+                    result.completeExceptionally(new IOException(state.name()));
+                    return result;
+            }
+        }
+
+        MultiPartParser parser = null;
+        try
+        {
+            parser = newParser();
+            _partListener = listener;
+            _servletIn.setReadListener(new AsyncParser(parser, result));
+        }
+        catch (Throwable x)
+        {
+            _err = x;
+            if (parser != null)
+                parser.parse(BufferUtil.EMPTY_BUFFER, true);
+            parsed();
+            result.completeExceptionally(x);
+        }
+        return result;
+    }
+
+    private MultiPartParser newParser() throws IOException
+    {
+        // Sort out the location to which to write files:
+        // If there is a MultiPartConfigElement.location, use it
+        // otherwise default to the context tmp dir
+        if (StringUtil.isBlank(_config.getLocation()))
+            _tmpDir = _contextTmpDir.toPath();
+        else
+        {
+            // If the MultiPartConfigElement.location is
+            // relative, make it relative to the context tmp dir
+            Path location = FileSystems.getDefault().getPath(_config.getLocation());
+            _tmpDir = (location.isAbsolute() ? location : _contextTmpDir.toPath().resolve(location));
+        }
+
+        if (!Files.exists(_tmpDir))
+            Files.createDirectories(_tmpDir);
+
+        String contentTypeBoundary = "";
+        int bstart = _contentType.indexOf("boundary=");
+        if (bstart >= 0)
+        {
+            int bend = _contentType.indexOf(";", bstart);
+            bend = (bend < 0 ? _contentType.length() : bend);
+            contentTypeBoundary = QuotedStringTokenizer.unquote(value(_contentType.substring(bstart, bend)).trim());
+        }
+
+        return new MultiPartParser(new Handler(), contentTypeBoundary);
+    }
 
-                    default:
-                        _err = new IllegalStateException(state.name());
+    /**
+     * Parse a chunk of content read from the input.
+     *
+     * @param parser the parser
+     * @param buffer the content
+     * @return true if the parsing is complete, either because the end of the message or an error was reached
+     */
+    private boolean parse(MultiPartParser parser, ByteBuffer buffer)
+    {
+        // keep running total of size of bytes read from input and throw an exception if exceeds MultipartConfigElement._maxRequestSize
+        _total += buffer.remaining();
+        if (_config.getMaxRequestSize() > 0 && _total > _config.getMaxRequestSize())
+        {
+            _err = new IllegalStateException("Request exceeds maxRequestSize (" + _config.getMaxRequestSize() + ")");
+            return true;
+        }
+
+        if (parser.parse(buffer, false))
+            return true;
+
+        if (buffer.hasRemaining())
+            throw new IllegalStateException("Buffer did not fully consume");
+        return _err != null;
+    }
+
+    private void checkComplete(MultiPartParser parser)
+    {
+        // check we read to the end of the message
+        if (parser.getState() != MultiPartParser.State.END)
+        {
+            if (parser.getState() == MultiPartParser.State.PREAMBLE)
+                _err = new IOException("Missing initial multi part boundary");
+            else
+                _err = new IOException("Incomplete Multipart");
+        }
+
+        if (LOG.isDebugEnabled())
+        {
+            LOG.debug("Parsing Complete {} err={}", parser, _err);
+        }
+    }
+
+    private void parsed()
+    {
+        boolean cleanup = false;
+        try (AutoLock l = _lock.lock())
+        {
+            switch (state)
+            {
+                case PARSING:
+                    state = State.PARSED;
+                    break;
+
+                case DELETING:
+                    state = State.DELETED;
+                    cleanup = true;
+                    break;
+
+                default:
+                    _err = new IllegalStateException(state.name());
+            }
+        }
+
+        if (cleanup)
+            delete();
+    }
+
+    private class AsyncParser implements ReadListener
+    {
+        private final MultiPartParser _parser;
+        private final CompletableFuture<Collection<Part>> _result;
+        private final byte[] _data = new byte[_bufferSize];
+        private boolean _complete;
+
+        private AsyncParser(MultiPartParser parser, CompletableFuture<Collection<Part>> result)
+        {
+            _parser = parser;
+            _result = result;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException
+        {
+            while (!_complete && _servletIn.isReady())
+            {
+                try (AutoLock l = _lock.lock())
+                {
+                    if (state != State.PARSING)
+                    {
+                        fail(new IOException(state.name()));
+                        return;
+                    }
+                }
+
+                int len = _servletIn.read(_data);
+                if (len < 0)
+                    return;
+                try
+                {
+                    if (len > 0 && parse(_parser, BufferUtil.toBuffer(_data, 0, len)))
+                        complete();
+                }
+                catch (Throwable x)
+                {
+                    fail(x);
                 }
             }
+        }
 
-            if (cleanup)
-                delete();
+        @Override
+        public void onAllDataRead()
+        {
+            if (_complete)
+                return;
+            _parser.parse(BufferUtil.EMPTY_BUFFER, true);
+            complete();
+        }
+
+        @Override
+        public void onError(Throwable x)
+        {
+            if (!_complete)
+                fail(x);
+        }
+
+        private void fail(Throwable x)
+        {
+            _err = x;
+            _parser.parse(BufferUtil.EMPTY_BUFFER, true);
+            complete();
+        }
+
+        private void complete()
+        {
+            _complete = true;
+            if (_err == null)
+                checkComplete(_parser);
+            parsed();
+            _partListener = null;
+
+            if (_err != null)
+                _result.completeExceptionally(_err);
+            else
+                _result.complete(_parts.values().stream().flatMap(List::stream).collect(Collectors.toList()));
         }
     }
 
@@ -760,7 +955,7 @@ public class MultiPartFormInputStream
             {
                 try
                 {
-                    _part.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                    _part.write(buffer);
                 }
                 catch (IOException e)
                 {
@@ -780,6 +975,20 @@ public class MultiPartFormInputStream
                     _err = e;
                     return true;
                 }
+
+                Consumer<Part> listener = _partListener;
+                if (listener != null)
+                {
+                    try
+                    {
+                        listener.accept(_part);
+                    }
+                    catch (Throwable x)
+                    {
+                        _err = x;
+                        return true;
+                    }
+                }
             }
 
             return false;
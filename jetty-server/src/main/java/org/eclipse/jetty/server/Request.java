@@ -153,6 +153,7 @@ public class Request implements HttpServletRequest
 
     private static final MultiMap<String> NO_PARAMS = new MultiMap<>();
     private static final MultiMap<String> BAD_PARAMS = new MultiMap<>();
+    private static final int MAX_LAZY_PARAMETER_LOOKUPS = 4;
 
     /**
      * Compare inputParameters to NO_PARAMS by Reference
@@ -210,6 +211,7 @@ public class Request implements HttpServletRequest
     private boolean _cookiesExtracted = false;
     private boolean _handled = false;
     private boolean _contentParamsExtracted;
+    private int _lazyParameterLookups;
     private boolean _requestedSessionIdFromCookie = false;
     private Attributes _attributes;
     private Authentication _authentication;
@@ -432,27 +434,7 @@ public class Request implements HttpServletRequest
 
     private MultiMap<String> getParameters()
     {
-        if (!_contentParamsExtracted)
-        {
-            // content parameters need boolean protection as they can only be read
-            // once, but may be reset to null by a reset
-            _contentParamsExtracted = true;
-
-            // Extract content parameters; these cannot be replaced by a forward()
-            // once extracted and may have already been extracted by getParts() or
-            // by a processing happening after a form-based authentication.
-            if (_contentParameters == null)
-            {
-                try
-                {
-                    extractContentParameters();
-                }
-                catch (IllegalStateException | IllegalArgumentException e)
-                {
-                    throw new BadMessageException("Unable to parse form content", e);
-                }
-            }
-        }
+        extractContentParametersOnce();
 
         // Extract query string parameters; these may be replaced by a forward()
         // and may have already been extracted by mergeQueryParameters().
@@ -477,6 +459,75 @@ public class Request implements HttpServletRequest
         return parameters == null ? NO_PARAMS : parameters;
     }
 
+    /**
+     * Get the values of a single parameter.
+     * <p>
+     * Until the query parameters are needed as a whole, the first few lookups only decode
+     * the query parameters with the given name, so that reading a couple of parameters
+     * from a large query does not decode all of them.
+     * </p>
+     *
+     * @param name the parameter name
+     * @return the parameter values, or null if the parameter is not present
+     */
+    private List<String> getParameterValueList(String name)
+    {
+        if (_queryParameters != null || _uri == null || _lazyParameterLookups++ >= MAX_LAZY_PARAMETER_LOOKUPS)
+            return getParameters().getValues(name);
+
+        extractContentParametersOnce();
+
+        List<String> queryValues = null;
+        String query = _uri.getQuery();
+        if (!StringUtil.isEmpty(query))
+        {
+            try
+            {
+                queryValues = UrlEncoded.decodeValues(query, name, _queryEncoding);
+            }
+            catch (IllegalStateException | IllegalArgumentException e)
+            {
+                _queryParameters = BAD_PARAMS;
+                throw new BadMessageException("Unable to parse URI query", e);
+            }
+        }
+
+        // Query values come before content values, as in getParameters()
+        List<String> contentValues = _contentParameters == null ? null : _contentParameters.getValues(name);
+        if (contentValues == null)
+            return queryValues;
+        if (queryValues == null)
+            return contentValues;
+        List<String> values = new ArrayList<>(queryValues);
+        values.addAll(contentValues);
+        return values;
+    }
+
+    private void extractContentParametersOnce()
+    {
+        if (!_contentParamsExtracted)
+        {
+            // content parameters need boolean protection as they can only be read
+            // once, but may be reset to null by a reset
+            _contentParamsExtracted = true;
+
+            // Extract content parameters; these cannot be replaced by a forward()
+            // once extracted and may have already been extracted by getParts() or
+            // by a processing happening after a form-based authentication.
+            if (_contentParameters == null)
+            {
+                try
+                {
+                    extractContentParameters();
+                }
+                catch (IllegalStateException | IllegalArgumentException e)
+                {
+                    throw new BadMessageException("Unable to parse form content", e);
+                }
+            }
+        }
+    }
+
     private void extractQueryParameters()
     {
         if (_uri == null || StringUtil.isEmpty(_uri.getQuery()))
@@ -1046,7 +1097,10 @@ public class Request implements HttpServletRequest
     @Override
     public String getParameter(String name)
     {
-        return getParameters().getValue(name, 0);
+        List<String> vals = getParameterValueList(name);
+        if (vals == null || vals.isEmpty())
+            return null;
+        return vals.get(0);
     }
 
     @Override
@@ -1064,7 +1118,7 @@ public class Request implements HttpServletRequest
     @Override
     public String[] getParameterValues(String name)
     {
-        List<String> vals = getParameters().getValues(name);
+        List<String> vals = getParameterValueList(name);
         if (vals == null)
             return null;
         return vals.toArray(new String[vals.size()]);
@@ -1787,6 +1841,7 @@ public class Request implements HttpServletRequest
         _cookiesExtracted = false;
         _handled = false;
         _contentParamsExtracted = false;
+        _lazyParameterLookups = 0;
         _requestedSessionIdFromCookie = false;
         _attributes = Attributes.unwrap(_attributes);
         if (_attributes != null)
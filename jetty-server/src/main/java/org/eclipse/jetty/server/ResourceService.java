@@ -183,7 +183,7 @@ public class ResourceService
 
     public void setCacheControl(HttpField cacheControl)
     {
-        _cacheControl = cacheControl;
+        _cacheControl = cacheControl == null ? null : PreEncodedHttpField.intern(cacheControl);
     }
 
     public List<String> getGzipEquivalentFileExtensions()
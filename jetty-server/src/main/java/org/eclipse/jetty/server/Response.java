@@ -489,6 +489,30 @@ public class Response implements HttpServletResponse
         }
     }
 
+    /**
+     * Sends a 103-Early Hints interim response.
+     * The hints, typically {@code Link} headers with {@code rel=preload}, allow
+     * the client to start fetching resources while the final response is still
+     * being computed. This method may be called more than once before the
+     * response is committed. Nothing is sent if the response is already committed
+     * or if the request version is earlier than HTTP/1.1, as such clients cannot
+     * receive interim responses.
+     *
+     * @param hints the fields to send in the 103 response
+     * @return true if the 103 response was sent
+     * @throws IOException if unable to send the 103 response
+     */
+    public boolean sendEarlyHints(HttpFields hints) throws IOException
+    {
+        if (isCommitted() || hints == null || hints.size() == 0)
+            return false;
+        HttpVersion version = _channel.getRequest().getHttpVersion();
+        if (version == null || version.getVersion() < HttpVersion.HTTP_1_1.getVersion())
+            return false;
+        _channel.sendResponse(new MetaData.Response(HttpVersion.HTTP_1_1, HttpStatus.EARLY_HINTS_103, null, hints.asImmutable(), -1), null, true);
+        return true;
+    }
+
     /**
      * Sends a response with one of the 300 series redirection codes.
      *
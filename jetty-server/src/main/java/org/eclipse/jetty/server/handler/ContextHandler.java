@@ -400,6 +400,8 @@ public class ContextHandler extends ScopedHandler implements Attributes, Gracefu
                 setVirtualHosts(filteredHosts);
             }
         }
+
+        mapContexts();
     }
 
     /**
@@ -1632,6 +1634,15 @@ public class ContextHandler extends ScopedHandler implements Attributes, Gracefu
         _contextPathEncoded = URIUtil.encodePath(contextPath);
         _contextPathDefault = false;
 
+        mapContexts();
+    }
+
+    /**
+     * Remap the {@link ContextHandlerCollection}s of a running server after
+     * a change to the context path or virtual hosts of this context.
+     */
+    private void mapContexts()
+    {
         if (getServer() != null && (getServer().isStarting() || getServer().isStarted()))
         {
             Class<ContextHandlerCollection> handlerClass = ContextHandlerCollection.class;
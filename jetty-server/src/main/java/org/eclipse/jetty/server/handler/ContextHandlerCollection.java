@@ -19,11 +19,13 @@
 package org.eclipse.jetty.server.handler;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.servlet.ServletException;
@@ -34,9 +36,9 @@ import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.HandlerContainer;
 import org.eclipse.jetty.server.HttpChannelState;
 import org.eclipse.jetty.server.Request;
-import org.eclipse.jetty.util.ArrayUtil;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.Index;
+import org.eclipse.jetty.util.StringUtil;
 import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.annotation.ManagedOperation;
 import org.eclipse.jetty.util.thread.SerializedExecutor;
@@ -86,36 +88,71 @@ public class ContextHandlerCollection extends HandlerCollection
                 Handlers handlers = _handlers.get();
                 if (handlers == null)
                     break;
-                if (updateHandlers(handlers, newHandlers(handlers.getHandlers())))
+                if (updateHandlers(handlers, newMapping(handlers.getHandlers(), null)))
                     break;
             }
         });
     }
 
+    @Override
+    protected void doStart() throws Exception
+    {
+        // The virtual hosts or context paths may have been changed since the handlers were mapped,
+        // without a remap if the server was not started, so the mapping is rebuilt before starting.
+        mapContexts();
+        super.doStart();
+    }
+
     @Override
     protected Handlers newHandlers(Handler[] handlers)
+    {
+        Handlers current = _handlers.get();
+        return newMapping(handlers, current instanceof Mapping ? (Mapping)current : null);
+    }
+
+    /**
+     * Create a mapping of the handlers.
+     * <p>
+     * The branches of contexts and the virtual host indexes of the context paths
+     * whose branches are unchanged are shared with the current mapping, as is the
+     * context path index if no context path was added or removed. Deploying or
+     * undeploying a single context therefore only remaps its own context path.
+     * </p>
+     *
+     * @param handlers the handlers to map
+     * @param current the mapping to share unchanged state with, or null to map all the handlers again
+     * @return the new mapping
+     */
+    private Mapping newMapping(Handler[] handlers, Mapping current)
     {
         if (handlers == null || handlers.length == 0)
             return null;
 
         // Create map of contextPath to handler Branch
         // A branch is a Handler that could contain 0 or more ContextHandlers
-        Map<String, Branch[]> path2Branches = new HashMap<>();
+        Map<Handler, Branch> handlerBranches = new HashMap<>();
+        Map<String, List<Branch>> path2Branches = new HashMap<>();
         for (Handler handler : handlers)
         {
-            Branch branch = new Branch(handler);
+            // Only context branches are shared, as the contexts contained by other handlers may have changed.
+            // A branch whose context virtual hosts were changed without a remap is not shared, so that the
+            // context branches of its path are not shared either and their virtual host index is rebuilt.
+            Branch branch = current != null && handler instanceof ContextHandler ? current._handlerBranches.get(handler) : null;
+            if (branch == null || !branch.isCurrent())
+                branch = new Branch(handler);
+            handlerBranches.put(handler, branch);
             for (String contextPath : branch.getContextPaths())
             {
-                Branch[] branches = path2Branches.get(contextPath);
-                path2Branches.put(contextPath, ArrayUtil.addToArray(branches, branch, Branch.class));
+                path2Branches.computeIfAbsent(contextPath, k -> new ArrayList<>()).add(branch);
             }
         }
 
         // Sort the branches for each contextPath so those with virtual hosts are considered before those without
-        for (Map.Entry<String, Branch[]> entry : path2Branches.entrySet())
+        Map<String, ContextBranches> pathBranches = new HashMap<>();
+        for (Map.Entry<String, List<Branch>> entry : path2Branches.entrySet())
         {
-            Branch[] branches = entry.getValue();
-            Branch[] sorted = new Branch[branches.length];
+            List<Branch> branches = entry.getValue();
+            Branch[] sorted = new Branch[branches.size()];
             int i = 0;
             for (Branch branch : branches)
             {
@@ -127,12 +164,16 @@ public class ContextHandlerCollection extends HandlerCollection
                 if (!branch.hasVirtualHost())
                     sorted[i++] = branch;
             }
-            entry.setValue(sorted);
+
+            ContextBranches contextBranches = current == null ? null : current.getContextBranches(entry.getKey());
+            if (contextBranches == null || !Arrays.equals(contextBranches.getBranches(), sorted))
+                contextBranches = new ContextBranches(entry.getKey(), sorted);
+            pathBranches.put(entry.getKey(), contextBranches);
         }
 
-        Mapping mapping = new Mapping(handlers, path2Branches);
+        Mapping mapping = new Mapping(handlers, handlerBranches, pathBranches, current);
         if (LOG.isDebugEnabled())
-            LOG.debug("{}", mapping._pathBranches);
+            LOG.debug("{}", Arrays.asList(mapping._pathBranches));
         return mapping;
     }
 
@@ -175,8 +216,8 @@ public class ContextHandlerCollection extends HandlerCollection
         // handle many contexts
         if (target.startsWith("/"))
         {
-            Index<Map.Entry<String, Branch[]>> pathBranches = mapping._pathBranches;
-            if (pathBranches == null)
+            Index<Integer> pathIndex = mapping._pathIndex;
+            if (pathIndex == null)
                 return;
 
             int limit = target.length() - 1;
@@ -184,15 +225,17 @@ public class ContextHandlerCollection extends HandlerCollection
             while (limit >= 0)
             {
                 // Get best match
-                Map.Entry<String, Branch[]> branches = pathBranches.getBest(target, 1, limit);
+                Integer slot = pathIndex.getBest(target, 1, limit);
 
-                if (branches == null)
+                if (slot == null)
                     break;
 
-                int l = branches.getKey().length();
+                ContextBranches branches = mapping._pathBranches[slot];
+
+                int l = branches.getContextPath().length();
                 if (l == 1 || target.length() == l || target.charAt(l) == '/')
                 {
-                    for (Branch branch : branches.getValue())
+                    for (Branch branch : branches.getBranches(baseRequest))
                     {
                         branch.getHandler().handle(target, baseRequest, request, response);
                         if (baseRequest.isHandled())
@@ -285,6 +328,7 @@ public class ContextHandlerCollection extends HandlerCollection
     {
         private final Handler _handler;
         private final ContextHandler[] _contexts;
+        private final String[][] _virtualHosts;
 
         Branch(Handler handler)
         {
@@ -302,6 +346,12 @@ public class ContextHandlerCollection extends HandlerCollection
             }
             else
                 _contexts = new ContextHandler[0];
+
+            _virtualHosts = new String[_contexts.length][];
+            for (int i = 0; i < _contexts.length; i++)
+            {
+                _virtualHosts[i] = _contexts[i].getVirtualHosts();
+            }
         }
 
         Set<String> getContextPaths()
@@ -316,14 +366,36 @@ public class ContextHandlerCollection extends HandlerCollection
 
         boolean hasVirtualHost()
         {
-            for (ContextHandler context : _contexts)
+            for (String[] vhosts : _virtualHosts)
             {
-                if (context.getVirtualHosts() != null && context.getVirtualHosts().length > 0)
+                if (vhosts != null && vhosts.length > 0)
                     return true;
             }
             return false;
         }
 
+        /**
+         * @param index the index of a context of this branch
+         * @return the virtual hosts the context had when this branch was created
+         */
+        String[] getVirtualHosts(int index)
+        {
+            return _virtualHosts[index];
+        }
+
+        /**
+         * @return whether the contexts still have the virtual hosts they had when this branch was created
+         */
+        boolean isCurrent()
+        {
+            for (int i = 0; i < _contexts.length; i++)
+            {
+                if (!Arrays.equals(_virtualHosts[i], _contexts[i].getVirtualHosts()))
+                    return false;
+            }
+            return true;
+        }
+
         ContextHandler[] getContextHandlers()
         {
             return _contexts;
@@ -341,32 +413,289 @@ public class ContextHandlerCollection extends HandlerCollection
         }
     }
 
+    /**
+     * The branches mapped to a single context path, indexed by the virtual hosts
+     * of their contexts so that only the branches that may accept the request host
+     * are tried, regardless of how many virtual hosts are mapped to the path.
+     * The index only preselects candidates; the final decision is still taken by
+     * {@link ContextHandler#checkVirtualHost(Request)}, and contexts that override
+     * that method are tried for every host.
+     */
+    private static final class ContextBranches
+    {
+        private static final int[] NO_INDEXES = new int[0];
+        private static final ClassValue<Boolean> OVERRIDES_CHECK_VIRTUAL_HOST = new ClassValue<>()
+        {
+            @Override
+            protected Boolean computeValue(Class<?> type)
+            {
+                try
+                {
+                    return type.getMethod("checkVirtualHost", Request.class).getDeclaringClass() != ContextHandler.class;
+                }
+                catch (NoSuchMethodException e)
+                {
+                    return true;
+                }
+            }
+        };
+
+        private final String _contextPath;
+        private final Branch[] _branches;
+        private final Map<String, int[]> _hosts;
+        private final Map<String, int[]> _wildcardHosts;
+        private final Map<String, int[]> _connectors;
+        private final int[] _anyHost;
+
+        ContextBranches(String contextPath, Branch[] branches)
+        {
+            _contextPath = contextPath;
+            _branches = branches;
+
+            Map<String, List<Integer>> hosts = new HashMap<>();
+            Map<String, List<Integer>> wildcardHosts = new HashMap<>();
+            Map<String, List<Integer>> connectors = new HashMap<>();
+            List<Integer> anyHost = new ArrayList<>();
+            for (int i = 0; i < branches.length; i++)
+            {
+                ContextHandler[] contexts = branches[i].getContextHandlers();
+                for (int c = 0; c < contexts.length; c++)
+                {
+                    String[] vhosts = branches[i].getVirtualHosts(c);
+                    // Contexts that check the virtual host themselves are always asked.
+                    if (vhosts == null || vhosts.length == 0 || OVERRIDES_CHECK_VIRTUAL_HOST.get(contexts[c].getClass()))
+                    {
+                        addIndex(anyHost, i);
+                        continue;
+                    }
+
+                    for (String vhost : vhosts)
+                    {
+                        String host = vhost;
+                        int at = host.indexOf('@');
+                        if (at >= 0)
+                        {
+                            // Entries with a host are indexed by host, the connector is checked by the context.
+                            if (at == 0)
+                            {
+                                addIndex(connectors.computeIfAbsent(foldCase(host.substring(1)), k -> new ArrayList<>()), i);
+                                continue;
+                            }
+                            host = host.substring(0, at);
+                        }
+
+                        if (host.startsWith("*."))
+                            addIndex(wildcardHosts.computeIfAbsent(normalizeHost(host.substring(1)), k -> new ArrayList<>()), i);
+                        else if (!host.isEmpty())
+                            addIndex(hosts.computeIfAbsent(normalizeHost(host), k -> new ArrayList<>()), i);
+                    }
+                }
+            }
+
+            _hosts = toIndexes(hosts);
+            _wildcardHosts = toIndexes(wildcardHosts);
+            _connectors = toIndexes(connectors);
+            _anyHost = toIndexes(anyHost);
+        }
+
+        String getContextPath()
+        {
+            return _contextPath;
+        }
+
+        Branch[] getBranches()
+        {
+            return _branches;
+        }
+
+        /**
+         * @param baseRequest the request to route
+         * @return the branches that may accept the request host and connector, in mapping order
+         */
+        Branch[] getBranches(Request baseRequest)
+        {
+            if (_anyHost.length == _branches.length)
+                return _branches;
+
+            int[] hosts = null;
+            int[] wildcardHosts = null;
+            String host = normalizeHost(baseRequest.getServerName());
+            if (host != null)
+            {
+                hosts = _hosts.get(host);
+                if (!_wildcardHosts.isEmpty())
+                {
+                    // Wildcards only match one additional subdomain level
+                    int dot = host.indexOf('.');
+                    if (dot >= 0)
+                        wildcardHosts = _wildcardHosts.get(host.substring(dot));
+                }
+            }
+
+            int[] connectors = null;
+            if (!_connectors.isEmpty())
+            {
+                String name = baseRequest.getHttpChannel().getConnector().getName();
+                if (name != null)
+                    connectors = _connectors.get(foldCase(name));
+            }
+
+            return select(hosts, wildcardHosts, connectors, _anyHost);
+        }
+
+        /**
+         * Merges the given sorted branch indexes, dropping duplicates, so that
+         * the branches are returned in the same order as they were mapped.
+         */
+        private Branch[] select(int[]... indexes)
+        {
+            int total = 0;
+            for (int i = 0; i < indexes.length; i++)
+            {
+                if (indexes[i] == null)
+                    indexes[i] = NO_INDEXES;
+                total += indexes[i].length;
+            }
+
+            Branch[] selected = new Branch[total];
+            int[] cursors = new int[indexes.length];
+            int count = 0;
+            int last = -1;
+            while (true)
+            {
+                int next = Integer.MAX_VALUE;
+                for (int i = 0; i < indexes.length; i++)
+                {
+                    if (cursors[i] < indexes[i].length)
+                        next = Math.min(next, indexes[i][cursors[i]]);
+                }
+                if (next == Integer.MAX_VALUE)
+                    break;
+                for (int i = 0; i < indexes.length; i++)
+                {
+                    if (cursors[i] < indexes[i].length && indexes[i][cursors[i]] == next)
+                        cursors[i]++;
+                }
+                if (next != last)
+                    selected[count++] = _branches[next];
+                last = next;
+            }
+            return count == total ? selected : Arrays.copyOf(selected, count);
+        }
+
+        private static String normalizeHost(String host)
+        {
+            if (host == null)
+                return null;
+            if (host.endsWith("."))
+                host = host.substring(0, host.length() - 1);
+            return foldCase(host);
+        }
+
+        /**
+         * Folds the case of a string, so that two strings are equal once folded
+         * if and only if they are equal according to {@link String#equalsIgnoreCase(String)},
+         * which is how {@link ContextHandler#checkVirtualHost(Request)} compares them.
+         */
+        private static String foldCase(String string)
+        {
+            for (int i = 0; i < string.length(); i++)
+            {
+                if (string.charAt(i) > 0x7F)
+                {
+                    char[] chars = string.toCharArray();
+                    for (int c = 0; c < chars.length; c++)
+                    {
+                        chars[c] = Character.toLowerCase(Character.toUpperCase(chars[c]));
+                    }
+                    return new String(chars);
+                }
+            }
+            return StringUtil.asciiToLowerCase(string);
+        }
+
+        private static void addIndex(List<Integer> indexes, int index)
+        {
+            if (indexes.isEmpty() || indexes.get(indexes.size() - 1) != index)
+                indexes.add(index);
+        }
+
+        private static int[] toIndexes(List<Integer> indexes)
+        {
+            return indexes.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static Map<String, int[]> toIndexes(Map<String, List<Integer>> indexes)
+        {
+            if (indexes.isEmpty())
+                return Collections.emptyMap();
+            Map<String, int[]> result = new HashMap<>();
+            for (Map.Entry<String, List<Integer>> entry : indexes.entrySet())
+            {
+                result.put(entry.getKey(), toIndexes(entry.getValue()));
+            }
+            return result;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s=%s", _contextPath, Arrays.asList(_branches));
+        }
+    }
+
     private static class Mapping extends Handlers
     {
         private final Map<ContextHandler, Handler> _contextBranches;
-        private final Index<Map.Entry<String, Branch[]>> _pathBranches;
+        private final Map<Handler, Branch> _handlerBranches;
+        private final Map<String, Integer> _pathSlots;
+        private final Index<Integer> _pathIndex;
+        private final ContextBranches[] _pathBranches;
 
-        private Mapping(Handler[] handlers, Map<String, Branch[]> path2Branches)
+        private Mapping(Handler[] handlers, Map<Handler, Branch> handlerBranches, Map<String, ContextBranches> pathBranches, Mapping current)
         {
             super(handlers);
-            _pathBranches = new Index.Builder<Map.Entry<String, Branch[]>>()
-                .caseSensitive(true)
-                .withAll(() ->
+            _handlerBranches = handlerBranches;
+
+            // The context path index maps to slots, so it can be kept while the same context paths are mapped
+            if (current != null && current._pathSlots.keySet().equals(pathBranches.keySet()))
+            {
+                _pathSlots = current._pathSlots;
+                _pathIndex = current._pathIndex;
+            }
+            else
+            {
+                Map<String, Integer> pathSlots = new HashMap<>();
+                for (String contextPath : pathBranches.keySet())
                 {
-                    Map<String, Map.Entry<String, Branch[]>> result = new LinkedHashMap<>();
-                    for (Map.Entry<String, Branch[]> entry : path2Branches.entrySet())
+                    pathSlots.put(contextPath, pathSlots.size());
+                }
+                _pathSlots = Collections.unmodifiableMap(pathSlots);
+                _pathIndex = new Index.Builder<Integer>()
+                    .caseSensitive(true)
+                    .withAll(() ->
                     {
-                        result.put(entry.getKey().substring(1), entry);
-                    }
-                    return result;
-                })
-                .build();
+                        Map<String, Integer> result = new LinkedHashMap<>();
+                        for (Map.Entry<String, Integer> entry : pathSlots.entrySet())
+                        {
+                            result.put(entry.getKey().substring(1), entry.getValue());
+                        }
+                        return result;
+                    })
+                    .build();
+            }
+
+            _pathBranches = new ContextBranches[_pathSlots.size()];
+            for (Map.Entry<String, Integer> entry : _pathSlots.entrySet())
+            {
+                _pathBranches[entry.getValue()] = pathBranches.get(entry.getKey());
+            }
 
             // add new context branches to map
             Map<ContextHandler, Handler> contextBranches = new HashMap<>();
-            for (Branch[] branches : path2Branches.values())
+            for (ContextBranches branches : _pathBranches)
             {
-                for (Branch branch : branches)
+                for (Branch branch : branches.getBranches())
                 {
                     for (ContextHandler context : branch.getContextHandlers())
                     {
@@ -376,5 +705,11 @@ public class ContextHandlerCollection extends HandlerCollection
             }
             _contextBranches = Collections.unmodifiableMap(contextBranches);
         }
+
+        private ContextBranches getContextBranches(String contextPath)
+        {
+            Integer slot = _pathSlots.get(contextPath);
+            return slot == null ? null : _pathBranches[slot];
+        }
     }
 }
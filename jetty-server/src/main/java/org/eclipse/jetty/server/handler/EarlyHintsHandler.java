@@ -0,0 +1,234 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+package org.eclipse.jetty.server.handler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Response;
+import org.eclipse.jetty.util.annotation.ManagedAttribute;
+import org.eclipse.jetty.util.annotation.ManagedObject;
+import org.eclipse.jetty.util.annotation.ManagedOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>A handler that learns the preload links of resources and sends them
+ * in a {@code 103 Early Hints} interim response.</p>
+ * <p>When a successful response to a {@code GET} request carries {@code Link}
+ * headers with a {@code preload}, {@code modulepreload} or {@code preconnect}
+ * relation, those headers are remembered for the request path.
+ * Subsequent requests for the same path are immediately sent a 103 response
+ * with the remembered links, so that the client can start fetching secondary
+ * resources while the final response is still being generated.</p>
+ * <p>Each response replaces the links previously learned for its path, so links
+ * that the application stops emitting are also forgotten.
+ * Conditional requests are not sent hints, since the client likely already
+ * has the secondary resources in its cache.</p>
+ * <p>This is the replacement for the HTTP/2 push based {@code PushCacheFilter},
+ * as browsers no longer support HTTP/2 push; early hints work for both
+ * HTTP/1.1 and HTTP/2 clients.</p>
+ */
+@ManagedObject("Early hints handler")
+public class EarlyHintsHandler extends HandlerWrapper
+{
+    private static final Logger LOG = LoggerFactory.getLogger(EarlyHintsHandler.class);
+    private static final String LINK = "Link";
+    private static final Pattern HINT_RELATION = Pattern.compile(";\\s*rel\\s*=\\s*\"?([^\";,]*\\s)?(preload|modulepreload|preconnect)[\\s\";,]", Pattern.CASE_INSENSITIVE);
+
+    private final ConcurrentMap<String, HttpFields> _hints = new ConcurrentHashMap<>();
+    private final LongAdder _earlyHintsSent = new LongAdder();
+    private int _maxPaths = 1024;
+    private int _maxLinks = 16;
+
+    @ManagedAttribute("The maximum number of paths for which links are learned")
+    public int getMaxPaths()
+    {
+        return _maxPaths;
+    }
+
+    public void setMaxPaths(int maxPaths)
+    {
+        _maxPaths = maxPaths;
+    }
+
+    @ManagedAttribute("The maximum number of links learned per path")
+    public int getMaxLinks()
+    {
+        return _maxLinks;
+    }
+
+    public void setMaxLinks(int maxLinks)
+    {
+        _maxLinks = maxLinks;
+    }
+
+    @ManagedAttribute("The number of 103 Early Hints responses sent")
+    public long getEarlyHintsSent()
+    {
+        return _earlyHintsSent.sum();
+    }
+
+    @ManagedAttribute("The learned links per path")
+    public Map<String, String> getEarlyHints()
+    {
+        Map<String, String> result = new TreeMap<>();
+        for (Map.Entry<String, HttpFields> entry : _hints.entrySet())
+        {
+            result.put(entry.getKey(), String.join(", ", entry.getValue().getValuesList(LINK)));
+        }
+        return result;
+    }
+
+    @ManagedOperation(value = "Clears the learned links", impact = "ACTION")
+    public void clearEarlyHints()
+    {
+        _hints.clear();
+    }
+
+    @Override
+    public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException
+    {
+        // Only the initial dispatch sends hints and learns links, not async, error or forward dispatches.
+        if (baseRequest.getDispatcherType() != DispatcherType.REQUEST || !HttpMethod.GET.is(baseRequest.getMethod()))
+        {
+            super.handle(target, baseRequest, request, response);
+            return;
+        }
+
+        String path = baseRequest.getRequestURI();
+        HttpFields hints = _hints.get(path);
+        if (hints != null && !isConditional(baseRequest.getHttpFields()))
+        {
+            if (baseRequest.getResponse().sendEarlyHints(hints))
+            {
+                _earlyHintsSent.increment();
+                if (LOG.isDebugEnabled())
+                    LOG.debug("Sent early hints for {}: {}", path, hints);
+            }
+        }
+
+        try
+        {
+            super.handle(target, baseRequest, request, response);
+        }
+        finally
+        {
+            if (request.isAsyncStarted())
+            {
+                request.getAsyncContext().addListener(new AsyncListener()
+                {
+                    @Override
+                    public void onComplete(AsyncEvent event)
+                    {
+                        learn(path, baseRequest.getResponse());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event)
+                    {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event)
+                    {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event)
+                    {
+                        event.getAsyncContext().addListener(this);
+                    }
+                });
+            }
+            else
+            {
+                learn(path, baseRequest.getResponse());
+            }
+        }
+    }
+
+    private void learn(String path, Response response)
+    {
+        if (response.getStatus() != HttpStatus.OK_200)
+            return;
+
+        HttpFields.Mutable links = null;
+        for (HttpField field : response.getHttpFields())
+        {
+            if (!field.is(LINK) || !isHint(field.getValue()))
+                continue;
+            if (links == null)
+                links = HttpFields.build();
+            else if (links.size() >= _maxLinks)
+                break;
+            links.add(field);
+        }
+
+        if (links == null)
+        {
+            if (_hints.remove(path) != null && LOG.isDebugEnabled())
+                LOG.debug("Forgot early hints for {}", path);
+            return;
+        }
+
+        HttpFields hints = links.asImmutable();
+        HttpFields existing = _hints.get(path);
+        if (existing != null && existing.equals(hints))
+            return;
+        if (existing == null && _hints.size() >= _maxPaths)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("Not learning early hints for {}, exceeded max paths of {}", path, _maxPaths);
+            return;
+        }
+        _hints.put(path, hints);
+        if (LOG.isDebugEnabled())
+            LOG.debug("Learned early hints for {}: {}", path, hints);
+    }
+
+    private static boolean isHint(String link)
+    {
+        return link != null && HINT_RELATION.matcher(link + ";").find();
+    }
+
+    private static boolean isConditional(HttpFields fields)
+    {
+        return fields.contains(HttpHeader.IF_MATCH) ||
+            fields.contains(HttpHeader.IF_MODIFIED_SINCE) ||
+            fields.contains(HttpHeader.IF_NONE_MATCH) ||
+            fields.contains(HttpHeader.IF_UNMODIFIED_SINCE);
+    }
+}
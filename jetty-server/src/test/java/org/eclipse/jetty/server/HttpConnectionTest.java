@@ -35,6 +35,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
@@ -65,6 +66,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -906,6 +908,39 @@ public class HttpConnectionTest
         assertThat(response, Matchers.containsString("200 OK"));
     }
 
+    @Test
+    public void testHttpChannelPool() throws Exception
+    {
+        server.stop();
+        connector.getConnectionFactory(HttpConnectionFactory.class).setHttpChannelPoolSize(2);
+        Set<Request> requests = ConcurrentHashMap.newKeySet();
+        server.setHandler(new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            {
+                baseRequest.setHandled(true);
+                requests.add(baseRequest);
+                response.setStatus(200);
+            }
+        });
+        server.start();
+
+        int connections = 10;
+        for (int i = 0; i < connections; i++)
+        {
+            LocalEndPoint endp = connector.executeRequest("GET /R" + i + " HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Connection: close\r\n" +
+                "\r\n");
+            endp.waitUntilClosed();
+            assertThat(BufferUtil.toString(endp.takeOutput()), Matchers.containsString("200 OK"));
+        }
+
+        // Each connection carried a single request, yet channels were reused across connections.
+        assertThat(requests.size(), lessThan(connections));
+    }
+
     @Test
     public void testCharset() throws Exception
     {
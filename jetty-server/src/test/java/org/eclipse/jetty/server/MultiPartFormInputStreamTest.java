@@ -27,6 +27,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -43,8 +45,10 @@ import org.junit.jupiter.api.Test;
 
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
@@ -648,6 +652,81 @@ public class MultiPartFormInputStreamTest
         assertFalse(_tmpDir.exists());
     }
 
+    @Test
+    public void testParseAsync() throws Exception
+    {
+        byte[] content = _multi.getBytes(ISO_8859_1);
+        AtomicInteger position = new AtomicInteger();
+        AtomicInteger available = new AtomicInteger();
+        CompletableFuture<ReadListener> listener = new CompletableFuture<>();
+        ServletInputStream is = new ServletInputStream()
+        {
+            @Override
+            public boolean isFinished()
+            {
+                return position.get() == content.length;
+            }
+
+            @Override
+            public boolean isReady()
+            {
+                return available.get() > 0;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener)
+            {
+                listener.complete(readListener);
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len)
+            {
+                int l = Math.min(len, available.getAndSet(0));
+                System.arraycopy(content, position.getAndAdd(l), b, off, l);
+                return l;
+            }
+
+            @Override
+            public int read()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        MultipartConfigElement config = new MultipartConfigElement(_dirname, 1024, 3072, 50);
+        MultiPartFormInputStream mpis = new MultiPartFormInputStream(is, _contentType, config, _tmpDir);
+        mpis.setDeleteOnExit(true);
+
+        Map<String, Integer> completed = new LinkedHashMap<>();
+        CompletableFuture<Collection<Part>> result = mpis.parseAsync(part -> completed.put(part.getName(), position.get()));
+        ReadListener readListener = listener.get(5, TimeUnit.SECONDS);
+
+        // Deliver the content in small chunks, as the network would.
+        while (position.get() < content.length)
+        {
+            assertFalse(result.isDone());
+            available.set(Math.min(16, content.length - position.get()));
+            readListener.onDataAvailable();
+        }
+        readListener.onAllDataRead();
+
+        Collection<Part> parts = result.get(5, TimeUnit.SECONDS);
+        assertThat(parts.size(), is(2));
+        assertThat(completed.keySet(), contains("field1", "stuff"));
+
+        // The first part was notified before the second part was received.
+        assertThat(completed.get("field1"), lessThan(completed.get("stuff")));
+
+        // The second part was larger than the threshold, so it was spilled to a file.
+        MultiPart stuff = (MultiPart)mpis.getPart("stuff");
+        assertThat(stuff.getFile(), notNullValue());
+        assertThat(IO.toString(stuff.getInputStream()), startsWith(FILENAME));
+        assertThat(stuff.getSize(), is(51L));
+        mpis.deleteParts();
+        assertFalse(stuff.getFile().exists());
+    }
+
     @Test
     public void testLFOnlyRequest() throws Exception
     {
@@ -595,6 +595,45 @@ public class RequestTest
         assertThat(responses, startsWith("HTTP/1.1 200"));
     }
 
+    @Test
+    public void testLazyParameterLookup() throws Exception
+    {
+        _handler._checker = new RequestTester()
+        {
+            @Override
+            public boolean check(HttpServletRequest request, HttpServletResponse response)
+            {
+                // Single lookups only decode the parameters they look up
+                if (!"1".equals(request.getParameter("a")) || !"x y".equals(request.getParameter("b")))
+                    return false;
+                if (request.getParameter("missing") != null)
+                    return false;
+                String[] values = request.getParameterValues("c");
+                if (values == null || values.length != 2 || !"2".equals(values[0]) || !"3".equals(values[1]))
+                    return false;
+
+                try
+                {
+                    // Enumerating the parameters decodes all of them
+                    request.getParameterMap();
+                    return false;
+                }
+                catch (BadMessageException e)
+                {
+                    return true;
+                }
+            }
+        };
+
+        String request = "GET /?a=1&bad=aaa%ZZbbb&b=x+y&c=2&c=3 HTTP/1.1\r\n" +
+            "Host: whatever\r\n" +
+            "Connection: close\n" +
+            "\n";
+
+        String responses = _connector.getResponse(request);
+        assertThat(responses, startsWith("HTTP/1.1 200"));
+    }
+
     @Test
     public void testContentLengthExceedsMaxInteger() throws Exception
     {
@@ -242,6 +242,253 @@ public class ContextHandlerCollectionTest
         }
     }
 
+    @Test
+    public void testManyVirtualHosts() throws Exception
+    {
+        Server server = new Server();
+        LocalConnector connector0 = new LocalConnector(server);
+        LocalConnector connector1 = new LocalConnector(server);
+        connector1.setName("connector1");
+        server.setConnectors(new Connector[]{connector0, connector1});
+
+        ContextHandlerCollection collection = new ContextHandlerCollection();
+
+        ContextHandler defaultContext = new ContextHandler("/");
+        defaultContext.setHandler(new IsHandledHandler("default"));
+        collection.addHandler(defaultContext);
+
+        int tenants = 100;
+        for (int i = 0; i < tenants; i++)
+        {
+            ContextHandler context = new ContextHandler("/");
+            context.setVirtualHosts(new String[]{"tenant" + i + ".example.com", "*.tenant" + i + ".org"});
+            context.setHandler(new IsHandledHandler("tenant" + i));
+            collection.addHandler(context);
+        }
+
+        ContextHandler connectorContext = new ContextHandler("/");
+        connectorContext.setVirtualHosts(new String[]{"@connector1"});
+        connectorContext.setHandler(new IsHandledHandler("connector1"));
+        collection.addHandler(connectorContext);
+
+        server.setHandler(collection);
+
+        try
+        {
+            server.start();
+
+            Object[][] tests = new Object[][]{
+                {connector0, "tenant0.example.com", "tenant0"},
+                {connector0, "TENANT42.example.com.", "tenant42"},
+                {connector0, "www.tenant99.org", "tenant99"},
+                {connector1, "tenant7.example.com", "tenant7"},
+                {connector0, "www.sub.tenant3.org", "default"},
+                {connector0, "tenant100.example.com", "default"},
+                {connector1, "unknown.com", "connector1"},
+                };
+
+            for (Object[] test : tests)
+            {
+                LocalConnector connector = (LocalConnector)test[0];
+                String host = (String)test[1];
+                String response = connector.getResponse("GET /info HTTP/1.0\nHost: " + host + "\n\n");
+                assertThat(host, response, endsWith((String)test[2]));
+            }
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testVirtualHostMatchedAsContextHandler() throws Exception
+    {
+        Server server = new Server();
+        LocalConnector connector = new LocalConnector(server);
+        server.setConnectors(new Connector[]{connector});
+
+        ContextHandler defaultContext = new ContextHandler("/");
+        defaultContext.setHandler(new IsHandledHandler("default"));
+
+        // The KELVIN SIGN is equal to 'k' ignoring case, although it is not ASCII.
+        ContextHandler kelvinContext = new ContextHandler("/");
+        kelvinContext.setVirtualHosts(new String[]{"\u212A.example.com"});
+        kelvinContext.setHandler(new IsHandledHandler("kelvin"));
+
+        // A context that checks the virtual host itself is always asked.
+        ContextHandler customContext = new ContextHandler("/")
+        {
+            @Override
+            public boolean checkVirtualHost(Request baseRequest)
+            {
+                return baseRequest.getServerName().startsWith("custom.") || super.checkVirtualHost(baseRequest);
+            }
+        };
+        customContext.setVirtualHosts(new String[]{"other.example.com"});
+        customContext.setHandler(new IsHandledHandler("custom"));
+
+        ContextHandlerCollection collection = new ContextHandlerCollection(kelvinContext, customContext, defaultContext);
+        server.setHandler(collection);
+
+        try
+        {
+            server.start();
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: k.example.com\n\n"), endsWith("kelvin"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: K.EXAMPLE.COM\n\n"), endsWith("kelvin"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: custom.example.com\n\n"), endsWith("custom"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: other.example.com\n\n"), endsWith("custom"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: www.example.com\n\n"), endsWith("default"));
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testVirtualHostsChangedBeforeStart() throws Exception
+    {
+        Server server = new Server();
+        LocalConnector connector = new LocalConnector(server);
+        server.setConnectors(new Connector[]{connector});
+
+        ContextHandler contextA = new ContextHandler("/");
+        contextA.setVirtualHosts(new String[]{"a.example.com"});
+        contextA.setHandler(new IsHandledHandler("A"));
+        ContextHandler contextB = new ContextHandler("/");
+        contextB.setVirtualHosts(new String[]{"b.example.com"});
+        contextB.setHandler(new IsHandledHandler("B"));
+
+        ContextHandlerCollection collection = new ContextHandlerCollection(contextA, contextB);
+        server.setHandler(collection);
+
+        // Contexts added to the collection before their virtual hosts are known.
+        ContextHandler contextC = new ContextHandler(collection, "/");
+        contextC.setVirtualHosts(new String[]{"c.example.com"});
+        contextC.setHandler(new IsHandledHandler("C"));
+
+        // Virtual hosts changed after the contexts were mapped, while the server is not started.
+        contextA.setVirtualHosts(new String[]{"x.example.com"});
+        contextB.addVirtualHosts(new String[]{"y.example.com"});
+
+        try
+        {
+            server.start();
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: x.example.com\n\n"), endsWith("A"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: a.example.com\n\n"), containsString(" 404 "));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: b.example.com\n\n"), endsWith("B"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: y.example.com\n\n"), endsWith("B"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: c.example.com\n\n"), endsWith("C"));
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testRedeployContexts() throws Exception
+    {
+        Server server = new Server();
+        LocalConnector connector = new LocalConnector(server);
+        server.setConnectors(new Connector[]{connector});
+
+        ContextHandler contextA = new ContextHandler("/a");
+        contextA.setHandler(new IsHandledHandler("A"));
+        ContextHandler contextB = new ContextHandler("/b");
+        contextB.setVirtualHosts(new String[]{"b.example.com"});
+        contextB.setHandler(new IsHandledHandler("B"));
+        ContextHandler contextC = new ContextHandler("/b");
+        contextC.setHandler(new IsHandledHandler("C"));
+
+        ContextHandlerCollection collection = new ContextHandlerCollection(contextA, contextB, contextC);
+        server.setHandler(collection);
+
+        try
+        {
+            server.start();
+            assertThat(connector.getResponse("GET /a/info HTTP/1.0\n\n"), endsWith("A"));
+            assertThat(connector.getResponse("GET /b/info HTTP/1.0\nHost: b.example.com\n\n"), endsWith("B"));
+            assertThat(connector.getResponse("GET /b/info HTTP/1.0\n\n"), endsWith("C"));
+
+            // Redeploy a context at the same path and virtual host.
+            ContextHandler contextB2 = new ContextHandler("/b");
+            contextB2.setVirtualHosts(new String[]{"b.example.com"});
+            contextB2.setHandler(new IsHandledHandler("B2"));
+            collection.removeHandler(contextB);
+            collection.addHandler(contextB2);
+            contextB2.start();
+            assertThat(connector.getResponse("GET /a/info HTTP/1.0\n\n"), endsWith("A"));
+            assertThat(connector.getResponse("GET /b/info HTTP/1.0\nHost: b.example.com\n\n"), endsWith("B2"));
+            assertThat(connector.getResponse("GET /b/info HTTP/1.0\n\n"), endsWith("C"));
+
+            // Deploy a context at a new path and undeploy another.
+            ContextHandler contextD = new ContextHandler("/d");
+            contextD.setHandler(new IsHandledHandler("D"));
+            collection.addHandler(contextD);
+            contextD.start();
+            collection.removeHandler(contextA);
+            assertThat(connector.getResponse("GET /a/info HTTP/1.0\n\n"), containsString(" 404 "));
+            assertThat(connector.getResponse("GET /d/info HTTP/1.0\n\n"), endsWith("D"));
+            assertThat(connector.getResponse("GET /b/info HTTP/1.0\nHost: b.example.com\n\n"), endsWith("B2"));
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testDeployAfterVirtualHostsChanged() throws Exception
+    {
+        Server server = new Server();
+        LocalConnector connector = new LocalConnector(server);
+        server.setConnectors(new Connector[]{connector});
+
+        ContextHandler contextA = new ContextHandler("/");
+        contextA.setHandler(new IsHandledHandler("A"));
+        ContextHandler contextB = new ContextHandler("/");
+        contextB.setVirtualHosts(new String[]{"b.example.com"});
+        contextB.setHandler(new IsHandledHandler("B"));
+
+        ContextHandlerCollection collection = new ContextHandlerCollection(contextA, contextB);
+        server.setHandler(collection);
+
+        try
+        {
+            server.start();
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: b.example.com\n\n"), endsWith("B"));
+
+            // Change the virtual hosts of a running context, then deploy another context at the same path.
+            contextB.setVirtualHosts(new String[]{"c.example.com"});
+            ContextHandler contextD = new ContextHandler("/");
+            contextD.setVirtualHosts(new String[]{"d.example.com"});
+            contextD.setHandler(new IsHandledHandler("D"));
+            collection.addHandler(contextD);
+            contextD.start();
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: b.example.com\n\n"), endsWith("A"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: c.example.com\n\n"), endsWith("B"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: d.example.com\n\n"), endsWith("D"));
+
+            // Change the virtual hosts of a stopped context, then deploy another context before restarting.
+            server.stop();
+            contextB.setVirtualHosts(new String[]{"e.example.com"});
+            ContextHandler contextF = new ContextHandler("/");
+            contextF.setVirtualHosts(new String[]{"f.example.com"});
+            contextF.setHandler(new IsHandledHandler("F"));
+            collection.addHandler(contextF);
+            server.start();
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: c.example.com\n\n"), endsWith("A"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: e.example.com\n\n"), endsWith("B"));
+            assertThat(connector.getResponse("GET /info HTTP/1.0\nHost: f.example.com\n\n"), endsWith("F"));
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
     @Test
     public void testFindContainer() throws Exception
     {
@@ -0,0 +1,175 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+package org.eclipse.jetty.server.handler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.server.LocalConnector;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EarlyHintsHandlerTest
+{
+    private Server _server;
+    private LocalConnector _connector;
+    private EarlyHintsHandler _earlyHintsHandler;
+    private final List<String> _links = new ArrayList<>();
+    private boolean _async;
+
+    @BeforeEach
+    public void before() throws Exception
+    {
+        _server = new Server();
+        _connector = new LocalConnector(_server);
+        _server.addConnector(_connector);
+
+        _earlyHintsHandler = new EarlyHintsHandler();
+        _earlyHintsHandler.setHandler(new AbstractHandler()
+        {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException
+            {
+                baseRequest.setHandled(true);
+                if (_async && request.getDispatcherType() == DispatcherType.REQUEST)
+                {
+                    request.startAsync().dispatch();
+                    return;
+                }
+                for (String link : _links)
+                {
+                    response.addHeader("Link", link);
+                }
+                response.setContentType("text/plain");
+                response.getWriter().print("page");
+            }
+        });
+        _server.setHandler(_earlyHintsHandler);
+        _server.start();
+    }
+
+    @AfterEach
+    public void after() throws Exception
+    {
+        _server.stop();
+    }
+
+    @Test
+    public void testLearnedLinksSentAsEarlyHints() throws Exception
+    {
+        _links.add("</style.css>; rel=preload; as=style");
+        _links.add("</script.js>; rel=\"modulepreload\"");
+        _links.add("</next.html>; rel=next");
+
+        String response = _connector.getResponse("GET /page HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        assertThat(response, startsWith("HTTP/1.1 200 OK"));
+        assertEquals(0, _earlyHintsHandler.getEarlyHintsSent());
+
+        LocalConnector.LocalEndPoint endPoint = _connector.executeRequest("GET /page HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        String earlyHints = endPoint.getResponse();
+        assertThat(earlyHints, startsWith("HTTP/1.1 103 Early Hints"));
+        assertThat(earlyHints, containsString("Link: </style.css>; rel=preload; as=style"));
+        assertThat(earlyHints, containsString("Link: </script.js>; rel=\"modulepreload\""));
+        assertThat(earlyHints, not(containsString("next.html")));
+
+        response = endPoint.getResponse();
+        assertThat(response, startsWith("HTTP/1.1 200 OK"));
+        assertThat(response, containsString("page"));
+        assertEquals(1, _earlyHintsHandler.getEarlyHintsSent());
+
+        // Other paths have not learned any link.
+        response = _connector.getResponse("GET /other HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        assertThat(response, startsWith("HTTP/1.1 200 OK"));
+        assertEquals(1, _earlyHintsHandler.getEarlyHintsSent());
+    }
+
+    @Test
+    public void testNoEarlyHintsForHttp10OrConditionalRequests() throws Exception
+    {
+        _links.add("</style.css>; rel=preload; as=style");
+        _connector.getResponse("GET /page HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        assertTrue(_earlyHintsHandler.getEarlyHints().containsKey("/page"));
+
+        String response = _connector.getResponse("GET /page HTTP/1.0\r\n\r\n");
+        assertThat(response, startsWith("HTTP/1.1 200 OK"));
+
+        response = _connector.getResponse("GET /page HTTP/1.1\r\nHost: localhost\r\nIf-None-Match: \"abc\"\r\n\r\n");
+        assertThat(response, startsWith("HTTP/1.1 200 OK"));
+
+        assertEquals(0, _earlyHintsHandler.getEarlyHintsSent());
+    }
+
+    @Test
+    public void testLinksForgottenWhenNoLongerSent() throws Exception
+    {
+        _links.add("</style.css>; rel=preload; as=style");
+        _connector.getResponse("GET /page HTTP/1.1\r\nHost: localhost\r\n\r\n");
+
+        _links.clear();
+        LocalConnector.LocalEndPoint endPoint = _connector.executeRequest("GET /page HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        assertThat(endPoint.getResponse(), startsWith("HTTP/1.1 103 Early Hints"));
+        assertThat(endPoint.getResponse(), startsWith("HTTP/1.1 200 OK"));
+
+        String response = _connector.getResponse("GET /page HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        assertThat(response, startsWith("HTTP/1.1 200 OK"));
+        assertEquals(1, _earlyHintsHandler.getEarlyHintsSent());
+    }
+
+    @Test
+    public void testEarlyHintsSentOnceForAsyncDispatch() throws Exception
+    {
+        _async = true;
+        _links.add("</style.css>; rel=preload; as=style");
+        _connector.getResponse("GET /page HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        assertTrue(_earlyHintsHandler.getEarlyHints().containsKey("/page"));
+
+        LocalConnector.LocalEndPoint endPoint = _connector.executeRequest("GET /page HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        assertThat(endPoint.getResponse(), startsWith("HTTP/1.1 103 Early Hints"));
+        String response = endPoint.getResponse();
+        assertThat(response, startsWith("HTTP/1.1 200 OK"));
+        assertThat(response, containsString("page"));
+        assertEquals(1, _earlyHintsHandler.getEarlyHintsSent());
+    }
+
+    @Test
+    public void testMaxPaths() throws Exception
+    {
+        _earlyHintsHandler.setMaxPaths(1);
+        _links.add("</style.css>; rel=preload; as=style");
+        _connector.getResponse("GET /one HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        _connector.getResponse("GET /two HTTP/1.1\r\nHost: localhost\r\n\r\n");
+
+        assertTrue(_earlyHintsHandler.getEarlyHints().containsKey("/one"));
+        assertEquals(1, _earlyHintsHandler.getEarlyHints().size());
+    }
+}
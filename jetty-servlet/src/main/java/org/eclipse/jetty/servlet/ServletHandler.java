@@ -19,18 +19,25 @@
 package org.eclipse.jetty.servlet;
 
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.EventListener;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javax.servlet.DispatcherType;
@@ -118,6 +125,11 @@ public class ServletHandler extends ScopedHandler
 
     @SuppressWarnings("unchecked")
     protected final ConcurrentMap<String, FilterChain>[] _chainCache = new ConcurrentMap[FilterMapping.ALL];
+    @SuppressWarnings("unchecked")
+    private final FilterChainCache<ChainKey>[] _chainKeyCache = new FilterChainCache[FilterMapping.ALL];
+    private final LongAdder _chainCacheHits = new LongAdder();
+    private final LongAdder _chainCacheSharedHits = new LongAdder();
+    private final LongAdder _chainCacheMisses = new LongAdder();
 
     /**
      * Constructor.
@@ -178,11 +190,16 @@ public class ServletHandler extends ScopedHandler
 
             if (isFilterChainsCached())
             {
-                _chainCache[FilterMapping.REQUEST] = new ConcurrentHashMap<>();
-                _chainCache[FilterMapping.FORWARD] = new ConcurrentHashMap<>();
-                _chainCache[FilterMapping.INCLUDE] = new ConcurrentHashMap<>();
-                _chainCache[FilterMapping.ERROR] = new ConcurrentHashMap<>();
-                _chainCache[FilterMapping.ASYNC] = new ConcurrentHashMap<>();
+                _chainCache[FilterMapping.REQUEST] = new FilterChainCache<>();
+                _chainCache[FilterMapping.FORWARD] = new FilterChainCache<>();
+                _chainCache[FilterMapping.INCLUDE] = new FilterChainCache<>();
+                _chainCache[FilterMapping.ERROR] = new FilterChainCache<>();
+                _chainCache[FilterMapping.ASYNC] = new FilterChainCache<>();
+                _chainKeyCache[FilterMapping.REQUEST] = new FilterChainCache<>();
+                _chainKeyCache[FilterMapping.FORWARD] = new FilterChainCache<>();
+                _chainKeyCache[FilterMapping.INCLUDE] = new FilterChainCache<>();
+                _chainKeyCache[FilterMapping.ERROR] = new FilterChainCache<>();
+                _chainKeyCache[FilterMapping.ASYNC] = new FilterChainCache<>();
             }
 
             if (_contextHandler == null)
@@ -556,8 +573,38 @@ public class ServletHandler extends ScopedHandler
         {
             FilterChain chain = _chainCache[dispatch].get(key);
             if (chain != null)
+            {
+                _chainCacheHits.increment();
+                return chain;
+            }
+        }
+
+        // A chain only depends on the servlet, the dispatch type and the path mappings that
+        // apply, so many paths (eg /orders/123, /orders/456) can share the same chain.
+        List<FilterMapping> filterPathMappings = _filterPathMappings;
+        BitSet pathMatches = new BitSet();
+        if (pathInContext != null && filterPathMappings != null)
+        {
+            for (int i = 0; i < filterPathMappings.size(); i++)
+            {
+                if (filterPathMappings.get(i).appliesTo(pathInContext, dispatch))
+                    pathMatches.set(i);
+            }
+        }
+
+        ChainKey chainKey = null;
+        if (_filterChainsCached)
+        {
+            chainKey = new ChainKey(servletHolder, pathMatches);
+            FilterChain chain = _chainKeyCache[dispatch].get(chainKey);
+            if (chain != null)
+            {
+                _chainCacheSharedHits.increment();
+                cacheFilterChain(_chainCache[dispatch], key, chain, baseRequest);
                 return chain;
+            }
         }
+        _chainCacheMisses.increment();
 
         // Build the filter chain from the inside out.
         // ie first wrap the servlet with the last filter to be applied.
@@ -581,31 +628,43 @@ public class ServletHandler extends ScopedHandler
             }
         }
 
-        if (pathInContext != null && _filterPathMappings != null)
+        for (int i = pathMatches.nextSetBit(0); i >= 0; i = pathMatches.nextSetBit(i + 1))
         {
-            for (FilterMapping mapping : _filterPathMappings)
-            {
-                if (mapping.appliesTo(pathInContext, dispatch))
-                    chain = newFilterChain(mapping.getFilterHolder(), chain == null ? new ChainEnd(servletHolder) : chain);
-            }
+            FilterMapping mapping = filterPathMappings.get(i);
+            chain = newFilterChain(mapping.getFilterHolder(), chain == null ? new ChainEnd(servletHolder) : chain);
         }
 
         if (_filterChainsCached)
         {
-            final Map<String, FilterChain> cache = _chainCache[dispatch];
-            // Do we have too many cached chains?
+            chain = chain == null ? new ChainEnd(servletHolder) : chain;
+            cacheFilterChain(_chainKeyCache[dispatch], chainKey, chain, baseRequest);
+            cacheFilterChain(_chainCache[dispatch], key, chain, baseRequest);
+        }
+        return chain;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K> void cacheFilterChain(ConcurrentMap<K, FilterChain> cache, K key, FilterChain chain, Request baseRequest)
+    {
+        int evicted = 0;
+        if (cache instanceof FilterChainCache)
+            evicted = ((FilterChainCache<K>)cache).cache(key, chain, _maxFilterChainsCacheSize);
+        else
+        {
+            // A cache installed by a subclass is flushed when full.
             if (_maxFilterChainsCacheSize > 0 && cache.size() >= _maxFilterChainsCacheSize)
             {
-                // flush the cache
-                LOG.debug("{} flushed filter chain cache for {}", this, baseRequest.getDispatcherType());
+                evicted = cache.size();
                 cache.clear();
             }
-            chain = chain == null ? new ChainEnd(servletHolder) : chain;
-            // flush the cache
-            LOG.debug("{} cached filter chain for {}: {}", this, baseRequest.getDispatcherType(), chain);
             cache.put(key, chain);
         }
-        return chain;
+        if (LOG.isDebugEnabled())
+        {
+            if (evicted > 0)
+                LOG.debug("{} evicted {} filter chains from cache for {}", this, evicted, baseRequest.getDispatcherType());
+            LOG.debug("{} cached filter chain for {} {}: {}", this, baseRequest.getDispatcherType(), key, chain);
+        }
     }
 
     /**
@@ -628,6 +687,11 @@ public class ServletHandler extends ScopedHandler
             _chainCache[FilterMapping.INCLUDE].clear();
             _chainCache[FilterMapping.ERROR].clear();
             _chainCache[FilterMapping.ASYNC].clear();
+            _chainKeyCache[FilterMapping.REQUEST].clear();
+            _chainKeyCache[FilterMapping.FORWARD].clear();
+            _chainKeyCache[FilterMapping.INCLUDE].clear();
+            _chainKeyCache[FilterMapping.ERROR].clear();
+            _chainKeyCache[FilterMapping.ASYNC].clear();
         }
     }
 
@@ -1408,6 +1472,8 @@ public class ServletHandler extends ScopedHandler
             {
                 if (_chainCache[i] != null)
                     _chainCache[i].clear();
+                if (_chainKeyCache[i] != null)
+                    _chainKeyCache[i].clear();
             }
 
             if (LOG.isDebugEnabled())
@@ -1532,8 +1598,10 @@ public class ServletHandler extends ScopedHandler
 
     /**
      * Set the maximum filter chain cache size.
-     * Filter chains are cached if {@link #isFilterChainsCached()} is true. If the max cache size
-     * is greater than zero, then the cache is flushed whenever it grows to be this size.
+     * Filter chains are cached if {@link #isFilterChainsCached()} is true, both by path and by
+     * the servlet and set of filter mappings that apply to the path, so that paths sharing the
+     * same mappings share the same chain. If the max cache size is greater than zero, then the
+     * least recently used quarter of a cache is evicted whenever it grows to be this size.
      *
      * @param maxFilterChainsCacheSize the maximum number of entries in a filter chain cache.
      */
@@ -1542,6 +1610,34 @@ public class ServletHandler extends ScopedHandler
         _maxFilterChainsCacheSize = maxFilterChainsCacheSize;
     }
 
+    /**
+     * @return the number of filter chains obtained from the filter chain cache by path
+     */
+    @ManagedAttribute("number of filter chains obtained from the cache by path")
+    public long getFilterChainCacheHits()
+    {
+        return _chainCacheHits.sum();
+    }
+
+    /**
+     * @return the number of filter chains not cached for their path, but shared
+     * with other paths to which the same filter mappings apply
+     */
+    @ManagedAttribute("number of filter chains shared with other paths with the same filter mappings")
+    public long getFilterChainCacheSharedHits()
+    {
+        return _chainCacheSharedHits.sum();
+    }
+
+    /**
+     * @return the number of filter chains that had to be built
+     */
+    @ManagedAttribute("number of filter chains built because of a cache miss")
+    public long getFilterChainCacheMisses()
+    {
+        return _chainCacheMisses.sum();
+    }
+
     void destroyServlet(Servlet servlet)
     {
         if (_contextHandler != null)
@@ -1657,6 +1753,213 @@ public class ServletHandler extends ScopedHandler
         }
     }
 
+    /**
+     * A concurrent cache of filter chains that, once full, evicts its least recently
+     * used entries rather than being flushed, so that the chains of frequently requested
+     * paths survive a stream of distinct paths.
+     * Recency is tracked by a clock that only ticks when a chain is cached, so that
+     * cache hits do not contend on it.
+     * The cache is also a {@link ConcurrentMap}, so that subclasses can still access it
+     * through {@link #_chainCache}; only {@link #cache(Object, FilterChain, int)} is bounded.
+     */
+    private static class FilterChainCache<K> extends AbstractMap<K, FilterChain> implements ConcurrentMap<K, FilterChain>
+    {
+        private final ConcurrentMap<K, CachedChain> _chains = new ConcurrentHashMap<>();
+        private final AtomicLong _clock = new AtomicLong();
+
+        @Override
+        public FilterChain get(Object key)
+        {
+            CachedChain cached = _chains.get(key);
+            if (cached == null)
+                return null;
+            cached._lastUsed = _clock.get();
+            return cached._chain;
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return _chains.containsKey(key);
+        }
+
+        @Override
+        public int size()
+        {
+            return _chains.size();
+        }
+
+        @Override
+        public FilterChain put(K key, FilterChain chain)
+        {
+            return chainOf(_chains.put(key, newCachedChain(chain)));
+        }
+
+        @Override
+        public FilterChain putIfAbsent(K key, FilterChain chain)
+        {
+            return chainOf(_chains.putIfAbsent(key, newCachedChain(chain)));
+        }
+
+        @Override
+        public FilterChain remove(Object key)
+        {
+            return chainOf(_chains.remove(key));
+        }
+
+        @Override
+        public boolean remove(Object key, Object chain)
+        {
+            CachedChain cached = _chains.get(key);
+            return cached != null && cached._chain.equals(chain) && _chains.remove(key, cached);
+        }
+
+        @Override
+        public boolean replace(K key, FilterChain oldChain, FilterChain newChain)
+        {
+            CachedChain cached = _chains.get(key);
+            return cached != null && cached._chain.equals(oldChain) && _chains.replace(key, cached, newCachedChain(newChain));
+        }
+
+        @Override
+        public FilterChain replace(K key, FilterChain chain)
+        {
+            return chainOf(_chains.replace(key, newCachedChain(chain)));
+        }
+
+        @Override
+        public void clear()
+        {
+            _chains.clear();
+        }
+
+        @Override
+        public Set<Entry<K, FilterChain>> entrySet()
+        {
+            return new AbstractSet<>()
+            {
+                @Override
+                public Iterator<Entry<K, FilterChain>> iterator()
+                {
+                    Iterator<Entry<K, CachedChain>> iterator = _chains.entrySet().iterator();
+                    return new Iterator<>()
+                    {
+                        @Override
+                        public boolean hasNext()
+                        {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<K, FilterChain> next()
+                        {
+                            Entry<K, CachedChain> entry = iterator.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), entry.getValue()._chain);
+                        }
+
+                        @Override
+                        public void remove()
+                        {
+                            iterator.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size()
+                {
+                    return _chains.size();
+                }
+            };
+        }
+
+        /**
+         * Cache a chain, evicting the least recently used chains if the cache is full.
+         *
+         * @return the number of chains evicted to make room for the new chain
+         */
+        int cache(K key, FilterChain chain, int maxSize)
+        {
+            int evicted = maxSize > 0 && _chains.size() >= maxSize ? evict(maxSize) : 0;
+            _chains.put(key, newCachedChain(chain));
+            return evicted;
+        }
+
+        private CachedChain newCachedChain(FilterChain chain)
+        {
+            return new CachedChain(Objects.requireNonNull(chain), _clock.incrementAndGet());
+        }
+
+        private static FilterChain chainOf(CachedChain cached)
+        {
+            return cached == null ? null : cached._chain;
+        }
+
+        private synchronized int evict(int maxSize)
+        {
+            int size = _chains.size();
+            if (size < maxSize)
+                return 0;
+            List<Map.Entry<K, CachedChain>> entries = new ArrayList<>(_chains.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue()._lastUsed));
+            int evict = Math.max(1, size / 4);
+            for (int i = 0; i < evict; i++)
+            {
+                Map.Entry<K, CachedChain> entry = entries.get(i);
+                _chains.remove(entry.getKey(), entry.getValue());
+            }
+            return evict;
+        }
+
+    }
+
+    private static class CachedChain
+    {
+        private final FilterChain _chain;
+        private volatile long _lastUsed;
+
+        private CachedChain(FilterChain chain, long lastUsed)
+        {
+            _chain = chain;
+            _lastUsed = lastUsed;
+        }
+    }
+
+    private static class ChainKey
+    {
+        private final ServletHolder _servletHolder;
+        private final BitSet _pathMatches;
+
+        private ChainKey(ServletHolder servletHolder, BitSet pathMatches)
+        {
+            _servletHolder = servletHolder;
+            _pathMatches = pathMatches;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+                return true;
+            if (!(o instanceof ChainKey))
+                return false;
+            ChainKey that = (ChainKey)o;
+            return _servletHolder == that._servletHolder && _pathMatches.equals(that._pathMatches);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(_servletHolder) + _pathMatches.hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s%s", _servletHolder.getName(), _pathMatches);
+        }
+    }
+
     static class ChainEnd implements FilterChain
     {
         private final ServletHolder _servletHolder;
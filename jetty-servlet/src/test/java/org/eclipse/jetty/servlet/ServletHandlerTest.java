@@ -22,8 +22,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
+import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -41,6 +43,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -835,6 +838,101 @@ public class ServletHandlerTest
         assertThat(connector.getResponse("GET /other.bob HTTP/1.0\r\n\r\n"), containsString("path-/*-path-*.bob-default"));
     }
 
+    @Test
+    public void testFilterChainCacheSharedByPaths() throws Exception
+    {
+        Server server = new Server();
+        ServletHandler handler = new ServletHandler();
+        handler.setMaxFilterChainsCacheSize(8);
+        server.setHandler(handler);
+
+        ServletHolder orders = new ServletHolder(new HttpServlet()
+        {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException
+            {
+                resp.getOutputStream().println("orders");
+            }
+        });
+        handler.addServletWithMapping(orders, "/orders/*");
+
+        for (final String mapping : new String[]{"/*", "/orders/*", "*.json"})
+        {
+            handler.addFilterWithMapping(new FilterHolder((TestFilter)(request, response, chain) ->
+            {
+                response.getOutputStream().print("path-" + mapping + "-");
+                chain.doFilter(request, response);
+            }), mapping, EnumSet.of(DispatcherType.REQUEST));
+        }
+
+        LocalConnector connector = new LocalConnector(server);
+        server.addConnector(connector);
+
+        server.start();
+
+        for (int id = 0; id < 32; id++)
+        {
+            assertThat(connector.getResponse("GET /orders/" + id + " HTTP/1.0\r\n\r\n"), containsString("path-/*-path-/orders/*-orders"));
+            assertThat(connector.getResponse("GET /orders/" + id + ".json HTTP/1.0\r\n\r\n"), containsString("path-/*-path-/orders/*-path-*.json-orders"));
+        }
+
+        // Only two distinct chains are needed, whatever the number of paths.
+        assertEquals(2, handler.getFilterChainCacheMisses());
+        assertEquals(62, handler.getFilterChainCacheSharedHits());
+        assertEquals(0, handler.getFilterChainCacheHits());
+
+        server.stop();
+    }
+
+    @Test
+    public void testFilterChainCacheEvictsLeastRecentlyUsed() throws Exception
+    {
+        Server server = new Server();
+        ServletHandler handler = new ServletHandler();
+        handler.setMaxFilterChainsCacheSize(8);
+        server.setHandler(handler);
+
+        ServletHolder orders = new ServletHolder(new HttpServlet()
+        {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException
+            {
+                resp.getOutputStream().println("orders");
+            }
+        });
+        handler.addServletWithMapping(orders, "/orders/*");
+        handler.addFilterWithMapping(new FilterHolder((TestFilter)(request, response, chain) ->
+        {
+            response.getOutputStream().print("filtered-");
+            chain.doFilter(request, response);
+        }), "/*", EnumSet.of(DispatcherType.REQUEST));
+
+        LocalConnector connector = new LocalConnector(server);
+        server.addConnector(connector);
+
+        server.start();
+
+        assertThat(connector.getResponse("GET /orders/hot HTTP/1.0\r\n\r\n"), containsString("filtered-orders"));
+        for (int id = 0; id < 32; id++)
+        {
+            assertThat(connector.getResponse("GET /orders/" + id + " HTTP/1.0\r\n\r\n"), containsString("filtered-orders"));
+            assertThat(connector.getResponse("GET /orders/hot HTTP/1.0\r\n\r\n"), containsString("filtered-orders"));
+        }
+
+        // The frequently requested path is never evicted by the stream of distinct paths.
+        assertEquals(32, handler.getFilterChainCacheHits());
+        assertEquals(32, handler.getFilterChainCacheSharedHits());
+        assertEquals(1, handler.getFilterChainCacheMisses());
+
+        // The cache is still visible to subclasses as a map.
+        Map<String, FilterChain> cache = handler._chainCache[FilterMapping.REQUEST];
+        assertThat(cache.size(), lessThanOrEqualTo(8));
+        assertTrue(cache.containsKey("/orders/hot"));
+        assertNotNull(cache.get("/orders/hot"));
+
+        server.stop();
+    }
+
     private interface TestFilter extends Filter
     {
         default void init(FilterConfig filterConfig) throws ServletException
@@ -20,7 +20,10 @@ package org.eclipse.jetty.servlets;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
@@ -29,6 +32,10 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.server.Response;
 import org.eclipse.jetty.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,12 +58,18 @@ import org.slf4j.LoggerFactory;
  * setDate Expires: 31540000000,
  * addDate Date: 0
  * </pre>
+ * <p>
+ * When the response is a Jetty {@link Response}, the constant headers are added from a
+ * {@link HttpFields#preEncoded(HttpFields) pre-encoded} template built once at init,
+ * so that their values are not parsed and encoded again for every response.
  *
  * @see IncludeExcludeBasedFilter
  */
 public class HeaderFilter extends IncludeExcludeBasedFilter
 {
     private List<ConfiguredHeader> _configuredHeaders = new ArrayList<>();
+    private Set<String> _templateSetNames;
+    private HttpFields _template;
     private static final Logger LOG = LoggerFactory.getLogger(HeaderFilter.class);
 
     @Override
@@ -73,6 +86,7 @@ public class HeaderFilter extends IncludeExcludeBasedFilter
                 _configuredHeaders.add(parseHeaderConfiguration(config));
             }
         }
+        _template = newTemplate();
 
         if (LOG.isDebugEnabled())
             LOG.debug(this.toString());
@@ -86,6 +100,20 @@ public class HeaderFilter extends IncludeExcludeBasedFilter
 
         if (super.shouldFilter(httpRequest, httpResponse))
         {
+            boolean fromTemplate = _template != null &&
+                response instanceof Response &&
+                request.getDispatcherType() == DispatcherType.REQUEST &&
+                !response.isCommitted();
+            if (fromTemplate)
+            {
+                HttpFields.Mutable fields = ((Response)response).getHttpFields();
+                for (String name : _templateSetNames)
+                {
+                    fields.remove(name);
+                }
+                fields.add(_template);
+            }
+
             for (ConfiguredHeader header : _configuredHeaders)
             {
                 if (header.isDate())
@@ -100,7 +128,7 @@ public class HeaderFilter extends IncludeExcludeBasedFilter
                         httpResponse.setDateHeader(header.getName(), headerValue);
                     }
                 }
-                else // constant header value
+                else if (!fromTemplate) // constant header value
                 {
                     if (header.isAdd())
                     {
@@ -131,6 +159,49 @@ public class HeaderFilter extends IncludeExcludeBasedFilter
         return sb.toString();
     }
 
+    /**
+     * Build the pre-encoded template of the constant headers, applying the set and add
+     * actions in their configured order.
+     *
+     * @return the template, or null if the constant headers must be set one by one
+     */
+    private HttpFields newTemplate()
+    {
+        HttpFields.Mutable fields = HttpFields.build();
+        Set<String> setNames = new HashSet<>();
+        Set<String> dateNames = new HashSet<>();
+        for (ConfiguredHeader header : _configuredHeaders)
+        {
+            String name = header.getName();
+            if (header.isDate())
+            {
+                dateNames.add(StringUtil.asciiToLowerCase(name));
+                continue;
+            }
+            // These headers have side effects on the Response that only its setters apply.
+            if (HttpHeader.CONTENT_TYPE.is(name) || HttpHeader.CONTENT_LENGTH.is(name))
+                return null;
+            if (header.isAdd())
+                fields.add(name, header.getValue());
+            else
+            {
+                fields.put(name, header.getValue());
+                setNames.add(name);
+            }
+        }
+
+        if (fields.size() == 0)
+            return null;
+        // A date header interleaved with a constant header of the same name must keep the configured order.
+        for (HttpField field : fields)
+        {
+            if (dateNames.contains(field.getLowerCaseName()))
+                return null;
+        }
+        _templateSetNames = setNames;
+        return HttpFields.preEncoded(fields);
+    }
+
     private ConfiguredHeader parseHeaderConfiguration(String config)
     {
         String[] configTokens = config.trim().split(" ", 2);
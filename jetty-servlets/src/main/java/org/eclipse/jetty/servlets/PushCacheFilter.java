@@ -71,6 +71,10 @@ import org.slf4j.LoggerFactory;
  * cache.</p>
  * <p>If the init param useQueryInKey is set, then the query string is used as
  * as part of the key to identify a resource</p>
+ * <p>Browsers no longer support HTTP/2 push; the
+ * {@code org.eclipse.jetty.server.handler.EarlyHintsHandler}, which sends
+ * learned preload links in {@code 103 Early Hints} responses, should be
+ * preferred.</p>
  */
 @ManagedObject("Push cache based on the HTTP 'Referer' header")
 public class PushCacheFilter implements Filter
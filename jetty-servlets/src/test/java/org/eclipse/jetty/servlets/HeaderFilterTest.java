@@ -29,7 +29,9 @@ import javax.servlet.http.HttpServletResponse;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.http.HttpTester;
+import org.eclipse.jetty.http.PreEncodedHttpField;
 import org.eclipse.jetty.server.LocalConnector;
+import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
@@ -40,6 +42,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.eclipse.jetty.http.tools.matchers.HttpFieldsMatchers.containsHeaderValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.in;
 import static org.hamcrest.Matchers.is;
 
@@ -57,6 +60,7 @@ public class HeaderFilterTest
         _server.addConnector(_connector);
         _context = new ServletContextHandler(_server, "/context");
         _context.addServlet(NullServlet.class, "/test/*");
+        _context.addServlet(PreEncodedServlet.class, "/preEncoded/*");
         _server.start();
     }
 
@@ -134,6 +138,38 @@ public class HeaderFilterTest
         assertThat(response.toString(), HttpHeader.EXPIRES.asString(), is(in(response.getFieldNamesCollection())));
     }
 
+    @Test
+    public void testHeaderFilterPreEncodedTemplate() throws Exception
+    {
+        FilterHolder holder = new FilterHolder(HeaderFilter.class);
+        holder.setInitParameter("headerConfig", "set X-Frame-Options: DENY,add X-Custom: one,add X-Custom: two,setDate Expires: 100");
+        _context.getServletHandler().addFilterWithMapping(holder, "/*", EnumSet.of(DispatcherType.REQUEST));
+
+        HttpTester.Request request = HttpTester.newRequest();
+        request.setMethod("GET");
+        request.setVersion("HTTP/1.1");
+        request.setHeader("Host", "localhost");
+        request.setURI("/context/preEncoded/0");
+
+        HttpTester.Response response = HttpTester.parseResponse(_connector.getResponse(request.generate()));
+        assertThat(response, containsHeaderValue("X-Frame-Options", "DENY"));
+        assertThat(response.getValuesList("X-Custom"), contains("one", "two"));
+        assertThat(response.get("X-Pre-Encoded"), is("true"));
+        assertThat(response.toString(), HttpHeader.EXPIRES.asString(), is(in(response.getFieldNamesCollection())));
+    }
+
+    public static class PreEncodedServlet extends HttpServlet
+    {
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException
+        {
+            // The constant headers are added from the filter template rather than set one by one.
+            boolean preEncoded = Request.getBaseRequest(req).getResponse().getHttpFields().getField("X-Frame-Options") instanceof PreEncodedHttpField;
+            resp.setHeader("X-Pre-Encoded", String.valueOf(preEncoded));
+            resp.setStatus(HttpStatus.NO_CONTENT_204);
+        }
+    }
+
     public static class NullServlet extends HttpServlet
     {
         @Override
@@ -24,6 +24,7 @@ import java.io.InputStreamReader;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -247,6 +248,66 @@ public class UrlEncoded
         }
     }
 
+    /**
+     * Decode the values of a single parameter.
+     * <p>
+     * Only the parameters whose name may be the given name are decoded, and they are
+     * decoded exactly as {@link #decodeTo(String, MultiMap, Charset)} would decode them,
+     * so looking up a few parameters of a large query does not decode the whole query.
+     * Encoding errors in the other parameters are not detected.
+     * </p>
+     *
+     * @param content the string containing the encoded parameters
+     * @param name the name of the parameter to decode
+     * @param charset the charset to use for decoding
+     * @return the decoded values of the parameter, or null if the parameter is not present
+     */
+    public static List<String> decodeValues(String content, String name, Charset charset)
+    {
+        if (charset == null)
+            charset = ENCODING;
+
+        MultiMap<String> values = null;
+        int end = content.length();
+        int start = 0;
+        while (start < end)
+        {
+            int amp = content.indexOf('&', start);
+            int pairEnd = amp < 0 ? end : amp;
+
+            // Find the end of the name and whether it needs to be decoded to be compared.
+            boolean encoded = false;
+            int nameEnd = pairEnd;
+            for (int i = start; i < pairEnd; i++)
+            {
+                char c = content.charAt(i);
+                if (c == '=')
+                {
+                    nameEnd = i;
+                    break;
+                }
+                if (c == '+' || c == '%')
+                    encoded = true;
+            }
+
+            if (encoded || (nameEnd - start == name.length() && content.regionMatches(start, name, 0, name.length())))
+            {
+                if (values == null)
+                    values = new MultiMap<>();
+                if (StandardCharsets.UTF_8.equals(charset))
+                    decodeUtf8To(content, start, pairEnd - start, values);
+                else
+                    decodeTo(content.substring(start, pairEnd), values, charset);
+                if (encoded)
+                    values.keySet().retainAll(Collections.singleton(name));
+            }
+
+            start = pairEnd + 1;
+        }
+
+        return values == null ? null : values.getValues(name);
+    }
+
     public static void decodeUtf8To(String query, MultiMap<String> map)
     {
         decodeUtf8To(query, 0, query.length(), map);
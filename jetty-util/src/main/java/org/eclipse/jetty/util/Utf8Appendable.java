@@ -19,7 +19,10 @@
 package org.eclipse.jetty.util;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +59,9 @@ public abstract class Utf8Appendable
     public static final byte[] REPLACEMENT_UTF8 = new byte[]{(byte)0xEF, (byte)0xBF, (byte)0xBD};
     private static final int UTF8_ACCEPT = 0;
     private static final int UTF8_REJECT = 12;
+    // Reads 8 bytes at a time to skip over runs of ASCII bytes, whose high bit is not set.
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final long NON_ASCII_MASK = 0x8080808080808080L;
 
     protected final Appendable _appendable;
     protected int _state = UTF8_ACCEPT;
@@ -165,8 +171,33 @@ public abstract class Utf8Appendable
     {
         try
         {
+            byte[] array = buf.hasArray() ? buf.array() : null;
+            int offset = array == null ? 0 : buf.arrayOffset();
             while (buf.remaining() > 0)
             {
+                if (_state == UTF8_ACCEPT)
+                {
+                    // Append the run of ASCII bytes at the current position, if any.
+                    int position = buf.position();
+                    int ascii;
+                    if (array != null)
+                    {
+                        ascii = asciiEnd(array, position + offset, buf.limit() + offset) - offset;
+                        if (ascii > position)
+                            appendAscii(array, position + offset, ascii - position);
+                    }
+                    else
+                    {
+                        ascii = asciiEnd(buf, position, buf.limit());
+                        for (int i = position; i < ascii; i++)
+                        {
+                            _appendable.append((char)buf.get(i));
+                        }
+                    }
+                    buf.position(ascii);
+                    if (buf.remaining() == 0)
+                        break;
+                }
                 appendByte(buf.get());
             }
         }
@@ -186,9 +217,22 @@ public abstract class Utf8Appendable
         try
         {
             int end = offset + length;
-            for (int i = offset; i < end; i++)
+            int i = offset;
+            while (i < end)
             {
-                appendByte(b[i]);
+                if (_state == UTF8_ACCEPT)
+                {
+                    // Append the run of ASCII bytes at the current index, if any.
+                    int ascii = asciiEnd(b, i, end);
+                    if (ascii > i)
+                    {
+                        appendAscii(b, i, ascii - i);
+                        i = ascii;
+                        if (i == end)
+                            break;
+                    }
+                }
+                appendByte(b[i++]);
             }
         }
         catch (IOException e)
@@ -197,6 +241,56 @@ public abstract class Utf8Appendable
         }
     }
 
+    /**
+     * @param b the bytes to scan
+     * @param index the index to start scanning from
+     * @param end the index to stop scanning at
+     * @return the index of the first non ASCII byte, or {@code end}
+     */
+    private static int asciiEnd(byte[] b, int index, int end)
+    {
+        while (index + 8 <= end && ((long)LONG_VIEW.get(b, index) & NON_ASCII_MASK) == 0)
+        {
+            index += 8;
+        }
+        while (index < end && b[index] >= 0)
+        {
+            index++;
+        }
+        return index;
+    }
+
+    private static int asciiEnd(ByteBuffer buf, int index, int end)
+    {
+        while (index + 8 <= end && (buf.getLong(index) & NON_ASCII_MASK) == 0)
+        {
+            index += 8;
+        }
+        while (index < end && buf.get(index) >= 0)
+        {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Appends bytes that are all known to be ASCII, so that they can be
+     * appended as characters without going through the UTF-8 decoder.
+     *
+     * @param b the ASCII bytes
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @throws IOException if the bytes cannot be appended
+     */
+    protected void appendAscii(byte[] b, int offset, int length) throws IOException
+    {
+        int end = offset + length;
+        for (int i = offset; i < end; i++)
+        {
+            _appendable.append((char)b[i]);
+        }
+    }
+
     public boolean append(byte[] b, int offset, int length, int maxChars)
     {
         try
@@ -18,6 +18,8 @@
 
 package org.eclipse.jetty.util;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * UTF-8 StringBuilder.
  *
@@ -59,6 +61,24 @@ public class Utf8StringBuilder extends Utf8Appendable
         _buffer.setLength(0);
     }
 
+    @Override
+    protected void appendAscii(byte[] b, int offset, int length)
+    {
+        // Long runs are copied in bulk, short ones are cheaper to append one by one.
+        if (length >= 16)
+        {
+            _buffer.append(new String(b, offset, length, StandardCharsets.ISO_8859_1));
+        }
+        else
+        {
+            int end = offset + length;
+            for (int i = offset; i < end; i++)
+            {
+                _buffer.append((char)b[i]);
+            }
+        }
+    }
+
     @Override
     public String getPartialString()
     {
@@ -307,4 +307,41 @@ public class URLEncodedTest
             UrlEncoded.decodeTo(inputString, map, charset);
         });
     }
+
+    @ParameterizedTest
+    @MethodSource("invalidTestData")
+    public void testInvalidDecodeValues(String inputString, Charset charset, Class<? extends Throwable> expectedThrowable)
+    {
+        String name = inputString.substring(0, inputString.indexOf('='));
+        assertThrows(expectedThrowable, () -> UrlEncoded.decodeValues(inputString, name, charset));
+    }
+
+    public static Stream<Arguments> decodeValuesTestData()
+    {
+        ArrayList<Arguments> data = new ArrayList<>();
+        for (Charset charset : new Charset[]{UTF_8, StandardCharsets.ISO_8859_1})
+        {
+            data.add(Arguments.of("", charset));
+            data.add(Arguments.of("a=1&b=2&a=3", charset));
+            data.add(Arguments.of("a&b=&=c&&a=", charset));
+            data.add(Arguments.of("a+b=1&a%20b=2&a=b=c&%61=4", charset));
+            data.add(Arguments.of("q=jetty+server&page=2&sort=%2Bdate&filter=a%26b&lang=fr&caf%C3%A9=%C3%A9", charset));
+            data.add(Arguments.of("name=x&name=y&other=z&", charset));
+        }
+        return data.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("decodeValuesTestData")
+    public void testDecodeValues(String query, Charset charset)
+    {
+        MultiMap<String> expected = new MultiMap<>();
+        UrlEncoded.decodeTo(query, expected, charset);
+
+        for (String name : expected.keySet())
+        {
+            assertEquals(expected.getValues(name), UrlEncoded.decodeValues(query, name, charset), name);
+        }
+        assertEquals(null, UrlEncoded.decodeValues(query, "missing", charset));
+    }
 }
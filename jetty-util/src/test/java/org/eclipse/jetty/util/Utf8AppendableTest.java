@@ -19,6 +19,7 @@
 package org.eclipse.jetty.util;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
@@ -71,6 +72,58 @@ public class Utf8AppendableTest
         assertTrue(buffer.toString().endsWith("jetty"));
     }
 
+    @ParameterizedTest
+    @MethodSource("implementations")
+    public void testAsciiRuns(Class<Utf8Appendable> impl) throws Exception
+    {
+        String source = "{\"name\":\"jetty\",\"city\":\"Z\u00fcrich\",\"emoji\":\"\uD83D\uDE00\"," +
+            "\"text\":\"\u3053\u3093\u306b\u3061\u306f the quick brown fox jumps over the lazy dog\"}";
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+
+        // Split the bytes at every index, so that ASCII runs and
+        // multi-byte sequences straddle the appended chunks.
+        for (int split = 0; split <= bytes.length; split++)
+        {
+            Utf8Appendable array = impl.getDeclaredConstructor().newInstance();
+            byte[] padded = new byte[bytes.length + 6];
+            System.arraycopy(bytes, 0, padded, 3, bytes.length);
+            array.append(padded, 3, split);
+            array.append(padded, 3 + split, bytes.length - split);
+            assertEquals(source, array.toString());
+
+            Utf8Appendable heap = impl.getDeclaredConstructor().newInstance();
+            ByteBuffer heapBuffer = ByteBuffer.wrap(padded, 3, bytes.length).slice();
+            heap.append(heapBuffer.duplicate().limit(split));
+            heap.append(heapBuffer.position(split));
+            assertEquals(0, heapBuffer.remaining());
+            assertEquals(source, heap.toString());
+
+            Utf8Appendable direct = impl.getDeclaredConstructor().newInstance();
+            ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+            direct.append(directBuffer.duplicate().limit(split));
+            direct.append(directBuffer.position(split));
+            assertEquals(0, directBuffer.remaining());
+            assertEquals(source, direct.toString());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("implementations")
+    public void testInvalidByteAfterAsciiRun(Class<Utf8Appendable> impl) throws Exception
+    {
+        byte[] bytes = "0123456789abcdefX0123".getBytes(StandardCharsets.UTF_8);
+        bytes[16] = (byte)0xFF;
+
+        for (ByteBuffer buffer : List.of(ByteBuffer.wrap(bytes), ByteBuffer.allocateDirect(bytes.length).put(bytes).flip()))
+        {
+            Utf8Appendable appendable = impl.getDeclaredConstructor().newInstance();
+            assertThrows(NotUtf8Exception.class, () -> appendable.append(buffer));
+            // The invalid byte has been consumed, as well as the ASCII bytes before it.
+            assertEquals(17, buffer.position());
+            assertEquals("0123456789abcdef\ufffd", appendable.getPartialString());
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("implementations")
     public void testUtf8WithMissingByte(Class<Utf8Appendable> impl) throws Exception
@@ -19,6 +19,7 @@
 package org.eclipse.jetty.websocket.core.client;
 
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,12 +27,15 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.HttpConversation;
 import org.eclipse.jetty.client.HttpRequest;
+import org.eclipse.jetty.client.HttpRequestException;
 import org.eclipse.jetty.client.HttpResponse;
 import org.eclipse.jetty.client.HttpUpgrader;
 import org.eclipse.jetty.client.api.Request;
@@ -82,6 +86,7 @@ public abstract class CoreClientUpgradeRequest extends HttpRequest implements Re
     private final Configuration.ConfigurationCustomizer customizer = new Configuration.ConfigurationCustomizer();
     private final List<UpgradeListener> upgradeListeners = new ArrayList<>();
     private List<ExtensionConfig> requestedExtensions = new ArrayList<>();
+    private boolean fallbackToHTTP1;
 
     public CoreClientUpgradeRequest(WebSocketCoreClient webSocketClient, URI requestURI)
     {
@@ -203,6 +208,33 @@ public abstract class CoreClientUpgradeRequest extends HttpRequest implements Re
         return futureCoreSession;
     }
 
+    /**
+     * Attempts the upgrade over HTTP/2, and retries it once over HTTP/1.1 if the
+     * HTTP/2 attempt fails before any response is received, for example because
+     * the server does not enable the extended CONNECT protocol or does not speak HTTP/2.
+     */
+    void upgradeOverHTTP2WithFallback()
+    {
+        version(HttpVersion.HTTP_2);
+        fallbackToHTTP1 = true;
+    }
+
+    private boolean retryOverHTTP1(Result result)
+    {
+        if (!fallbackToHTTP1 || result.getResponse().getStatus() != 0 || getAbortCause() != null || futureCoreSession.isDone())
+            return false;
+        // The server could not be reached at all, HTTP/1.1 would not do better.
+        Throwable failure = result.getFailure();
+        if (failure instanceof ConnectException || failure instanceof TimeoutException)
+            return false;
+
+        wsClient.setExtendedConnectSupported(getURI(), false);
+        if (LOG.isDebugEnabled())
+            LOG.debug("Retrying upgrade over HTTP/1.1 {}", getURI(), failure);
+        new RetryOverHTTP1(this).sendAsync();
+        return true;
+    }
+
     @SuppressWarnings("Duplicates")
     @Override
     public void onComplete(Result result)
@@ -229,7 +261,17 @@ public abstract class CoreClientUpgradeRequest extends HttpRequest implements Re
                     LOG.debug("Response Failure", result.getResponseFailure());
             }
 
+            if (retryOverHTTP1(result))
+                return;
+
             Throwable failure = result.getFailure();
+            if (getVersion() == HttpVersion.HTTP_2 && responseStatusCode == 0 && result.getRequestFailure() instanceof HttpRequestException)
+            {
+                // The HTTP/2 transport rejects an extended CONNECT that the server has not enabled.
+                wsClient.setExtendedConnectSupported(requestURI, false);
+                failure = new UpgradeException(requestURI, responseStatusCode, failure.getMessage(), failure);
+            }
+
             boolean wrapFailure = !(failure instanceof IOException) && !(failure instanceof UpgradeException);
             if (wrapFailure)
                 failure = new UpgradeException(requestURI, responseStatusCode, responseLine, failure);
@@ -261,6 +303,11 @@ public abstract class CoreClientUpgradeRequest extends HttpRequest implements Re
         }
     }
 
+    void extendedConnectSupported()
+    {
+        wsClient.setExtendedConnectSupported(getURI(), true);
+    }
+
     @Override
     public HttpUpgrader newHttpUpgrader(HttpVersion version)
     {
@@ -460,4 +507,59 @@ public abstract class CoreClientUpgradeRequest extends HttpRequest implements Re
             futureCoreSession.completeExceptionally(t);
         }
     }
+
+    /**
+     * A copy of an upgrade request that failed over HTTP/2, sent again over HTTP/1.1.
+     * The upgrade, or its failure, is handled by the original request, so that its
+     * future, frame handler and listeners see a single handshake.
+     */
+    private static class RetryOverHTTP1 extends CoreClientUpgradeRequest
+    {
+        private final CoreClientUpgradeRequest request;
+
+        private RetryOverHTTP1(CoreClientUpgradeRequest request)
+        {
+            super(request.wsClient, request.getURI());
+            this.request = request;
+            version(HttpVersion.HTTP_1_1);
+            timeout(request.getTimeout(), TimeUnit.MILLISECONDS);
+            idleTimeout(request.getIdleTimeout(), TimeUnit.MILLISECONDS);
+            request.getAttributes().forEach(this::attribute);
+            request.getCookies().forEach(this::cookie);
+            request.getRequestListeners(Request.Listener.class).forEach(this::listener);
+            // The extensions and cookies headers are generated again from the request.
+            headers(headers ->
+            {
+                for (HttpField field : request.getHeaders())
+                {
+                    if (field.getHeader() != HttpHeader.SEC_WEBSOCKET_EXTENSIONS && field.getHeader() != HttpHeader.COOKIE)
+                        headers.add(field);
+                }
+            });
+            setExtensions(request.getExtensions());
+            request.futureCoreSession.whenComplete((session, failure) ->
+            {
+                if (failure != null)
+                    abort(failure);
+            });
+        }
+
+        @Override
+        public FrameHandler getFrameHandler()
+        {
+            return request.frameHandler;
+        }
+
+        @Override
+        public void upgrade(HttpResponse response, EndPoint endPoint)
+        {
+            request.upgrade(response, endPoint);
+        }
+
+        @Override
+        protected void handleException(Throwable failure)
+        {
+            request.handleException(failure);
+        }
+    }
 }
@@ -55,6 +55,7 @@ public class HttpUpgraderOverHTTP2 implements HttpUpgrader
         try
         {
             clientUpgradeRequest.upgrade(response, endPoint);
+            clientUpgradeRequest.extendedConnectSupported();
             callback.succeeded();
         }
         catch (Throwable x)
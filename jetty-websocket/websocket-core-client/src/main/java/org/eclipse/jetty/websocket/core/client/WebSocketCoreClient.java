@@ -20,11 +20,22 @@ package org.eclipse.jetty.websocket.core.client;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.jetty.client.ConnectionPool;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpClientTransport;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.Origin;
+import org.eclipse.jetty.client.RoundRobinConnectionPool;
 import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.dynamic.HttpClientTransportDynamic;
+import org.eclipse.jetty.http.HttpVersion;
+import org.eclipse.jetty.io.ClientConnectionFactory;
 import org.eclipse.jetty.util.DecoratedObjectFactory;
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
 import org.eclipse.jetty.websocket.core.CoreSession;
@@ -42,6 +53,10 @@ public class WebSocketCoreClient extends ContainerLifeCycle
     private static final Logger LOG = LoggerFactory.getLogger(WebSocketCoreClient.class);
     private final HttpClient httpClient;
     private final WebSocketComponents components;
+    private final Map<Origin, Boolean> extendedConnectOrigins = new ConcurrentHashMap<>();
+    private boolean preferHTTP2 = true;
+    private int http2ConnectionsPerOrigin = 1;
+    private ConnectionPool.Factory connectionPoolFactory;
 
     // TODO: Things to consider for inclusion in this class (or removal if they can be set elsewhere, like HttpClient)
     // - AsyncWrite Idle Timeout
@@ -95,12 +110,151 @@ public class WebSocketCoreClient extends ContainerLifeCycle
             request.listener(l);
         }
 
+        // Use the extended CONNECT of RFC 8441 when the transport can speak HTTP/2,
+        // unless this origin already told us that it does not support it.
+        if (!request.isVersionExplicit() && isPreferHTTP2() && isHTTP2Transport(request.getURI()))
+        {
+            if (Boolean.FALSE.equals(extendedConnectOrigins.get(toOrigin(request.getURI()))))
+                request.version(HttpVersion.HTTP_1_1);
+            else if (isHTTP1Transport(request.getURI()))
+                request.upgradeOverHTTP2WithFallback();
+            else
+                request.version(HttpVersion.HTTP_2);
+        }
+
         if (LOG.isDebugEnabled())
             LOG.debug("connect to websocket {}", request.getURI());
 
         return request.sendAsync();
     }
 
+    @Override
+    protected void doStart() throws Exception
+    {
+        // Only configure the transport of a HttpClient whose lifecycle is managed by this client.
+        if (http2ConnectionsPerOrigin > 1 && isManaged(httpClient))
+        {
+            HttpClientTransport transport = httpClient.getTransport();
+            ConnectionPool.Factory factory = transport.getConnectionPoolFactory();
+            int connections = http2ConnectionsPerOrigin;
+            transport.setConnectionPoolFactory(destination -> isHTTP2Destination(destination)
+                ? new RoundRobinConnectionPool(destination, connections, destination)
+                : factory.newConnectionPool(destination));
+            connectionPoolFactory = factory;
+        }
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception
+    {
+        super.doStop();
+        if (connectionPoolFactory != null)
+        {
+            httpClient.getTransport().setConnectionPoolFactory(connectionPoolFactory);
+            connectionPoolFactory = null;
+        }
+    }
+
+    /**
+     * @return whether WebSocket connections are attempted over HTTP/2 when the {@link HttpClient} transport supports it
+     */
+    public boolean isPreferHTTP2()
+    {
+        return preferHTTP2;
+    }
+
+    /**
+     * <p>Sets whether WebSocket connections are attempted over HTTP/2 (RFC 8441) when the
+     * {@link HttpClient} transport is a {@link HttpClientTransportDynamic} that can speak HTTP/2.</p>
+     * <p>If the attempt over HTTP/2 fails before any response is received, because the server does not
+     * speak HTTP/2 or does not enable the extended CONNECT protocol, the upgrade is retried once over HTTP/1.1,
+     * provided that the transport can also speak HTTP/1.1.
+     * Such origins are remembered, and subsequent connections to them use HTTP/1.1 directly.
+     * Defaults to {@code true}.</p>
+     *
+     * @param preferHTTP2 whether to prefer HTTP/2 for WebSocket connections
+     */
+    public void setPreferHTTP2(boolean preferHTTP2)
+    {
+        this.preferHTTP2 = preferHTTP2;
+    }
+
+    /**
+     * @return the number of HTTP/2 connections per origin that WebSocket sessions are balanced across
+     */
+    public int getHTTP2ConnectionsPerOrigin()
+    {
+        return http2ConnectionsPerOrigin;
+    }
+
+    /**
+     * <p>Sets the number of HTTP/2 connections per origin that WebSocket sessions are balanced across
+     * in round-robin fashion, rather than filling up one connection before opening the next.</p>
+     * <p>Must be set before this client is started; a value of 1 keeps the transport's default pool.
+     * Only applies to a {@link HttpClient} whose lifecycle is managed by this client; the connection pool
+     * of a shared {@link HttpClient} must be configured on its transport.</p>
+     *
+     * @param http2ConnectionsPerOrigin the number of HTTP/2 connections per origin
+     */
+    public void setHTTP2ConnectionsPerOrigin(int http2ConnectionsPerOrigin)
+    {
+        if (isStarted())
+            throw new IllegalStateException(getState());
+        if (http2ConnectionsPerOrigin < 1)
+            throw new IllegalArgumentException("Invalid HTTP/2 connections per origin: " + http2ConnectionsPerOrigin);
+        this.http2ConnectionsPerOrigin = http2ConnectionsPerOrigin;
+    }
+
+    /**
+     * @param uri the WebSocket URI
+     * @return {@code true} or {@code false} if the origin of the URI is known to support or not the
+     * extended CONNECT protocol over HTTP/2, or {@code null} if it is not known yet
+     */
+    public Boolean isExtendedConnectSupported(URI uri)
+    {
+        return extendedConnectOrigins.get(toOrigin(uri));
+    }
+
+    void setExtendedConnectSupported(URI uri, boolean supported)
+    {
+        Boolean previous = extendedConnectOrigins.put(toOrigin(uri), supported);
+        if (LOG.isDebugEnabled() && !Boolean.valueOf(supported).equals(previous))
+            LOG.debug("Extended CONNECT {} by {}", supported ? "supported" : "not supported", uri);
+    }
+
+    private static Origin toOrigin(URI uri)
+    {
+        String scheme = uri.getScheme().toLowerCase(Locale.ENGLISH);
+        return new Origin(scheme, uri.getHost().toLowerCase(Locale.ENGLISH), HttpClient.normalizePort(scheme, uri.getPort()));
+    }
+
+    private boolean isHTTP2Transport(URI uri)
+    {
+        boolean secure = HttpClient.isSchemeSecure(uri.getScheme());
+        return isTransportProtocol(secure, secure ? "h2" : "h2c");
+    }
+
+    private boolean isHTTP1Transport(URI uri)
+    {
+        return isTransportProtocol(HttpClient.isSchemeSecure(uri.getScheme()), "http/1.1");
+    }
+
+    private boolean isTransportProtocol(boolean secure, String protocol)
+    {
+        HttpClientTransport transport = httpClient.getTransport();
+        if (!(transport instanceof HttpClientTransportDynamic))
+            return false;
+        return ((HttpClientTransportDynamic)transport).getBeans(ClientConnectionFactory.Info.class).stream()
+            .anyMatch(info -> info.getProtocols(secure).contains(protocol));
+    }
+
+    private static boolean isHTTP2Destination(HttpDestination destination)
+    {
+        Origin.Protocol protocol = destination.getOrigin().getProtocol();
+        return protocol != null && (protocol.getProtocols().contains("h2") || protocol.getProtocols().contains("h2c"));
+    }
+
     public WebSocketExtensionRegistry getExtensionRegistry()
     {
         return components.getExtensionRegistry();
@@ -0,0 +1,114 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+package org.eclipse.jetty.websocket.core;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.CountingCallback;
+import org.eclipse.jetty.websocket.core.internal.PreEncodedFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>Sends the same message to many {@link CoreSession}s.</p>
+ * <p>The message is encoded only once for each distinct configuration of the sessions,
+ * that is their negotiated extensions, maximum frame size and auto fragmentation.
+ * The generated bytes are shared read-only by all the sessions with that configuration and
+ * written as they are, so the cost of compressing and framing a message does not grow with
+ * the number of sessions.</p>
+ * <p>Client sessions, which must mask each frame with their own key, and sessions with
+ * extensions that cannot be applied ahead of time are sent a copy of the frame as if by
+ * {@link CoreSession#sendFrame(Frame, Callback, boolean)}.</p>
+ */
+public class Broadcaster
+{
+    private static final Logger LOG = LoggerFactory.getLogger(Broadcaster.class);
+
+    private Broadcaster()
+    {
+    }
+
+    /**
+     * Send a whole message to the sessions.
+     *
+     * @param frame a whole {@link OpCode#TEXT} or {@link OpCode#BINARY} message frame, not modified by this method
+     * @param sessions the sessions to send the message to, which must not change during this call
+     * @param callback succeeded when the message has been sent to all the sessions, or failed with the first failure
+     * @return the number of times the message was encoded to be shared by sessions
+     */
+    public static int broadcast(Frame frame, Collection<? extends CoreSession> sessions, Callback callback)
+    {
+        byte opCode = frame.getOpCode();
+        if ((opCode != OpCode.TEXT && opCode != OpCode.BINARY) || !frame.isFin() || frame.isRsv1() || frame.isRsv2() || frame.isRsv3())
+        {
+            callback.failed(new IllegalArgumentException("Cannot broadcast " + frame));
+            return 0;
+        }
+
+        int size = sessions.size();
+        if (size == 0)
+        {
+            callback.succeeded();
+            return 0;
+        }
+
+        Callback counting = new CountingCallback(callback, size);
+        Map<String, PreEncodedFrame> encodings = new HashMap<>();
+        int encoded = 0;
+        for (CoreSession session : sessions)
+        {
+            Frame send = null;
+            String key = PreEncodedFrame.getEncodingKey(session);
+            if (key != null)
+            {
+                send = encodings.get(key);
+                if (send == null && !encodings.containsKey(key))
+                {
+                    PreEncodedFrame encoding = null;
+                    try
+                    {
+                        encoding = PreEncodedFrame.encode(frame, session);
+                        encoded++;
+                        if (LOG.isDebugEnabled())
+                            LOG.debug("Encoded {} for {}", encoding, key);
+                    }
+                    catch (Throwable x)
+                    {
+                        if (LOG.isDebugEnabled())
+                            LOG.debug("Unable to encode {} for {}", frame, key, x);
+                    }
+                    encodings.put(key, encoding);
+                    send = encoding;
+                }
+            }
+
+            if (send == null)
+            {
+                ByteBuffer payload = frame.getPayload();
+                send = new Frame(opCode, true, payload == null ? null : payload.slice());
+            }
+
+            session.sendFrame(send, counting, false);
+        }
+        return encoded;
+    }
+}
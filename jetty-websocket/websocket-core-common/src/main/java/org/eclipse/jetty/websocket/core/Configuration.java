@@ -96,6 +96,41 @@ public interface Configuration
      */
     void setMaxOutgoingFrames(int maxOutgoingFrames);
 
+    /**
+     * Get the number of bytes of small data frames to batch together before writing them,
+     * even when the sender did not request batching. The default value is 0, this indicates
+     * that frames are only batched when requested by the sender.
+     *
+     * @return the auto batch size in bytes.
+     */
+    int getAutoBatchSize();
+
+    /**
+     * Set the number of bytes of small data frames to batch together before writing them,
+     * even when the sender did not request batching. A batch is written once it holds this
+     * many bytes, or when there are no more frames to send and the auto batch delay has expired.
+     * This reduces the number of writes when sending many small frames.
+     *
+     * @param autoBatchSize the auto batch size in bytes, or 0 to disable auto batching.
+     */
+    void setAutoBatchSize(int autoBatchSize);
+
+    /**
+     * Get how long automatically batched frames may wait for more frames once there are no more frames to send.
+     *
+     * @return the auto batch delay.
+     */
+    Duration getAutoBatchDelay();
+
+    /**
+     * Set how long automatically batched frames may wait for more frames once there are no more frames to send.
+     * The default value is zero, this writes the batch as soon as there are no more frames to send.
+     * Frames held for a delay have their callbacks succeeded before they are written.
+     *
+     * @param delay the auto batch delay.
+     */
+    void setAutoBatchDelay(Duration delay);
+
     interface Customizer
     {
         void customize(Configuration configurable);
@@ -112,6 +147,8 @@ public interface Configuration
         private Long maxBinaryMessageSize;
         private Long maxTextMessageSize;
         private Integer maxOutgoingFrames;
+        private Integer autoBatchSize;
+        private Duration autoBatchDelay;
 
         @Override
         public Duration getIdleTimeout()
@@ -221,6 +258,30 @@ public interface Configuration
             this.maxOutgoingFrames = maxOutgoingFrames;
         }
 
+        @Override
+        public int getAutoBatchSize()
+        {
+            return autoBatchSize == null ? WebSocketConstants.DEFAULT_AUTO_BATCH_SIZE : autoBatchSize;
+        }
+
+        @Override
+        public void setAutoBatchSize(int autoBatchSize)
+        {
+            this.autoBatchSize = autoBatchSize;
+        }
+
+        @Override
+        public Duration getAutoBatchDelay()
+        {
+            return autoBatchDelay == null ? WebSocketConstants.DEFAULT_AUTO_BATCH_DELAY : autoBatchDelay;
+        }
+
+        @Override
+        public void setAutoBatchDelay(Duration delay)
+        {
+            this.autoBatchDelay = delay;
+        }
+
         @Override
         public void customize(Configuration configurable)
         {
@@ -242,6 +303,10 @@ public interface Configuration
                 configurable.setMaxTextMessageSize(maxTextMessageSize);
             if (maxOutgoingFrames != null)
                 configurable.setMaxOutgoingFrames(maxOutgoingFrames);
+            if (autoBatchSize != null)
+                configurable.setAutoBatchSize(autoBatchSize);
+            if (autoBatchDelay != null)
+                configurable.setAutoBatchDelay(autoBatchDelay);
         }
     }
 }
@@ -18,6 +18,7 @@
 
 package org.eclipse.jetty.websocket.core;
 
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.Deflater;
 
 import org.eclipse.jetty.io.ByteBufferPool;
@@ -39,6 +40,8 @@ public class WebSocketComponents extends ContainerLifeCycle
     private final ByteBufferPool bufferPool;
     private final InflaterPool inflaterPool;
     private final DeflaterPool deflaterPool;
+    private final AtomicLong compressionMemory = new AtomicLong();
+    private long maxCompressionMemory = -1;
 
     public WebSocketComponents()
     {
@@ -82,4 +85,53 @@ public class WebSocketComponents extends ContainerLifeCycle
     {
         return deflaterPool;
     }
+
+    /**
+     * @return the estimated native memory, in bytes, of the deflaters and inflaters currently held by sessions
+     */
+    public long getCompressionMemory()
+    {
+        return compressionMemory.get();
+    }
+
+    /**
+     * @return the budget of native memory, in bytes, for the deflaters and inflaters held by sessions, or -1 if unlimited
+     */
+    public long getMaxCompressionMemory()
+    {
+        return maxCompressionMemory;
+    }
+
+    /**
+     * <p>Sets the budget of native memory, in bytes, for the deflaters and inflaters held by sessions.</p>
+     * <p>With context takeover a session holds its compressors for the lifetime of the connection.
+     * Once the budget is used, server sessions negotiate {@code server_no_context_takeover} and
+     * {@code client_no_context_takeover} so that their compressors are only held while a message
+     * is being compressed or decompressed.</p>
+     *
+     * @param maxCompressionMemory the budget in bytes, or -1 for unlimited
+     */
+    public void setMaxCompressionMemory(long maxCompressionMemory)
+    {
+        this.maxCompressionMemory = maxCompressionMemory;
+    }
+
+    /**
+     * @return whether the budget set with {@link #setMaxCompressionMemory(long)} is used
+     */
+    public boolean isCompressionMemoryExhausted()
+    {
+        long max = maxCompressionMemory;
+        return max >= 0 && compressionMemory.get() >= max;
+    }
+
+    /**
+     * Accounts native memory acquired or, if negative, released by a compressor.
+     *
+     * @param delta the change in bytes
+     */
+    public void updateCompressionMemory(long delta)
+    {
+        compressionMemory.addAndGet(delta);
+    }
 }
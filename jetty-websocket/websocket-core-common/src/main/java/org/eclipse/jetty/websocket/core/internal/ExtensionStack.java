@@ -18,6 +18,7 @@
 
 package org.eclipse.jetty.websocket.core.internal;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -27,6 +28,7 @@ import java.util.stream.Collectors;
 
 import org.eclipse.jetty.http.BadMessageException;
 import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.IO;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.component.Dumpable;
@@ -258,6 +260,20 @@ public class ExtensionStack implements IncomingFrames, OutgoingFrames, Dumpable
         }
     }
 
+    /**
+     * Closes the extensions that hold resources for the lifetime of the connection.
+     */
+    public void close()
+    {
+        if (extensions == null)
+            return;
+        for (Extension extension : extensions)
+        {
+            if (extension instanceof Closeable)
+                IO.close((Closeable)extension);
+        }
+    }
+
     public Extension getRsv1User()
     {
         return rsvClaims[0];
@@ -29,7 +29,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Used to split large data frames into multiple frames below the maxFrameSize.
- * Control frames and dataFrames smaller than the maxFrameSize will be forwarded
+ * Control frames, {@link PreEncodedFrame}s and dataFrames smaller than the maxFrameSize will be forwarded
  * directly to {@link #forwardFrame(Frame, Callback, boolean)}.
  */
 public abstract class FragmentingFlusher extends TransformingFlusher
@@ -50,7 +50,7 @@ public abstract class FragmentingFlusher extends TransformingFlusher
     protected boolean onFrame(Frame frame, Callback callback, boolean batch)
     {
         long maxFrameSize = configuration.getMaxFrameSize();
-        if (frame.isControlFrame() || maxFrameSize <= 0 || frame.getPayloadLength() <= maxFrameSize)
+        if (frame.isControlFrame() || frame instanceof PreEncodedFrame || maxFrameSize <= 0 || frame.getPayloadLength() <= maxFrameSize)
         {
             forwardFrame(frame, callback, batch);
             return true;
@@ -73,6 +73,9 @@ public class FrameFlusher extends IteratingCallback
     private Throwable closedCause;
     private long idleTimeout;
     private boolean useDirectByteBuffers;
+    private int autoBatchSize;
+    private long autoBatchDelay;
+    private boolean autoFlushScheduled;
 
     public FrameFlusher(ByteBufferPool bufferPool, Scheduler scheduler, Generator generator, EndPoint endPoint, int bufferSize, int maxGather)
     {
@@ -227,9 +230,20 @@ public class FrameFlusher extends IteratingCallback
 
                 messagesOut.increment();
 
-                int batchSpace = batchBuffer == null ? bufferSize : BufferUtil.space(batchBuffer);
+                if (entry.frame instanceof PreEncodedFrame)
+                {
+                    // Write the shared encoded bytes after anything already batched,
+                    // and stop so that later frames cannot be batched before them.
+                    buffers.add(((PreEncodedFrame)entry.frame).getEncoded());
+                    flush = true;
+                    flushed = true;
+                    break;
+                }
 
-                boolean batch = entry.batch &&
+                // Only generate into the batchBuffer if nothing has been added to be written after it.
+                int batchSpace = !isBatchBufferAppendable() ? 0 : batchBuffer == null ? bufferSize : BufferUtil.space(batchBuffer);
+
+                boolean batch = (entry.batch || autoBatchSize > 0 && entry.frame.isDataFrame()) &&
                     !entry.frame.isControlFrame() &&
                     entry.frame.getPayloadLength() < bufferSize / 4 &&
                     (batchSpace - Generator.MAX_HEADER_LENGTH) >= entry.frame.getPayloadLength();
@@ -238,19 +252,22 @@ public class FrameFlusher extends IteratingCallback
                 {
                     // Acquire a batchBuffer if we don't have one.
                     if (batchBuffer == null)
-                    {
                         batchBuffer = acquireBuffer(bufferSize);
-                        buffers.add(batchBuffer);
-                    }
+                    addBatchBuffer();
 
                     // Generate the frame into the batchBuffer.
                     generator.generateWholeFrame(entry.frame, batchBuffer);
+
+                    // Write the automatically batched frames once there are enough of them.
+                    if (autoBatchSize > 0 && batchBuffer.remaining() >= autoBatchSize)
+                        flush = true;
                 }
                 else
                 {
                     if (batchBuffer != null && batchSpace >= Generator.MAX_HEADER_LENGTH)
                     {
                         // Use the batch space for our header.
+                        addBatchBuffer();
                         generator.generateHeader(entry.frame, batchBuffer);
                     }
                     else
@@ -281,6 +298,22 @@ public class FrameFlusher extends IteratingCallback
                 flushed = flush;
             }
 
+            // Write the automatically batched frames when there are no more frames to send,
+            // either now or after the auto batch delay to give more frames a chance to be batched.
+            if (!flush && autoBatchSize > 0 && queue.isEmpty() && BufferUtil.hasContent(batchBuffer))
+            {
+                if (autoBatchDelay <= 0)
+                {
+                    flush = true;
+                    flushed = true;
+                }
+                else if (!autoFlushScheduled)
+                {
+                    autoFlushScheduled = true;
+                    timeoutScheduler.schedule(this::autoFlush, autoBatchDelay, TimeUnit.NANOSECONDS);
+                }
+            }
+
             // If we are going to flush we should release any buffers we have allocated after the callback completes.
             if (flush)
             {
@@ -343,6 +376,33 @@ public class FrameFlusher extends IteratingCallback
         return Action.SCHEDULED;
     }
 
+    private boolean isBatchBufferAppendable()
+    {
+        if (batchBuffer == null)
+            return true;
+        if (buffers.isEmpty())
+            return BufferUtil.isEmpty(batchBuffer);
+        return buffers.get(buffers.size() - 1) == batchBuffer;
+    }
+
+    private void addBatchBuffer()
+    {
+        // The batchBuffer is reused after being written, so it may need to be added again.
+        if (buffers.isEmpty() || buffers.get(buffers.size() - 1) != batchBuffer)
+            buffers.add(batchBuffer);
+    }
+
+    private void autoFlush()
+    {
+        try (AutoLock l = lock.lock())
+        {
+            autoFlushScheduled = false;
+        }
+
+        if (enqueue(FLUSH_FRAME, Callback.NOOP, false))
+            iterate();
+    }
+
     private ByteBuffer acquireBuffer(int capacity)
     {
         return bufferPool.acquire(capacity, isUseDirectByteBuffers());
@@ -490,6 +550,46 @@ public class FrameFlusher extends IteratingCallback
         return idleTimeout;
     }
 
+    /**
+     * @return the number of bytes of automatically batched data frames to aggregate before writing them,
+     * or 0 if data frames are only batched when requested by the sender
+     */
+    public int getAutoBatchSize()
+    {
+        return autoBatchSize;
+    }
+
+    /**
+     * Set the number of bytes of data frames to aggregate before writing them. When greater than 0,
+     * small data frames are batched even when the sender did not request batching, and the batch
+     * is written once it holds this many bytes or when there are no more frames to send.
+     *
+     * @param autoBatchSize the number of bytes to aggregate, or 0 to disable automatic batching
+     */
+    public void setAutoBatchSize(int autoBatchSize)
+    {
+        this.autoBatchSize = autoBatchSize;
+    }
+
+    /**
+     * @return the delay in nanoseconds to wait for more frames before writing automatically batched frames
+     */
+    public long getAutoBatchDelay()
+    {
+        return autoBatchDelay;
+    }
+
+    /**
+     * Set how long automatically batched frames may wait for more frames to send before they are written.
+     * With a delay of 0 the batch is written as soon as there are no more frames to send.
+     *
+     * @param autoBatchDelay the delay in nanoseconds
+     */
+    public void setAutoBatchDelay(long autoBatchDelay)
+    {
+        this.autoBatchDelay = autoBatchDelay;
+    }
+
     public long getMessagesOut()
     {
         return messagesOut.longValue();
@@ -20,6 +20,7 @@ package org.eclipse.jetty.websocket.core.internal;
 
 import java.io.Closeable;
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.util.BufferUtil;
@@ -36,6 +37,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Parsing of a frames in WebSocket land.
+ * <p>
+ * The {@link ParsedFrame}s returned by {@link #parse(ByteBuffer)} are recycled once they are
+ * {@link ParsedFrame#close() closed}, so they must not be used after that.
  */
 public class Parser
 {
@@ -53,12 +57,14 @@ public class Parser
     private static final Logger LOG = LoggerFactory.getLogger(Parser.class);
     private final ByteBufferPool bufferPool;
     private final Configuration configuration;
+    private final AtomicReference<ParsedFrame> recycled = new AtomicReference<>();
 
     // State specific
     private State state = State.START;
     private byte firstByte;
     private int cursor;
-    private byte[] mask;
+    private boolean masked;
+    private final byte[] mask = new byte[4];
     private int payloadLength;
     private ByteBuffer aggregate;
 
@@ -77,7 +83,7 @@ public class Parser
     {
         state = State.START;
         firstByte = 0;
-        mask = null;
+        masked = false;
         cursor = 0;
         aggregate = null;
         payloadLength = -1;
@@ -114,8 +120,7 @@ public class Parser
                     {
                         byte b = buffer.get();
 
-                        if ((b & 0x80) != 0)
-                            mask = new byte[4];
+                        masked = (b & 0x80) != 0;
 
                         payloadLength = (byte)(0x7F & b);
 
@@ -133,14 +138,14 @@ public class Parser
                             state = State.PAYLOAD_LEN_BYTES;
                             cursor = 2;
                         }
-                        else if (mask != null)
+                        else if (masked)
                         {
                             state = State.MASK;
                         }
                         else if (payloadLength == 0)
                         {
                             state = State.START;
-                            return newFrame(firstByte, mask, null, false);
+                            return newFrame(firstByte, getMask(), null, false);
                         }
                         else
                         {
@@ -156,14 +161,14 @@ public class Parser
                         payloadLength |= (b & 0xFF) << (8 * cursor);
                         if (cursor == 0)
                         {
-                            if (mask != null)
+                            if (masked)
                             {
                                 state = State.MASK;
                             }
                             else if (payloadLength == 0)
                             {
                                 state = State.START;
-                                return newFrame(firstByte, mask, null, false);
+                                return newFrame(firstByte, getMask(), null, false);
                             }
                             else
                             {
@@ -181,7 +186,7 @@ public class Parser
                             if (payloadLength == 0)
                             {
                                 state = State.START;
-                                return newFrame(firstByte, mask, null, false);
+                                return newFrame(firstByte, getMask(), null, false);
                             }
                             state = State.PAYLOAD;
                         }
@@ -203,7 +208,7 @@ public class Parser
                             if (payloadLength == 0)
                             {
                                 state = State.START;
-                                return newFrame(firstByte, mask, null, false);
+                                return newFrame(firstByte, getMask(), null, false);
                             }
                             state = State.PAYLOAD;
                         }
@@ -268,6 +273,11 @@ public class Parser
         }
     }
 
+    private byte[] getMask()
+    {
+        return masked ? mask : null;
+    }
+
     protected ParsedFrame newFrame(byte firstByte, byte[] mask, ByteBuffer payload, boolean releaseable)
     {
         // Validate OpCode
@@ -280,30 +290,35 @@ public class Parser
         if (OpCode.isControlFrame(opcode) && !fin)
             throw new ProtocolException("Fragmented Control Frame [" + OpCode.name(opcode) + "]");
 
-        return new ParsedFrame(firstByte, mask, payload, releaseable);
+        ParsedFrame frame = recycled.getAndSet(null);
+        if (frame == null)
+            frame = new ParsedFrame();
+        frame.init(firstByte, mask, payload, releaseable);
+        return frame;
     }
 
     private ParsedFrame autoFragment(ByteBuffer buffer, int fragmentSize)
     {
         payloadLength -= fragmentSize;
 
-        byte[] nextMask = null;
-        if (mask != null)
-        {
-            int shift = fragmentSize % 4;
-            nextMask = new byte[4];
-            nextMask[0] = mask[(0 + shift) % 4];
-            nextMask[1] = mask[(1 + shift) % 4];
-            nextMask[2] = mask[(2 + shift) % 4];
-            nextMask[3] = mask[(3 + shift) % 4];
-        }
-
         ByteBuffer content = buffer.slice();
         content.limit(fragmentSize);
         buffer.position(buffer.position() + fragmentSize);
 
-        final ParsedFrame frame = newFrame((byte)(firstByte & 0x7F), mask, content, false);
-        mask = nextMask;
+        // The frame copies the mask, so it can be rotated in place for the next fragment.
+        final ParsedFrame frame = newFrame((byte)(firstByte & 0x7F), getMask(), content, false);
+        if (masked)
+        {
+            int shift = fragmentSize % 4;
+            byte m0 = mask[0];
+            byte m1 = mask[1];
+            byte m2 = mask[2];
+            byte m3 = mask[3];
+            mask[(4 - shift) % 4] = m0;
+            mask[(5 - shift) % 4] = m1;
+            mask[(6 - shift) % 4] = m2;
+            mask[(7 - shift) % 4] = m3;
+        }
         firstByte = (byte)((firstByte & 0x80) | OpCode.CONTINUATION);
         state = State.FRAGMENT;
         return frame;
@@ -343,7 +358,7 @@ public class Parser
             if (available == payloadLength)
             {
                 // All the available data is for this frame and completes it 
-                ParsedFrame frame = newFrame(firstByte, mask, buffer.slice(), false);
+                ParsedFrame frame = newFrame(firstByte, getMask(), buffer.slice(), false);
                 buffer.position(buffer.limit());
                 state = State.START;
                 return frame;
@@ -354,7 +369,7 @@ public class Parser
             int limit = buffer.limit();
             int end = buffer.position() + payloadLength;
             buffer.limit(end);
-            final ParsedFrame frame = newFrame(firstByte, mask, buffer.slice(), false);
+            final ParsedFrame frame = newFrame(firstByte, getMask(), buffer.slice(), false);
             buffer.position(end);
             buffer.limit(limit);
             state = State.START;
@@ -377,7 +392,7 @@ public class Parser
                 // All the available data is for this frame and completes it
                 BufferUtil.append(aggregate, buffer);
                 state = State.START;
-                return newFrame(firstByte, mask, aggregate, true);
+                return newFrame(firstByte, getMask(), aggregate, true);
             }
 
             // The buffer contains data for this frame and subsequent frames
@@ -387,7 +402,7 @@ public class Parser
             BufferUtil.append(aggregate, buffer);
             buffer.limit(limit);
             state = State.START;
-            return newFrame(firstByte, mask, aggregate, true);
+            return newFrame(firstByte, getMask(), aggregate, true);
         }
     }
 
@@ -395,17 +410,48 @@ public class Parser
     public String toString()
     {
         return String
-            .format("Parser@%x[s=%s,c=%d,o=0x%x,m=%s,l=%d]", hashCode(), state, cursor, firstByte, mask == null ? "-" : TypeUtil.toHexString(mask), payloadLength);
+            .format("Parser@%x[s=%s,c=%d,o=0x%x,m=%s,l=%d]", hashCode(), state, cursor, firstByte, masked ? TypeUtil.toHexString(mask) : "-", payloadLength);
     }
 
     public class ParsedFrame extends Frame implements Closeable, CloseStatus.Supplier
     {
-        final CloseStatus closeStatus;
-        final boolean releaseable;
+        private final boolean recyclable;
+        private byte[] maskBytes;
+        CloseStatus closeStatus;
+        boolean releaseable;
 
         public ParsedFrame(byte firstByte, byte[] mask, ByteBuffer payload, boolean releaseable)
         {
             super(firstByte, mask, payload);
+            this.recyclable = false;
+            init(releaseable);
+        }
+
+        private ParsedFrame()
+        {
+            this.recyclable = true;
+        }
+
+        private void init(byte firstByte, byte[] mask, ByteBuffer payload, boolean releaseable)
+        {
+            this.finRsvOp = firstByte;
+            this.payload = payload;
+            if (mask == null)
+            {
+                this.mask = null;
+            }
+            else
+            {
+                if (maskBytes == null)
+                    maskBytes = new byte[4];
+                System.arraycopy(mask, 0, maskBytes, 0, 4);
+                this.mask = maskBytes;
+            }
+            init(releaseable);
+        }
+
+        private void init(boolean releaseable)
+        {
             demask();
             this.releaseable = releaseable;
             if (getOpCode() == OpCode.CLOSE)
@@ -426,6 +472,16 @@ public class Parser
         {
             if (releaseable)
                 bufferPool.release(getPayload());
+
+            if (recyclable)
+            {
+                // Keep one frame to be reused by the parser, which in the common case
+                // only parses the next frame once the previous one has been closed.
+                releaseable = false;
+                payload = null;
+                closeStatus = null;
+                recycled.compareAndSet(null, this);
+            }
         }
 
         @Override
@@ -18,6 +18,7 @@
 
 package org.eclipse.jetty.websocket.core.internal;
 
+import java.io.Closeable;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
@@ -29,7 +30,10 @@ import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.Callback;
 import org.eclipse.jetty.util.compression.DeflaterPool;
 import org.eclipse.jetty.util.compression.InflaterPool;
+import org.eclipse.jetty.util.thread.AutoLock;
 import org.eclipse.jetty.websocket.core.AbstractExtension;
+import org.eclipse.jetty.websocket.core.Behavior;
+import org.eclipse.jetty.websocket.core.CoreSession;
 import org.eclipse.jetty.websocket.core.ExtensionConfig;
 import org.eclipse.jetty.websocket.core.Frame;
 import org.eclipse.jetty.websocket.core.OpCode;
@@ -44,16 +48,27 @@ import org.slf4j.LoggerFactory;
  * Per Message Deflate Compression extension for WebSocket.
  * <p>
  * Attempts to follow <a href="https://tools.ietf.org/html/rfc7692">Compression Extensions for WebSocket</a>
+ * <p>
+ * The native memory of the Deflater and Inflater held by each session is accounted with
+ * {@link WebSocketComponents#updateCompressionMemory(long)}, and once the budget set with
+ * {@link WebSocketComponents#setMaxCompressionMemory(long)} is exhausted no context takeover
+ * is negotiated, so that they are only held while a message is being processed.
  */
-public class PerMessageDeflateExtension extends AbstractExtension
+public class PerMessageDeflateExtension extends AbstractExtension implements Closeable
 {
     private static final byte[] TAIL_BYTES = new byte[]{0x00, 0x00, (byte)0xFF, (byte)0xFF};
     private static final ByteBuffer TAIL_BYTES_BUF = ByteBuffer.wrap(TAIL_BYTES);
     private static final Logger LOG = LoggerFactory.getLogger(PerMessageDeflateExtension.class);
     private static final int DEFAULT_BUF_SIZE = 8 * 1024;
+    // Estimates of the zlib state for 15 window bits and the default memory level.
+    private static final long DEFLATER_MEMORY = (1 << 17) + (1 << 17) + 6 * 1024;
+    private static final long INFLATER_MEMORY = (1 << 15) + 7 * 1024;
 
     private final TransformingFlusher outgoingFlusher;
     private final TransformingFlusher incomingFlusher;
+    private final AutoLock outgoingLock = new AutoLock();
+    private final AutoLock incomingLock = new AutoLock();
+    private WebSocketComponents components;
     private DeflaterPool.Entry deflaterHolder;
     private InflaterPool.Entry inflaterHolder;
     private boolean incomingCompressed;
@@ -64,6 +79,9 @@ public class PerMessageDeflateExtension extends AbstractExtension
     private int inflateBufferSize = DEFAULT_BUF_SIZE;
     private boolean incomingContextTakeover = true;
     private boolean outgoingContextTakeover = true;
+    private boolean incomingContextTakeoverRequested = true;
+    private boolean memoryBudgetExhausted;
+    private volatile boolean closed;
 
     public PerMessageDeflateExtension()
     {
@@ -143,12 +161,48 @@ public class PerMessageDeflateExtension extends AbstractExtension
             }
         }
 
+        incomingContextTakeoverRequested = incomingContextTakeover;
+        if ((incomingContextTakeover || outgoingContextTakeover) && components.isCompressionMemoryExhausted())
+        {
+            // Without context takeover the compressors are released at the end of each message.
+            paramsNegotiated.put("client_no_context_takeover", null);
+            paramsNegotiated.put("server_no_context_takeover", null);
+            incomingContextTakeover = false;
+            outgoingContextTakeover = false;
+            memoryBudgetExhausted = true;
+            LOG.debug("compression memory budget exhausted: {}/{}", components.getCompressionMemory(), components.getMaxCompressionMemory());
+        }
+
+        this.components = components;
         configNegotiated = new ExtensionConfig(config.getName(), paramsNegotiated);
         LOG.debug("config: outgoingContextTakover={}, incomingContextTakeover={} : {}", outgoingContextTakeover, incomingContextTakeover, this);
 
         super.init(configNegotiated, components);
     }
 
+    @Override
+    public void setCoreSession(CoreSession coreSession)
+    {
+        super.setCoreSession(coreSession);
+
+        // A client cannot add parameters to the negotiation, so it can only give up its own
+        // outgoing context to respect the memory budget, the incoming one is the server's choice.
+        if (memoryBudgetExhausted && coreSession.getBehavior() == Behavior.CLIENT)
+            incomingContextTakeover = incomingContextTakeoverRequested;
+    }
+
+    /**
+     * Releases the Deflater and Inflater once the connection is closed, as they may
+     * otherwise be held until garbage collection when context takeover was negotiated.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        releaseDeflater();
+        releaseInflater();
+    }
+
     private static String toDetail(Inflater inflater)
     {
         return String.format("Inflater[finished=%b,read=%d,written=%d,remaining=%d,in=%d,out=%d]", inflater.finished(), inflater.getBytesRead(),
@@ -181,32 +235,48 @@ public class PerMessageDeflateExtension extends AbstractExtension
     public Deflater getDeflater()
     {
         if (deflaterHolder == null)
+        {
+            if (closed)
+                throw new IllegalStateException("Closed");
             deflaterHolder = getDeflaterPool().acquire();
+            components.updateCompressionMemory(DEFLATER_MEMORY);
+        }
         return deflaterHolder.get();
     }
 
     public Inflater getInflater()
     {
         if (inflaterHolder == null)
+        {
+            if (closed)
+                throw new IllegalStateException("Closed");
             inflaterHolder = getInflaterPool().acquire();
+            components.updateCompressionMemory(INFLATER_MEMORY);
+        }
         return inflaterHolder.get();
     }
 
     public void releaseInflater()
     {
-        if (inflaterHolder != null)
+        try (AutoLock l = incomingLock.lock())
         {
+            if (inflaterHolder == null)
+                return;
             inflaterHolder.release();
             inflaterHolder = null;
+            components.updateCompressionMemory(-INFLATER_MEMORY);
         }
     }
 
     public void releaseDeflater()
     {
-        if (deflaterHolder != null)
+        try (AutoLock l = outgoingLock.lock())
         {
+            if (deflaterHolder == null)
+                return;
             deflaterHolder.release();
             deflaterHolder = null;
+            components.updateCompressionMemory(-DEFLATER_MEMORY);
         }
     }
 
@@ -256,12 +326,24 @@ public class PerMessageDeflateExtension extends AbstractExtension
                 return true;
             }
 
+            if (frame instanceof PreEncodedFrame)
+            {
+                // The frame was compressed with a fresh context, which the peer now
+                // has in its window instead of our history, so our context is reset.
+                releaseDeflater();
+                nextOutgoingFrame(frame, callback, batch);
+                return true;
+            }
+
             _first = true;
             _frame = frame;
             _batch = batch;
 
             // Provide the frames payload as input to the Deflater.
-            getDeflater().setInput(frame.getPayload().slice());
+            try (AutoLock l = outgoingLock.lock())
+            {
+                getDeflater().setInput(frame.getPayload().slice());
+            }
             callback.succeeded();
             return false;
         }
@@ -285,27 +367,30 @@ public class PerMessageDeflateExtension extends AbstractExtension
 
             // Fill up the buffer with a max length of bufferSize;
             boolean finished = false;
-            Deflater deflater = getDeflater();
-            while (true)
+            try (AutoLock l = outgoingLock.lock())
             {
-                int compressed = deflater.deflate(buffer.array(), buffer.arrayOffset() + buffer.position(),
-                    bufferSize - buffer.position(), Deflater.SYNC_FLUSH);
-                buffer.limit(buffer.limit() + compressed);
-                if (LOG.isDebugEnabled())
-                    LOG.debug("Compressed {} bytes {}", compressed, toDetail(deflater));
-
-                if (buffer.limit() == bufferSize)
+                Deflater deflater = getDeflater();
+                while (true)
                 {
-                    // We need to fragment. TODO: what if there was only bufferSize of content?
-                    if (!getConfiguration().isAutoFragment())
-                        throw new MessageTooLargeException("Deflated payload exceeded the compress buffer size");
-                    break;
-                }
+                    int compressed = deflater.deflate(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                        bufferSize - buffer.position(), Deflater.SYNC_FLUSH);
+                    buffer.limit(buffer.limit() + compressed);
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Compressed {} bytes {}", compressed, toDetail(deflater));
 
-                if (compressed == 0)
-                {
-                    finished = true;
-                    break;
+                    if (buffer.limit() == bufferSize)
+                    {
+                        // We need to fragment. TODO: what if there was only bufferSize of content?
+                        if (!getConfiguration().isAutoFragment())
+                            throw new MessageTooLargeException("Deflated payload exceeded the compress buffer size");
+                        break;
+                    }
+
+                    if (compressed == 0)
+                    {
+                        finished = true;
+                        break;
+                    }
                 }
             }
 
@@ -387,7 +472,10 @@ public class PerMessageDeflateExtension extends AbstractExtension
                 incomingCompressed = false;
 
             // Provide the frames payload as input to the Inflater.
-            getInflater().setInput(_frame.getPayload().slice());
+            try (AutoLock l = incomingLock.lock())
+            {
+                getInflater().setInput(_frame.getPayload().slice());
+            }
             callback.succeeded();
             return false;
         }
@@ -418,33 +506,36 @@ public class PerMessageDeflateExtension extends AbstractExtension
 
             // Fill up the ByteBuffer with a max length of bufferSize;
             boolean finished = false;
-            Inflater inflater = getInflater();
-            while (true)
+            try (AutoLock l = incomingLock.lock())
             {
-                int read = inflater.inflate(payload.array(), payload.arrayOffset() + payload.position(), bufferSize - payload.position());
-                payload.limit(payload.limit() + read);
-                if (LOG.isDebugEnabled())
-                    LOG.debug("Decompress: read {} {}", read, toDetail(inflater));
-
-                if (payload.limit() == bufferSize)
+                Inflater inflater = getInflater();
+                while (true)
                 {
-                    // We need to fragment. TODO: what if there was only bufferSize of content?
-                    if (!getConfiguration().isAutoFragment())
-                        throw new MessageTooLargeException("Inflated payload exceeded the decompress buffer size");
-                    break;
-                }
+                    int read = inflater.inflate(payload.array(), payload.arrayOffset() + payload.position(), bufferSize - payload.position());
+                    payload.limit(payload.limit() + read);
+                    if (LOG.isDebugEnabled())
+                        LOG.debug("Decompress: read {} {}", read, toDetail(inflater));
 
-                if (read == 0)
-                {
-                    if (!_tailBytes && _frame.isFin())
+                    if (payload.limit() == bufferSize)
                     {
-                        inflater.setInput(TAIL_BYTES_BUF.slice());
-                        _tailBytes = true;
-                        continue;
+                        // We need to fragment. TODO: what if there was only bufferSize of content?
+                        if (!getConfiguration().isAutoFragment())
+                            throw new MessageTooLargeException("Inflated payload exceeded the decompress buffer size");
+                        break;
                     }
 
-                    finished = true;
-                    break;
+                    if (read == 0)
+                    {
+                        if (!_tailBytes && _frame.isFin())
+                        {
+                            inflater.setInput(TAIL_BYTES_BUF.slice());
+                            _tailBytes = true;
+                            continue;
+                        }
+
+                        finished = true;
+                        break;
+                    }
                 }
             }
 
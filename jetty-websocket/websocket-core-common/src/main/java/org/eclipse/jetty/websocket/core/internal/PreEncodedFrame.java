@@ -0,0 +1,191 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+package org.eclipse.jetty.websocket.core.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.FutureCallback;
+import org.eclipse.jetty.websocket.core.Behavior;
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.Extension;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.OutgoingFrames;
+import org.eclipse.jetty.websocket.core.WebSocketComponents;
+
+/**
+ * <p>A whole message frame whose wire bytes have already been generated.</p>
+ * <p>The encoded bytes are the output of the negotiated extensions and of the {@link Generator}
+ * for the message, possibly spanning several frames. They are shared read-only by every session
+ * with the same encoding key, so the extensions and the {@link FrameFlusher} pass this frame
+ * through without transforming it.</p>
+ * <p>Only server sessions can share encoded frames, as client frames must be masked
+ * with a per frame key. Only the {@link PerMessageDeflateExtension} and the {@link IdentityExtension}
+ * can be applied ahead of time; the deflater of a session with context takeover is reset after a
+ * pre-encoded frame so that its next message does not reference data the peer has not seen from it.</p>
+ */
+public class PreEncodedFrame extends Frame
+{
+    private final ByteBuffer encoded;
+
+    private PreEncodedFrame(Frame frame, ByteBuffer encoded)
+    {
+        super(frame.getOpCode(), frame.isFin(), frame.getPayload());
+        this.encoded = encoded;
+    }
+
+    /**
+     * @return a slice of the shared read-only encoded bytes of this frame
+     */
+    public ByteBuffer getEncoded()
+    {
+        return encoded.slice();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s[encoded=%d]", super.toString(), encoded.remaining());
+    }
+
+    /**
+     * Get the key identifying the encoding of outgoing frames for a session.
+     * Sessions with equal keys produce the same wire bytes for the same message.
+     *
+     * @param session the session
+     * @return the encoding key, or null if the session cannot be sent pre-encoded frames
+     */
+    public static String getEncodingKey(CoreSession session)
+    {
+        if (!(session instanceof WebSocketCoreSession) || session.getBehavior() != Behavior.SERVER)
+            return null;
+
+        StringBuilder key = new StringBuilder();
+        key.append(session.isAutoFragment()).append(';').append(session.getMaxFrameSize());
+        List<Extension> extensions = ((WebSocketCoreSession)session).getExtensionStack().getExtensions();
+        if (extensions != null)
+        {
+            for (Extension extension : extensions)
+            {
+                Class<?> type = extension.getClass();
+                if (type != PerMessageDeflateExtension.class && type != IdentityExtension.class)
+                    return null;
+                key.append(',').append(extension.getConfig().getParameterizedName());
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Encode a whole message frame as it would be sent by the given session.
+     * The session must have a non null {@link #getEncodingKey(CoreSession) encoding key}.
+     *
+     * @param frame the whole message frame to encode
+     * @param session the session whose configuration and extensions are used
+     * @return the pre-encoded frame
+     * @throws IOException if the frame could not be encoded
+     */
+    public static PreEncodedFrame encode(Frame frame, CoreSession session) throws IOException
+    {
+        if (!frame.isDataFrame() || !frame.isFin())
+            throw new IllegalArgumentException("Not a whole message frame: " + frame);
+
+        WebSocketComponents components = session.getWebSocketComponents();
+        Generator generator = new Generator();
+        List<ByteBuffer> generated = new ArrayList<>();
+        OutgoingFrames outgoing = (f, callback, batch) ->
+        {
+            ByteBuffer buffer = BufferUtil.allocate(Generator.MAX_HEADER_LENGTH + f.getPayloadLength());
+            generator.generateWholeFrame(f, buffer);
+            generated.add(buffer);
+            callback.succeeded();
+        };
+
+        // Wire fresh extensions the same way as the ExtensionStack.
+        List<Extension> extensions = new ArrayList<>();
+        List<Extension> sessionExtensions = ((WebSocketCoreSession)session).getExtensionStack().getExtensions();
+        if (sessionExtensions != null)
+        {
+            for (Extension sessionExtension : sessionExtensions)
+            {
+                Extension extension = components.getExtensionRegistry().newInstance(sessionExtension.getConfig(), components);
+                extension.setNextOutgoingFrames(outgoing);
+                extension.setCoreSession(session);
+                extensions.add(extension);
+                outgoing = extension;
+            }
+        }
+
+        try
+        {
+            OutgoingFrames extended = outgoing;
+            FragmentingFlusher fragmenter = new FragmentingFlusher(session)
+            {
+                @Override
+                void forwardFrame(Frame fragment, Callback callback, boolean batch)
+                {
+                    extended.sendFrame(fragment, callback, batch);
+                }
+            };
+
+            // The generating end of the chain completes callbacks immediately, so encoding is synchronous.
+            FutureCallback callback = new FutureCallback();
+            ByteBuffer payload = frame.getPayload();
+            fragmenter.sendFrame(new Frame(frame.getOpCode(), true, payload == null ? null : payload.slice()), callback, false);
+            if (!callback.isDone())
+                throw new IllegalStateException("Frame not encoded synchronously " + frame);
+            callback.block();
+        }
+        finally
+        {
+            for (Extension extension : extensions)
+            {
+                if (extension instanceof PerMessageDeflateExtension)
+                    ((PerMessageDeflateExtension)extension).releaseDeflater();
+            }
+        }
+
+        // The encoded bytes live on the heap: they are reclaimed with the frame once the
+        // last session has written them, without any release to track across sessions.
+        ByteBuffer encoded;
+        if (generated.size() == 1)
+        {
+            encoded = generated.get(0);
+        }
+        else
+        {
+            int length = 0;
+            for (ByteBuffer buffer : generated)
+            {
+                length += buffer.remaining();
+            }
+            encoded = BufferUtil.allocate(length);
+            int position = BufferUtil.flipToFill(encoded);
+            for (ByteBuffer buffer : generated)
+            {
+                encoded.put(buffer);
+            }
+            BufferUtil.flipToFlush(encoded, position);
+        }
+        return new PreEncodedFrame(frame, encoded.asReadOnlyBuffer());
+    }
+}
@@ -25,6 +25,7 @@ import java.security.SecureRandom;
 import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.jetty.io.AbstractConnection;
@@ -59,6 +60,7 @@ public class WebSocketConnection extends AbstractConnection implements Connectio
     private final ByteBufferPool bufferPool;
     private final Generator generator;
     private final Parser parser;
+    private final AtomicReference<FrameCallback> recycledCallback = new AtomicReference<>();
     private final WebSocketCoreSession coreSession;
     private final Flusher flusher;
     private final Random random;
@@ -230,36 +232,58 @@ public class WebSocketConnection extends AbstractConnection implements Connectio
         if (referenced != null)
             referenced.retain();
 
-        coreSession.onFrame(frame, new Callback()
+        FrameCallback callback = recycledCallback.getAndSet(null);
+        if (callback == null)
+            callback = new FrameCallback();
+        callback.frame = frame;
+        callback.referenced = referenced;
+        coreSession.onFrame(frame, callback);
+    }
+
+    /**
+     * The callback of a parsed frame, recycled together with the frame once it completes.
+     */
+    private class FrameCallback implements Callback
+    {
+        private Parser.ParsedFrame frame;
+        private RetainableByteBuffer referenced;
+
+        @Override
+        public void succeeded()
         {
-            @Override
-            public void succeeded()
-            {
-                if (LOG.isDebugEnabled())
-                    LOG.debug("succeeded onFrame({})", frame);
+            if (LOG.isDebugEnabled())
+                LOG.debug("succeeded onFrame({})", frame);
 
-                frame.close();
-                if (referenced != null)
-                    referenced.release();
+            release();
 
-                if (!coreSession.isDemanding())
-                    demand(1);
-            }
+            if (!coreSession.isDemanding())
+                demand(1);
+        }
 
-            @Override
-            public void failed(Throwable cause)
-            {
-                if (LOG.isDebugEnabled())
-                    LOG.debug("failed onFrame({}) {}", frame, cause.toString());
+        @Override
+        public void failed(Throwable cause)
+        {
+            if (LOG.isDebugEnabled())
+                LOG.debug("failed onFrame({}) {}", frame, cause.toString());
 
-                frame.close();
-                if (referenced != null)
-                    referenced.release();
+            release();
 
-                // notify session & endpoint
-                coreSession.processHandlerError(cause, NOOP);
-            }
-        });
+            // notify session & endpoint
+            coreSession.processHandlerError(cause, NOOP);
+        }
+
+        private void release()
+        {
+            Parser.ParsedFrame frame = this.frame;
+            RetainableByteBuffer referenced = this.referenced;
+            this.frame = null;
+            this.referenced = null;
+            recycledCallback.compareAndSet(null, this);
+
+            frame.close();
+            if (referenced != null)
+                referenced.release();
+        }
     }
 
     private void acquireNetworkBuffer()
@@ -605,6 +629,12 @@ public class WebSocketConnection extends AbstractConnection implements Connectio
     {
         if (coreSession.getBehavior() == Behavior.CLIENT)
         {
+            if (frame instanceof PreEncodedFrame)
+            {
+                callback.failed(new IllegalArgumentException("Cannot mask pre-encoded frame"));
+                return;
+            }
+
             byte[] mask = new byte[4];
             random.nextBytes(mask);
             frame.setMask(mask);
@@ -75,6 +75,8 @@ public class WebSocketCoreSession implements IncomingFrames, CoreSession, Dumpab
     private final Flusher flusher = new Flusher(this);
 
     private int maxOutgoingFrames = -1;
+    private int autoBatchSize = WebSocketConstants.DEFAULT_AUTO_BATCH_SIZE;
+    private Duration autoBatchDelay = WebSocketConstants.DEFAULT_AUTO_BATCH_DELAY;
     private final AtomicInteger numOutgoingFrames = new AtomicInteger();
 
     private WebSocketConnection connection;
@@ -283,6 +285,8 @@ public class WebSocketCoreSession implements IncomingFrames, CoreSession, Dumpab
     {
         connection.getEndPoint().setIdleTimeout(idleTimeout.toMillis());
         connection.getFrameFlusher().setIdleTimeout(writeTimeout.toMillis());
+        connection.getFrameFlusher().setAutoBatchSize(autoBatchSize);
+        connection.getFrameFlusher().setAutoBatchDelay(autoBatchDelay.toNanos());
         this.connection = connection;
     }
 
@@ -336,6 +340,7 @@ public class WebSocketCoreSession implements IncomingFrames, CoreSession, Dumpab
             LOG.debug("closeConnection() {} {}", closeStatus, this);
 
         abort();
+        negotiated.getExtensions().close();
 
         // Forward Errors to Local WebSocket EndPoint
         if (closeStatus.isAbnormal() && closeStatus.getCause() != null)
@@ -700,6 +705,34 @@ public class WebSocketCoreSession implements IncomingFrames, CoreSession, Dumpab
         this.maxOutgoingFrames = maxOutgoingFrames;
     }
 
+    @Override
+    public int getAutoBatchSize()
+    {
+        return autoBatchSize;
+    }
+
+    @Override
+    public void setAutoBatchSize(int autoBatchSize)
+    {
+        this.autoBatchSize = autoBatchSize;
+        if (getConnection() != null)
+            getConnection().getFrameFlusher().setAutoBatchSize(autoBatchSize);
+    }
+
+    @Override
+    public Duration getAutoBatchDelay()
+    {
+        return autoBatchDelay;
+    }
+
+    @Override
+    public void setAutoBatchDelay(Duration delay)
+    {
+        autoBatchDelay = delay;
+        if (getConnection() != null)
+            getConnection().getFrameFlusher().setAutoBatchDelay(delay.toNanos());
+    }
+
     private class IncomingAdaptor implements IncomingFrames
     {
         @Override
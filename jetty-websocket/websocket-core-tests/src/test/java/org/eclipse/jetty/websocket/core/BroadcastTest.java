@@ -0,0 +1,163 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+package org.eclipse.jetty.websocket.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.FutureCallback;
+import org.eclipse.jetty.websocket.core.client.CoreClientUpgradeRequest;
+import org.eclipse.jetty.websocket.core.client.WebSocketCoreClient;
+import org.eclipse.jetty.websocket.core.server.WebSocketNegotiator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BroadcastTest
+{
+    private final BlockingQueue<TestFrameHandler> serverHandlers = new LinkedBlockingQueue<>();
+    private final List<TestFrameHandler> clientHandlers = new ArrayList<>();
+    private final List<TestFrameHandler> connectedServerHandlers = new ArrayList<>();
+    private WebSocketServer server;
+    private WebSocketCoreClient client;
+
+    @BeforeEach
+    public void startup() throws Exception
+    {
+        WebSocketNegotiator negotiator = WebSocketNegotiator.from((negotiation) ->
+        {
+            TestFrameHandler handler = new TestFrameHandler();
+            serverHandlers.offer(handler);
+            return handler;
+        });
+        server = new WebSocketServer(negotiator);
+        client = new WebSocketCoreClient();
+
+        server.start();
+        client.start();
+    }
+
+    @AfterEach
+    public void shutdown() throws Exception
+    {
+        client.stop();
+        server.stop();
+    }
+
+    private List<CoreSession> connect(int count, String extensions) throws Exception
+    {
+        List<CoreSession> sessions = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            TestFrameHandler clientHandler = new TestFrameHandler();
+            CoreClientUpgradeRequest upgradeRequest = CoreClientUpgradeRequest.from(client, server.getUri(), clientHandler);
+            if (extensions != null)
+                upgradeRequest.addExtensions(extensions);
+            client.connect(upgradeRequest).get(5, TimeUnit.SECONDS);
+            clientHandlers.add(clientHandler);
+            TestFrameHandler serverHandler = Objects.requireNonNull(serverHandlers.poll(5, TimeUnit.SECONDS));
+            assertThat(serverHandler.open.await(5, TimeUnit.SECONDS), is(true));
+            connectedServerHandlers.add(serverHandler);
+            sessions.add(serverHandler.getCoreSession());
+        }
+        return sessions;
+    }
+
+    private static String receive(TestFrameHandler handler) throws Exception
+    {
+        Frame frame = Objects.requireNonNull(handler.receivedFrames.poll(5, TimeUnit.SECONDS));
+        assertThat(frame.getOpCode(), is(OpCode.TEXT));
+        assertThat(frame.isFin(), is(true));
+        return frame.getPayloadAsUTF8();
+    }
+
+    @Test
+    public void testBroadcastToServerSessions() throws Exception
+    {
+        List<CoreSession> sessions = new ArrayList<>();
+        sessions.addAll(connect(3, null));
+        sessions.addAll(connect(3, "permessage-deflate"));
+        sessions.addAll(connect(2, "permessage-deflate; server_no_context_takeover"));
+
+        String message = "The quick brown fox jumps over the lazy dog. ".repeat(20);
+        for (int i = 0; i < 3; i++)
+        {
+            FutureCallback callback = new FutureCallback();
+            int encoded = Broadcaster.broadcast(new Frame(OpCode.TEXT, message + i), sessions, callback);
+            callback.get(5, TimeUnit.SECONDS);
+
+            // Encoded once for each of the three extension configurations, not once per session.
+            assertThat(encoded, is(3));
+        }
+
+        // Messages sent normally after a broadcast are still inflated correctly by the peer.
+        for (CoreSession session : sessions)
+        {
+            session.sendFrame(new Frame(OpCode.TEXT, message + "after"), Callback.NOOP, false);
+        }
+
+        for (TestFrameHandler clientHandler : clientHandlers)
+        {
+            for (int i = 0; i < 3; i++)
+            {
+                assertThat(receive(clientHandler), is(message + i));
+            }
+            assertThat(receive(clientHandler), is(message + "after"));
+        }
+    }
+
+    @Test
+    public void testBroadcastToClientSessions() throws Exception
+    {
+        connect(2, null);
+        connect(2, "permessage-deflate");
+        List<CoreSession> sessions = new ArrayList<>();
+        for (TestFrameHandler clientHandler : clientHandlers)
+        {
+            sessions.add(clientHandler.getCoreSession());
+        }
+
+        FutureCallback callback = new FutureCallback();
+        int encoded = Broadcaster.broadcast(new Frame(OpCode.TEXT, "from clients"), sessions, callback);
+        callback.get(5, TimeUnit.SECONDS);
+        assertThat(encoded, is(0));
+
+        // Client frames must be masked by each session, so the frame was sent to each session in turn.
+        for (TestFrameHandler serverHandler : connectedServerHandlers)
+        {
+            assertThat(receive(serverHandler), is("from clients"));
+        }
+    }
+
+    @Test
+    public void testBroadcastRejectsPartialFrame()
+    {
+        FutureCallback callback = new FutureCallback();
+        Broadcaster.broadcast(new Frame(OpCode.TEXT, false, "partial"), List.of(), callback);
+        assertThrows(Exception.class, () -> callback.get(5, TimeUnit.SECONDS));
+    }
+}
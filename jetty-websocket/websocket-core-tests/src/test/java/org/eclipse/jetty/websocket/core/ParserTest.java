@@ -25,6 +25,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jetty.io.MappedByteBufferPool;
 import org.eclipse.jetty.toolchain.test.Hex;
 import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.StringUtil;
@@ -1663,6 +1664,35 @@ public class ParserTest
         assertTrue(text.isReleaseable());
     }
 
+    @Test
+    public void testClosedFrameIsRecycled()
+    {
+        List<Frame> frames = new ArrayList<>();
+        frames.add(new Frame(OpCode.TEXT, "Hello"));
+        frames.add(new Frame(OpCode.TEXT, "Cruel"));
+        frames.add(new Frame(OpCode.TEXT, "World"));
+        ByteBuffer buffer = generate(Behavior.CLIENT, frames);
+        Parser parser = new Parser(new MappedByteBufferPool());
+
+        Parser.ParsedFrame hello = parser.parse(buffer);
+        assertEquals("Hello", hello.getPayloadAsUTF8());
+
+        // The frame is still in use, so a new one is parsed.
+        Parser.ParsedFrame cruel = parser.parse(buffer);
+        assertThat(cruel, not(sameInstance(hello)));
+        assertEquals("Cruel", cruel.getPayloadAsUTF8());
+        assertEquals("Hello", hello.getPayloadAsUTF8());
+
+        // Once closed the frame is reused, with its own copy of the mask.
+        cruel.close();
+        Parser.ParsedFrame world = parser.parse(buffer);
+        assertThat(world, sameInstance(cruel));
+        assertEquals(OpCode.TEXT, world.getOpCode());
+        assertTrue(world.isMasked());
+        assertEquals("World", world.getPayloadAsUTF8());
+        assertFalse(buffer.hasRemaining());
+    }
+
     private ByteBuffer generate(Behavior behavior, List<Frame> frames)
     {
         Generator generator = new Generator();
@@ -595,6 +595,43 @@ public class PerMessageDeflateExtensionTest extends AbstractExtensionTest
         tester.assertHasFrames("tora", "tora", "tora");
     }
 
+    @Test
+    public void testCompressionMemoryBudget()
+    {
+        components.setMaxCompressionMemory(1);
+
+        PerMessageDeflateExtension first = new PerMessageDeflateExtension();
+        first.init(ExtensionConfig.parse("permessage-deflate"), components);
+        first.setCoreSession(newSession());
+        first.setNextOutgoingFrames(new OutgoingFramesCapture());
+        assertThat(first.getConfig().getParameterizedName(), is("permessage-deflate"));
+
+        // With context takeover the Deflater is held after the message.
+        first.sendFrame(new Frame(OpCode.TEXT, "Hello"), Callback.NOOP, false);
+        long held = components.getCompressionMemory();
+        assertThat(held > 0, is(true));
+        assertThat(components.isCompressionMemoryExhausted(), is(true));
+
+        // Once the budget is exhausted no context takeover is negotiated.
+        PerMessageDeflateExtension second = new PerMessageDeflateExtension();
+        second.init(ExtensionConfig.parse("permessage-deflate"), components);
+        second.setCoreSession(newSession());
+        OutgoingFramesCapture capture = new OutgoingFramesCapture();
+        second.setNextOutgoingFrames(capture);
+        assertThat(second.getConfig().getParameterKeys().contains("server_no_context_takeover"), is(true));
+        assertThat(second.getConfig().getParameterKeys().contains("client_no_context_takeover"), is(true));
+
+        // Its Deflater is released at the end of each message.
+        second.sendFrame(new Frame(OpCode.TEXT, "Hello"), Callback.NOOP, false);
+        capture.assertFrameCount(1);
+        assertThat(components.getCompressionMemory(), is(held));
+
+        // Closing releases the Deflater held for context takeover.
+        first.close();
+        assertThat(components.getCompressionMemory(), is(0L));
+        assertThat(components.isCompressionMemoryExhausted(), is(false));
+    }
+
     private WebSocketCoreSession newSession()
     {
         return newSessionFromConfig(new ConfigurationCustomizer());
@@ -29,6 +29,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jetty.io.ByteBufferPool;
@@ -51,7 +52,9 @@ import org.slf4j.LoggerFactory;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -231,6 +234,71 @@ public class FrameFlusherTest
         assertTrue(succeededCloseFrame.await(1, TimeUnit.SECONDS));
     }
 
+    @Test
+    public void testBatchedFramesOrder() throws Exception
+    {
+        Generator generator = new Generator();
+        CapturingEndPoint endPoint = new CapturingEndPoint(bufferPool);
+        int bufferSize = WebSocketConstants.DEFAULT_OUTPUT_BUFFER_SIZE;
+        int maxGather = 8;
+        FrameFlusher frameFlusher = new FrameFlusher(bufferPool, scheduler, generator, endPoint, bufferSize, maxGather);
+
+        // Batched and not batched frames are all gathered into a single write.
+        int messageCount = 4;
+        for (int i = 0; i < messageCount; i++)
+        {
+            Frame frame = new Frame(OpCode.TEXT).setPayload("Message " + i).setFin(true);
+            assertTrue(frameFlusher.enqueue(frame, Callback.NOOP, i % 2 == 0));
+        }
+        assertTrue(frameFlusher.enqueue(FrameFlusher.FLUSH_FRAME, Callback.NOOP, false));
+        frameFlusher.iterate();
+
+        for (int i = 0; i < messageCount; i++)
+        {
+            Frame frame = endPoint.incomingFrames.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame);
+            assertThat(frame.getPayloadAsUTF8(), is("Message " + i));
+        }
+    }
+
+    @Test
+    public void testAutoBatch() throws Exception
+    {
+        Generator generator = new Generator();
+        AtomicInteger writes = new AtomicInteger();
+        CapturingEndPoint endPoint = new CapturingEndPoint(bufferPool)
+        {
+            @Override
+            public void write(Callback callback, ByteBuffer... buffers) throws WritePendingException
+            {
+                writes.incrementAndGet();
+                super.write(callback, buffers);
+            }
+        };
+        int bufferSize = WebSocketConstants.DEFAULT_OUTPUT_BUFFER_SIZE;
+        int maxGather = 8;
+        FrameFlusher frameFlusher = new FrameFlusher(bufferPool, scheduler, generator, endPoint, bufferSize, maxGather);
+        frameFlusher.setAutoBatchSize(1024);
+        frameFlusher.setAutoBatchDelay(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Small frames sent without batching are batched until the delay expires.
+        int messageCount = 20;
+        for (int i = 0; i < messageCount; i++)
+        {
+            Frame frame = new Frame(OpCode.TEXT).setPayload("Message " + i).setFin(true);
+            assertTrue(frameFlusher.enqueue(frame, Callback.NOOP, false));
+            frameFlusher.iterate();
+        }
+
+        for (int i = 0; i < messageCount; i++)
+        {
+            Frame frame = endPoint.incomingFrames.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame);
+            assertThat(frame.getPayloadAsUTF8(), is("Message " + i));
+        }
+        assertThat(writes.get(), is(1));
+    }
+
     public static class CapturingEndPoint extends MockEndpoint
     {
         public Parser parser;
@@ -255,9 +323,12 @@ public class FrameFlusherTest
             {
                 for (ByteBuffer buffer : buffers)
                 {
-                    Parser.ParsedFrame frame = parser.parse(buffer);
-                    if (frame != null)
+                    // A batched buffer may contain several frames.
+                    while (buffer.hasRemaining())
                     {
+                        Parser.ParsedFrame frame = parser.parse(buffer);
+                        if (frame == null)
+                            break;
                         incomingFrames.offer(frame);
                     }
                 }
@@ -18,20 +18,27 @@
 
 package org.eclipse.jetty.websocket.javax.common;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import javax.websocket.Extension;
+import javax.websocket.SendHandler;
 import javax.websocket.WebSocketContainer;
 
 import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.util.DecoratedObjectFactory;
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
+import org.eclipse.jetty.websocket.core.Broadcaster;
 import org.eclipse.jetty.websocket.core.Configuration;
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.OpCode;
 import org.eclipse.jetty.websocket.core.WebSocketComponents;
 import org.eclipse.jetty.websocket.core.WebSocketExtensionRegistry;
 import org.slf4j.Logger;
@@ -153,6 +160,48 @@ public abstract class JavaxWebSocketContainer extends ContainerLifeCycle impleme
         return sessionTracker.getSessions();
     }
 
+    /**
+     * Send a whole text message to many sessions, encoding it only once for all the
+     * sessions that negotiated the same extensions.
+     *
+     * @param sessions the sessions to send the message to
+     * @param text the message
+     * @param handler notified once the message has been sent to all the sessions, or of the first failure
+     */
+    public void broadcast(Collection<javax.websocket.Session> sessions, String text, SendHandler handler)
+    {
+        broadcast(sessions, new Frame(OpCode.TEXT).setPayload(text), handler);
+    }
+
+    /**
+     * Send a whole binary message to many sessions, encoding it only once for all the
+     * sessions that negotiated the same extensions.
+     *
+     * @param sessions the sessions to send the message to
+     * @param data the message, which must not be modified until the handler is notified
+     * @param handler notified once the message has been sent to all the sessions, or of the first failure
+     */
+    public void broadcast(Collection<javax.websocket.Session> sessions, ByteBuffer data, SendHandler handler)
+    {
+        broadcast(sessions, new Frame(OpCode.BINARY).setPayload(data), handler);
+    }
+
+    private void broadcast(Collection<javax.websocket.Session> sessions, Frame frame, SendHandler handler)
+    {
+        SendHandlerCallback callback = new SendHandlerCallback(handler);
+        List<CoreSession> coreSessions = new ArrayList<>(sessions.size());
+        for (javax.websocket.Session session : sessions)
+        {
+            if (!(session instanceof JavaxWebSocketSession))
+            {
+                callback.failed(new IllegalArgumentException("Unsupported session " + session));
+                return;
+            }
+            coreSessions.add(((JavaxWebSocketSession)session).getCoreSession());
+        }
+        Broadcaster.broadcast(frame, coreSessions, callback);
+    }
+
     public JavaxWebSocketFrameHandler newFrameHandler(Object websocketPojo, UpgradeRequest upgradeRequest)
     {
         return getFrameHandlerFactory().newJavaxWebSocketFrameHandler(websocketPojo, upgradeRequest);
@@ -29,6 +29,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import javax.websocket.CloseReason;
 import javax.websocket.Decoder;
@@ -63,6 +64,28 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public abstract class JavaxWebSocketFrameHandlerFactory
 {
     private static final MethodHandle FILTER_RETURN_TYPE_METHOD;
+    private static final ClassValue<MethodHandle> SINK_CONSTRUCTORS = new ClassValue<>()
+    {
+        @Override
+        protected MethodHandle computeValue(Class<?> sinkClass)
+        {
+            try
+            {
+                MethodType ctorType = AbstractDecodedMessageSink.class.isAssignableFrom(sinkClass)
+                    ? MethodType.methodType(void.class, CoreSession.class, MethodHandle.class, List.class)
+                    : MethodType.methodType(void.class, CoreSession.class, MethodHandle.class);
+                return getServerMethodHandleLookup().findConstructor(sinkClass, ctorType);
+            }
+            catch (NoSuchMethodException e)
+            {
+                throw new RuntimeException("Missing expected MessageSink constructor found at: " + sinkClass.getName(), e);
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new RuntimeException("Unable to create MessageSink: " + sinkClass.getName(), e);
+            }
+        }
+    };
 
     static
     {
@@ -107,6 +130,7 @@ public abstract class JavaxWebSocketFrameHandlerFactory
 
     protected final JavaxWebSocketContainer container;
     protected final InvokerUtils.ParamIdentifier paramIdentifier;
+    private final Map<List<Object>, JavaxWebSocketFrameHandlerMetadata> metadataCache = new ConcurrentHashMap<>();
 
     public JavaxWebSocketFrameHandlerFactory(JavaxWebSocketContainer container, InvokerUtils.ParamIdentifier paramIdentifier)
     {
@@ -116,6 +140,25 @@ public abstract class JavaxWebSocketFrameHandlerFactory
 
     public abstract JavaxWebSocketFrameHandlerMetadata getMetadata(Class<?> endpointClass, EndpointConfig endpointConfig);
 
+    /**
+     * <p>Get the metadata for an endpoint class, only discovering it with {@link #getMetadata(Class, EndpointConfig)}
+     * the first time the endpoint class is used with a given set of configured decoders and encoders.</p>
+     * <p>The returned metadata is shared between sessions and must not be modified,
+     * use {@link JavaxWebSocketMessageMetadata#copyOf(JavaxWebSocketMessageMetadata, EndpointConfig)}
+     * to obtain the per session message metadata.</p>
+     *
+     * @param endpointClass the endpoint class.
+     * @param endpointConfig the endpoint configuration.
+     * @return the shared metadata for the endpoint class, or null if the class is not a valid endpoint.
+     */
+    public JavaxWebSocketFrameHandlerMetadata getCachedMetadata(Class<?> endpointClass, EndpointConfig endpointConfig)
+    {
+        List<Object> key = List.of(endpointClass,
+            endpointConfig.getDecoders() == null ? List.of() : new ArrayList<>(endpointConfig.getDecoders()),
+            endpointConfig.getEncoders() == null ? List.of() : new ArrayList<>(endpointConfig.getEncoders()));
+        return metadataCache.computeIfAbsent(key, k -> getMetadata(endpointClass, endpointConfig));
+    }
+
     public abstract EndpointConfig newDefaultEndpointConfig(Class<?> endpointClass);
 
     public JavaxWebSocketFrameHandler newJavaxWebSocketFrameHandler(Object endpointInstance, UpgradeRequest upgradeRequest)
@@ -135,7 +178,7 @@ public abstract class JavaxWebSocketFrameHandlerFactory
             config = newDefaultEndpointConfig(endpoint.getClass());
         }
 
-        JavaxWebSocketFrameHandlerMetadata metadata = getMetadata(endpoint.getClass(), config);
+        JavaxWebSocketFrameHandlerMetadata metadata = getCachedMetadata(endpoint.getClass(), config);
         if (metadata == null)
             return null;
 
@@ -144,8 +187,8 @@ public abstract class JavaxWebSocketFrameHandlerFactory
         MethodHandle errorHandle = metadata.getErrorHandle();
         MethodHandle pongHandle = metadata.getPongHandle();
 
-        JavaxWebSocketMessageMetadata textMetadata = JavaxWebSocketMessageMetadata.copyOf(metadata.getTextMetadata());
-        JavaxWebSocketMessageMetadata binaryMetadata = JavaxWebSocketMessageMetadata.copyOf(metadata.getBinaryMetadata());
+        JavaxWebSocketMessageMetadata textMetadata = JavaxWebSocketMessageMetadata.copyOf(metadata.getTextMetadata(), config);
+        JavaxWebSocketMessageMetadata binaryMetadata = JavaxWebSocketMessageMetadata.copyOf(metadata.getBinaryMetadata(), config);
 
         UriTemplatePathSpec templatePathSpec = metadata.getUriTemplatePathSpec();
         if (templatePathSpec != null)
@@ -186,26 +229,19 @@ public abstract class JavaxWebSocketFrameHandlerFactory
 
         try
         {
-            MethodHandles.Lookup lookup = getServerMethodHandleLookup();
+            // The constructor lookup is only done once per sink class, the handle is then shared by all sessions.
+            MethodHandle ctorHandle = SINK_CONSTRUCTORS.get(msgMetadata.getSinkClass());
             if (AbstractDecodedMessageSink.class.isAssignableFrom(msgMetadata.getSinkClass()))
             {
-                MethodHandle ctorHandle = lookup.findConstructor(msgMetadata.getSinkClass(),
-                    MethodType.methodType(void.class, CoreSession.class, MethodHandle.class, List.class));
                 List<RegisteredDecoder> registeredDecoders = msgMetadata.getRegisteredDecoders();
                 return (MessageSink)ctorHandle.invoke(session.getCoreSession(), msgMetadata.getMethodHandle(), registeredDecoders);
             }
             else
             {
-                MethodHandle ctorHandle = lookup.findConstructor(msgMetadata.getSinkClass(),
-                    MethodType.methodType(void.class, CoreSession.class, MethodHandle.class));
                 return (MessageSink)ctorHandle.invoke(session.getCoreSession(), msgMetadata.getMethodHandle());
             }
         }
-        catch (NoSuchMethodException e)
-        {
-            throw new RuntimeException("Missing expected MessageSink constructor found at: " + msgMetadata.getSinkClass().getName(), e);
-        }
-        catch (IllegalAccessException | InstantiationException | InvocationTargetException e)
+        catch (InstantiationException | InvocationTargetException e)
         {
             throw new RuntimeException("Unable to create MessageSink: " + msgMetadata.getSinkClass().getName(), e);
         }
@@ -20,6 +20,8 @@ package org.eclipse.jetty.websocket.javax.common;
 
 import java.lang.invoke.MethodHandle;
 import java.util.List;
+import java.util.stream.Collectors;
+import javax.websocket.EndpointConfig;
 
 import org.eclipse.jetty.websocket.javax.common.decoders.RegisteredDecoder;
 import org.eclipse.jetty.websocket.util.messages.MessageSink;
@@ -47,6 +49,26 @@ public class JavaxWebSocketMessageMetadata
         return copy;
     }
 
+    /**
+     * Copy the metadata for use by a new session, the copy has its own {@link RegisteredDecoder}s
+     * so that the session gets its own {@link javax.websocket.Decoder} instances initialized with its configuration.
+     *
+     * @param metadata the metadata to copy.
+     * @param endpointConfig the endpoint configuration of the new session.
+     * @return a copy of the metadata, or null if the metadata was null.
+     */
+    public static JavaxWebSocketMessageMetadata copyOf(JavaxWebSocketMessageMetadata metadata, EndpointConfig endpointConfig)
+    {
+        JavaxWebSocketMessageMetadata copy = copyOf(metadata);
+        if (copy != null && copy.registeredDecoders != null)
+        {
+            copy.registeredDecoders = copy.registeredDecoders.stream()
+                .map(decoder -> decoder.copyOf(endpointConfig))
+                .collect(Collectors.toList());
+        }
+        return copy;
+    }
+
     public boolean isMaxMessageSizeSet()
     {
         return maxMessageSizeSet;
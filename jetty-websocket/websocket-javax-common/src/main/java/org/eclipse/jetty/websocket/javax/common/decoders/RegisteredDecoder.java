@@ -50,6 +50,15 @@ public class RegisteredDecoder
         this.config = endpointConfig;
     }
 
+    /**
+     * @param endpointConfig the configuration used to initialize the Decoder instance of the copy.
+     * @return a copy of this RegisteredDecoder which will create its own Decoder instance.
+     */
+    public RegisteredDecoder copyOf(EndpointConfig endpointConfig)
+    {
+        return new RegisteredDecoder(decoder, interfaceType, objectType, endpointConfig, primitive);
+    }
+
     public boolean implementsInterface(Class<? extends Decoder> type)
     {
         return interfaceType.isAssignableFrom(type);
@@ -37,6 +37,8 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class JavaxWebSocketFrameHandlerOnMessageTextTest extends AbstractJavaxWebSocketFrameHandlerTest
@@ -97,6 +99,22 @@ public class JavaxWebSocketFrameHandlerOnMessageTextTest extends AbstractJavaxWe
         assertOnMessageInvocation(new MessageTextSocket(), containsString("onMessage(Hello World)"));
     }
 
+    @Test
+    public void testMetadataSharedBetweenSessions() throws Exception
+    {
+        JavaxWebSocketFrameHandlerFactory factory = container.getFrameHandlerFactory();
+        JavaxWebSocketFrameHandlerMetadata metadata = factory.getCachedMetadata(MessageTextSocket.class, endpointConfig);
+        assertThat(factory.getCachedMetadata(MessageTextSocket.class, endpointConfig), sameInstance(metadata));
+
+        // Each session still gets its own copy of the message metadata.
+        JavaxWebSocketFrameHandler handler1 = newJavaxFrameHandler(new MessageTextSocket());
+        JavaxWebSocketFrameHandler handler2 = newJavaxFrameHandler(new MessageTextSocket());
+        assertThat(handler1.getTextMetadata(), not(sameInstance(metadata.getTextMetadata())));
+        assertThat(handler1.getTextMetadata(), not(sameInstance(handler2.getTextMetadata())));
+
+        assertOnMessageInvocation(new MessageTextSocket(), containsString("onMessage(Hello World)"));
+    }
+
     @ClientEndpoint
     public static class MessageSessionSocket extends TrackingSocket
     {
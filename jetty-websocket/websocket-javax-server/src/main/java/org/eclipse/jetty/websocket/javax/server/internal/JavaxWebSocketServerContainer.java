@@ -261,7 +261,7 @@ public class JavaxWebSocketServerContainer extends JavaxWebSocketClientContainer
     {
         try
         {
-            frameHandlerFactory.getMetadata(config.getEndpointClass(), config);
+            frameHandlerFactory.getCachedMetadata(config.getEndpointClass(), config);
             JavaxWebSocketCreator creator = new JavaxWebSocketCreator(this, config, getExtensionRegistry());
             PathSpec pathSpec = new UriTemplatePathSpec(config.getPath());
             webSocketMappings.addMapping(pathSpec, creator, frameHandlerFactory, defaultCustomizer);
@@ -18,8 +18,12 @@
 
 package org.eclipse.jetty.websocket.api;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -39,6 +43,76 @@ public interface WebSocketContainer
      */
     Collection<Session> getOpenSessions();
 
+    /**
+     * Send a whole text message to many sessions.
+     * <p>
+     * The message is encoded only once for all the sessions that negotiated the same extensions,
+     * instead of once per session as with {@link RemoteEndpoint#sendString(String, WriteCallback)}.
+     * The default implementation sends the message to each session's {@link RemoteEndpoint}.
+     *
+     * @param sessions the sessions to send the message to
+     * @param text the message
+     * @param callback notified once the message has been sent to all the sessions, or of the first failure
+     */
+    default void broadcast(Collection<Session> sessions, String text, WriteCallback callback)
+    {
+        List<Session> targets = new ArrayList<>(sessions);
+        WriteCallback each = newBroadcastCallback(targets.size(), callback);
+        for (Session session : targets)
+        {
+            session.getRemote().sendString(text, each);
+        }
+    }
+
+    /**
+     * Send a whole binary message to many sessions.
+     * <p>
+     * The message is encoded only once for all the sessions that negotiated the same extensions,
+     * instead of once per session as with {@link RemoteEndpoint#sendBytes(ByteBuffer, WriteCallback)}.
+     * The default implementation sends the message to each session's {@link RemoteEndpoint}.
+     *
+     * @param sessions the sessions to send the message to
+     * @param data the message, which must not be modified until the callback is notified
+     * @param callback notified once the message has been sent to all the sessions, or of the first failure
+     */
+    default void broadcast(Collection<Session> sessions, ByteBuffer data, WriteCallback callback)
+    {
+        List<Session> targets = new ArrayList<>(sessions);
+        WriteCallback each = newBroadcastCallback(targets.size(), callback);
+        for (Session session : targets)
+        {
+            session.getRemote().sendBytes(data.slice(), each);
+        }
+    }
+
+    private static WriteCallback newBroadcastCallback(int count, WriteCallback callback)
+    {
+        WriteCallback result = callback == null ? WriteCallback.NOOP : callback;
+        if (count == 0)
+        {
+            result.writeSuccess();
+            return result;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(count);
+        return new WriteCallback()
+        {
+            @Override
+            public void writeFailed(Throwable x)
+            {
+                if (remaining.getAndSet(0) > 0)
+                    result.writeFailed(x);
+            }
+
+            @Override
+            public void writeSuccess()
+            {
+                if (remaining.getAndUpdate(r -> r > 0 ? r - 1 : 0) == 1)
+                    result.writeSuccess();
+            }
+        };
+    }
+
     /**
      * Register a WebSocketSessionListener with the container
      *
@@ -39,6 +39,8 @@ import org.eclipse.jetty.websocket.api.Session;
  * <li><code>public void methodName({@link Session} session, String text)</code></li>
  * <li><code>public void methodName(Reader reader)</code></li>
  * <li><code>public void methodName({@link Session} session, Reader reader)</code></li>
+ * <li><code>public void methodName(Flow.Publisher&lt;String&gt; publisher)</code></li>
+ * <li><code>public void methodName({@link Session} session, Flow.Publisher&lt;String&gt; publisher)</code></li>
  * </ol>
  * Note: that the {@link Reader} in this case will always use UTF-8 encoding/charset (this is dictated by the RFC 6455 spec for Text Messages. If you need to
  * use a non-UTF-8 encoding/charset, you are instructed to use the binary messaging techniques.
@@ -51,7 +53,12 @@ import org.eclipse.jetty.websocket.api.Session;
  * <li><code>public void methodName({@link Session} session, byte buf[], int offset, int length)</code></li>
  * <li><code>public void methodName(InputStream stream)</code></li>
  * <li><code>public void methodName({@link Session} session, InputStream stream)</code></li>
+ * <li><code>public void methodName(Flow.Publisher&lt;ByteBuffer&gt; publisher)</code></li>
+ * <li><code>public void methodName({@link Session} session, Flow.Publisher&lt;ByteBuffer&gt; publisher)</code></li>
  * </ol>
+ * Note: the {@code Flow.Publisher} versions stream the message to the subscriber without aggregating it,
+ * no more frames are read until the subscriber requests more parts of the message.
+ * A published {@code ByteBuffer} is only valid until {@code onNext()} returns.
  */
 @Documented
 @Retention(RetentionPolicy.RUNTIME)
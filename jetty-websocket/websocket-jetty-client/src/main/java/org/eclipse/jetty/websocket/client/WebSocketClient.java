@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.net.CookieStore;
 import java.net.SocketAddress;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
@@ -48,7 +49,9 @@ import org.eclipse.jetty.websocket.api.WebSocketBehavior;
 import org.eclipse.jetty.websocket.api.WebSocketContainer;
 import org.eclipse.jetty.websocket.api.WebSocketPolicy;
 import org.eclipse.jetty.websocket.api.WebSocketSessionListener;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 import org.eclipse.jetty.websocket.client.impl.JettyClientUpgradeRequest;
+import org.eclipse.jetty.websocket.common.JettyWebSocketBroadcaster;
 import org.eclipse.jetty.websocket.common.JettyWebSocketFrameHandler;
 import org.eclipse.jetty.websocket.common.JettyWebSocketFrameHandlerFactory;
 import org.eclipse.jetty.websocket.common.SessionTracker;
@@ -189,6 +192,18 @@ public class WebSocketClient extends ContainerLifeCycle implements WebSocketPoli
         dumpObjects(out, indent, getOpenSessions());
     }
 
+    @Override
+    public void broadcast(Collection<Session> sessions, String text, WriteCallback callback)
+    {
+        JettyWebSocketBroadcaster.broadcast(sessions, text, callback);
+    }
+
+    @Override
+    public void broadcast(Collection<Session> sessions, ByteBuffer data, WriteCallback callback)
+    {
+        JettyWebSocketBroadcaster.broadcast(sessions, data, callback);
+    }
+
     @Override
     public WebSocketBehavior getBehavior()
     {
@@ -333,6 +348,39 @@ public class WebSocketClient extends ContainerLifeCycle implements WebSocketPoli
         getHttpClient().setConnectTimeout(ms);
     }
 
+    public boolean isPreferHTTP2()
+    {
+        return coreClient.isPreferHTTP2();
+    }
+
+    /**
+     * Set whether to connect over HTTP/2, with the extended CONNECT of RFC 8441, when the
+     * {@link HttpClient} transport supports it.
+     *
+     * @param preferHTTP2 whether to prefer HTTP/2 for WebSocket connections
+     * @see WebSocketCoreClient#setPreferHTTP2(boolean)
+     */
+    public void setPreferHTTP2(boolean preferHTTP2)
+    {
+        coreClient.setPreferHTTP2(preferHTTP2);
+    }
+
+    public int getHTTP2ConnectionsPerOrigin()
+    {
+        return coreClient.getHTTP2ConnectionsPerOrigin();
+    }
+
+    /**
+     * Set the number of HTTP/2 connections per origin that sessions are balanced across.
+     *
+     * @param connections the number of HTTP/2 connections per origin
+     * @see WebSocketCoreClient#setHTTP2ConnectionsPerOrigin(int)
+     */
+    public void setHTTP2ConnectionsPerOrigin(int connections)
+    {
+        coreClient.setHTTP2ConnectionsPerOrigin(connections);
+    }
+
     public CookieStore getCookieStore()
     {
         return getHttpClient().getCookieStore();
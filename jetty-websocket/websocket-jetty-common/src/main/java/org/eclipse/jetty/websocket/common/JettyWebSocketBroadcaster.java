@@ -0,0 +1,68 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+package org.eclipse.jetty.websocket.common;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.core.Broadcaster;
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.OpCode;
+
+/**
+ * Implements the broadcast methods of {@link org.eclipse.jetty.websocket.api.WebSocketContainer}
+ * with the {@link Broadcaster} of the sessions' {@link CoreSession}s.
+ */
+public class JettyWebSocketBroadcaster
+{
+    private JettyWebSocketBroadcaster()
+    {
+    }
+
+    public static void broadcast(Collection<Session> sessions, String text, WriteCallback callback)
+    {
+        broadcast(sessions, new Frame(OpCode.TEXT).setPayload(text), callback);
+    }
+
+    public static void broadcast(Collection<Session> sessions, ByteBuffer data, WriteCallback callback)
+    {
+        broadcast(sessions, new Frame(OpCode.BINARY).setPayload(data), callback);
+    }
+
+    private static void broadcast(Collection<Session> sessions, Frame frame, WriteCallback callback)
+    {
+        Callback cb = callback == null ? Callback.NOOP : Callback.from(callback::writeSuccess, callback::writeFailed);
+        List<CoreSession> coreSessions = new ArrayList<>(sessions.size());
+        for (Session session : sessions)
+        {
+            if (!(session instanceof WebSocketSession))
+            {
+                cb.failed(new IllegalArgumentException("Unsupported session " + session));
+                return;
+            }
+            coreSessions.add(((WebSocketSession)session).getCoreSession());
+        }
+        Broadcaster.broadcast(frame, coreSessions, cb);
+    }
+}
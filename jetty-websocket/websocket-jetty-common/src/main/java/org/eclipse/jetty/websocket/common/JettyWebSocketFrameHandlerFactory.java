@@ -28,11 +28,14 @@ import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 
 import org.eclipse.jetty.util.component.ContainerLifeCycle;
 import org.eclipse.jetty.websocket.api.BatchMode;
@@ -57,12 +60,14 @@ import org.eclipse.jetty.websocket.util.InvokerUtils;
 import org.eclipse.jetty.websocket.util.ReflectUtils;
 import org.eclipse.jetty.websocket.util.messages.ByteArrayMessageSink;
 import org.eclipse.jetty.websocket.util.messages.ByteBufferMessageSink;
+import org.eclipse.jetty.websocket.util.messages.ByteBufferPublisherMessageSink;
 import org.eclipse.jetty.websocket.util.messages.InputStreamMessageSink;
 import org.eclipse.jetty.websocket.util.messages.MessageSink;
 import org.eclipse.jetty.websocket.util.messages.PartialByteBufferMessageSink;
 import org.eclipse.jetty.websocket.util.messages.PartialStringMessageSink;
 import org.eclipse.jetty.websocket.util.messages.ReaderMessageSink;
 import org.eclipse.jetty.websocket.util.messages.StringMessageSink;
+import org.eclipse.jetty.websocket.util.messages.StringPublisherMessageSink;
 
 /**
  * Factory to create {@link JettyWebSocketFrameHandler} instances suitable for
@@ -82,6 +87,27 @@ import org.eclipse.jetty.websocket.util.messages.StringMessageSink;
  */
 public class JettyWebSocketFrameHandlerFactory extends ContainerLifeCycle
 {
+    private static final ClassValue<MethodHandle> SINK_CONSTRUCTORS = new ClassValue<>()
+    {
+        @Override
+        protected MethodHandle computeValue(Class<?> sinkClass)
+        {
+            try
+            {
+                MethodHandles.Lookup lookup = JettyWebSocketFrameHandlerFactory.getServerMethodHandleLookup();
+                return lookup.findConstructor(sinkClass, MethodType.methodType(void.class, CoreSession.class, MethodHandle.class));
+            }
+            catch (NoSuchMethodException e)
+            {
+                throw new RuntimeException("Missing expected MessageSink constructor found at: " + sinkClass.getName(), e);
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new RuntimeException("Unable to create MessageSink: " + sinkClass.getName(), e);
+            }
+        }
+    };
+
     private final WebSocketContainer container;
     private Map<Class<?>, JettyWebSocketFrameHandlerMetadata> metadataMap = new ConcurrentHashMap<>();
 
@@ -92,15 +118,7 @@ public class JettyWebSocketFrameHandlerFactory extends ContainerLifeCycle
 
     public JettyWebSocketFrameHandlerMetadata getMetadata(Class<?> endpointClass)
     {
-        JettyWebSocketFrameHandlerMetadata metadata = metadataMap.get(endpointClass);
-
-        if (metadata == null)
-        {
-            metadata = createMetadata(endpointClass);
-            metadataMap.put(endpointClass, metadata);
-        }
-
-        return metadata;
+        return metadataMap.computeIfAbsent(endpointClass, this::createMetadata);
     }
 
     public JettyWebSocketFrameHandlerMetadata createMetadata(Class<?> endpointClass)
@@ -157,16 +175,11 @@ public class JettyWebSocketFrameHandlerFactory extends ContainerLifeCycle
 
         try
         {
-            MethodHandles.Lookup lookup = JettyWebSocketFrameHandlerFactory.getServerMethodHandleLookup();
-            MethodHandle ctorHandle = lookup.findConstructor(sinkClass,
-                MethodType.methodType(void.class, CoreSession.class, MethodHandle.class));
+            // The constructor lookup is only done once per sink class, the handle is then shared by all sessions.
+            MethodHandle ctorHandle = SINK_CONSTRUCTORS.get(sinkClass);
             return (MessageSink)ctorHandle.invoke(session.getCoreSession(), msgHandle);
         }
-        catch (NoSuchMethodException e)
-        {
-            throw new RuntimeException("Missing expected MessageSink constructor found at: " + sinkClass.getName(), e);
-        }
-        catch (IllegalAccessException | InstantiationException | InvocationTargetException e)
+        catch (InstantiationException | InvocationTargetException e)
         {
             throw new RuntimeException("Unable to create MessageSink: " + sinkClass.getName(), e);
         }
@@ -357,6 +370,11 @@ public class JettyWebSocketFrameHandlerFactory extends ContainerLifeCycle
                 new InvokerUtils.Arg(Reader.class).required()
             };
 
+            InvokerUtils.Arg[] publisherCallingArgs = new InvokerUtils.Arg[]{
+                new InvokerUtils.Arg(Session.class),
+                new InvokerUtils.Arg(Flow.Publisher.class).required()
+            };
+
             for (Method onMsg : onMessages)
             {
                 assertSignatureValid(endpointClass, onMsg, OnWebSocketMessage.class);
@@ -397,6 +415,21 @@ public class JettyWebSocketFrameHandlerFactory extends ContainerLifeCycle
                     continue;
                 }
 
+                methodHandle = InvokerUtils.optionalMutatedInvoker(lookup, endpointClass, onMsg, publisherCallingArgs);
+                if (methodHandle != null)
+                {
+                    // Flow.Publisher Streaming Message, the type of the parts selects Text or Binary
+                    assertSignatureValid(endpointClass, onMsg, OnWebSocketMessage.class);
+                    Class<?> partType = getPublisherType(onMsg);
+                    if (partType == String.class)
+                        metadata.setTextHandler(StringPublisherMessageSink.class, methodHandle, onMsg);
+                    else if (partType == ByteBuffer.class)
+                        metadata.setBinaryHandle(ByteBufferPublisherMessageSink.class, methodHandle, onMsg);
+                    else
+                        throw InvalidSignatureException.build(endpointClass, OnWebSocketMessage.class, onMsg);
+                    continue;
+                }
+
                 methodHandle = InvokerUtils.optionalMutatedInvoker(lookup, endpointClass, onMsg, readerCallingArgs);
                 if (methodHandle != null)
                 {
@@ -416,6 +449,19 @@ public class JettyWebSocketFrameHandlerFactory extends ContainerLifeCycle
         return metadata;
     }
 
+    private static Class<?> getPublisherType(Method method)
+    {
+        for (Type type : method.getGenericParameterTypes())
+        {
+            if (type instanceof ParameterizedType && ((ParameterizedType)type).getRawType() == Flow.Publisher.class)
+            {
+                Type partType = ((ParameterizedType)type).getActualTypeArguments()[0];
+                return partType instanceof Class ? (Class<?>)partType : null;
+            }
+        }
+        return null;
+    }
+
     private void assertSignatureValid(Class<?> endpointClass, Method method, Class<? extends Annotation> annotationClass)
     {
         // Test modifiers
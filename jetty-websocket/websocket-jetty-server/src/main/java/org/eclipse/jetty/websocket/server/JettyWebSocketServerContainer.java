@@ -18,6 +18,7 @@
 
 package org.eclipse.jetty.websocket.server;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -35,6 +36,8 @@ import org.eclipse.jetty.websocket.api.WebSocketBehavior;
 import org.eclipse.jetty.websocket.api.WebSocketContainer;
 import org.eclipse.jetty.websocket.api.WebSocketPolicy;
 import org.eclipse.jetty.websocket.api.WebSocketSessionListener;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.JettyWebSocketBroadcaster;
 import org.eclipse.jetty.websocket.common.SessionTracker;
 import org.eclipse.jetty.websocket.core.Configuration;
 import org.eclipse.jetty.websocket.core.WebSocketComponents;
@@ -202,6 +205,18 @@ public class JettyWebSocketServerContainer extends ContainerLifeCycle implements
         return sessionTracker.getSessions();
     }
 
+    @Override
+    public void broadcast(Collection<Session> sessions, String text, WriteCallback callback)
+    {
+        JettyWebSocketBroadcaster.broadcast(sessions, text, callback);
+    }
+
+    @Override
+    public void broadcast(Collection<Session> sessions, ByteBuffer data, WriteCallback callback)
+    {
+        JettyWebSocketBroadcaster.broadcast(sessions, data, callback);
+    }
+
     @Override
     public WebSocketBehavior getBehavior()
     {
@@ -23,6 +23,8 @@ import java.io.InterruptedIOException;
 import java.net.ConnectException;
 import java.net.URI;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -32,7 +34,11 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.client.ConnectionPool;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpClientTransport;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.RoundRobinConnectionPool;
 import org.eclipse.jetty.client.dynamic.HttpClientTransportDynamic;
 import org.eclipse.jetty.client.http.HttpClientConnectionFactory;
 import org.eclipse.jetty.http2.ErrorCode;
@@ -61,6 +67,7 @@ import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.StatusCode;
 import org.eclipse.jetty.websocket.api.exceptions.UpgradeException;
 import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.eclipse.jetty.websocket.core.client.WebSocketCoreClient;
 import org.eclipse.jetty.websocket.server.JettyWebSocketServlet;
 import org.eclipse.jetty.websocket.server.JettyWebSocketServletFactory;
 import org.eclipse.jetty.websocket.server.config.JettyWebSocketServletContainerInitializer;
@@ -72,9 +79,11 @@ import org.junit.jupiter.api.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsStringIgnoringCase;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WebSocketOverHTTP2Test
@@ -196,6 +205,113 @@ public class WebSocketOverHTTP2Test
         assertThat(cause.getMessage(), containsStringIgnoringCase(ErrorCode.PROTOCOL_ERROR.name()));
     }
 
+    @Test
+    public void testConnectProtocolDisabledFallsBackToHTTP1() throws Exception
+    {
+        startServer();
+        AbstractHTTP2ServerConnectionFactory h2c = connector.getBean(AbstractHTTP2ServerConnectionFactory.class);
+        h2c.setConnectProtocolEnabled(false);
+
+        ClientConnector clientConnector = new ClientConnector();
+        QueuedThreadPool clientThreads = new QueuedThreadPool();
+        clientThreads.setName("client");
+        clientConnector.setExecutor(clientThreads);
+        ClientConnectionFactory.Info h2 = new ClientConnectionFactoryOverHTTP2.HTTP2(new HTTP2Client(clientConnector));
+        HttpClient httpClient = new HttpClient(new HttpClientTransportDynamic(clientConnector, h2, HttpClientConnectionFactory.HTTP11));
+        wsClient = new WebSocketClient(httpClient);
+        wsClient.start();
+
+        URI uri = URI.create("ws://localhost:" + connector.getLocalPort() + "/ws/echo");
+
+        // The first attempt is made over HTTP/2, finds out that extended CONNECT is not enabled,
+        // and is retried over HTTP/1.1 without the application noticing.
+        for (int i = 0; i < 2; i++)
+        {
+            EventSocket wsEndPoint = new EventSocket();
+            Session session = wsClient.connect(wsEndPoint, uri).get(5, TimeUnit.SECONDS);
+            session.getRemote().sendString("websocket");
+            assertEquals("websocket", wsEndPoint.textMessages.poll(5, TimeUnit.SECONDS));
+            session.close(StatusCode.NORMAL, null);
+            assertTrue(wsEndPoint.closeLatch.await(5, TimeUnit.SECONDS));
+
+            // The origin is remembered, so subsequent attempts use HTTP/1.1 directly.
+            assertEquals(Boolean.FALSE, wsClient.getBean(WebSocketCoreClient.class).isExtendedConnectSupported(uri));
+        }
+    }
+
+    @Test
+    public void testDynamicTransportConnectsToHTTP1OnlyServer() throws Exception
+    {
+        startServer();
+        ServerConnector h1Connector = new ServerConnector(server, 1, 1, new HttpConnectionFactory());
+        server.addConnector(h1Connector);
+        h1Connector.start();
+
+        ClientConnector clientConnector = new ClientConnector();
+        QueuedThreadPool clientThreads = new QueuedThreadPool();
+        clientThreads.setName("client");
+        clientConnector.setExecutor(clientThreads);
+        ClientConnectionFactory.Info h2 = new ClientConnectionFactoryOverHTTP2.HTTP2(new HTTP2Client(clientConnector));
+        HttpClient httpClient = new HttpClient(new HttpClientTransportDynamic(clientConnector, h2, HttpClientConnectionFactory.HTTP11));
+        wsClient = new WebSocketClient(httpClient);
+        wsClient.start();
+
+        // HTTP/2 is preferred by default, the attempt over HTTP/2 fails and is retried over HTTP/1.1.
+        EventSocket wsEndPoint = new EventSocket();
+        URI uri = URI.create("ws://localhost:" + h1Connector.getLocalPort() + "/ws/echo");
+        Session session = wsClient.connect(wsEndPoint, uri).get(5, TimeUnit.SECONDS);
+        session.getRemote().sendString("websocket");
+        assertEquals("websocket", wsEndPoint.textMessages.poll(5, TimeUnit.SECONDS));
+        session.close(StatusCode.NORMAL, null);
+        assertTrue(wsEndPoint.closeLatch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHTTP2ConnectionsPerOrigin() throws Exception
+    {
+        startServer();
+
+        ClientConnector clientConnector = new ClientConnector();
+        QueuedThreadPool clientThreads = new QueuedThreadPool();
+        clientThreads.setName("client");
+        clientConnector.setExecutor(clientThreads);
+        ClientConnectionFactory.Info h2 = new ClientConnectionFactoryOverHTTP2.HTTP2(new HTTP2Client(clientConnector));
+        HttpClient httpClient = new HttpClient(new HttpClientTransportDynamic(clientConnector, h2, HttpClientConnectionFactory.HTTP11));
+        HttpClientTransport transport = httpClient.getTransport();
+        ConnectionPool.Factory connectionPoolFactory = transport.getConnectionPoolFactory();
+        wsClient = new WebSocketClient(httpClient);
+        wsClient.setPreferHTTP2(true);
+        wsClient.setHTTP2ConnectionsPerOrigin(2);
+        wsClient.start();
+
+        URI uri = URI.create("ws://localhost:" + connector.getLocalPort() + "/ws/echo");
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            EventSocket wsEndPoint = new EventSocket();
+            Session session = wsClient.connect(wsEndPoint, uri).get(5, TimeUnit.SECONDS);
+            session.getRemote().sendString("websocket" + i);
+            assertEquals("websocket" + i, wsEndPoint.textMessages.poll(5, TimeUnit.SECONDS));
+            sessions.add(session);
+        }
+
+        HttpDestination destination = (HttpDestination)httpClient.getDestinations().get(0);
+        assertThat(destination.getConnectionPool(), instanceOf(RoundRobinConnectionPool.class));
+        assertThat(((RoundRobinConnectionPool)destination.getConnectionPool()).getConnectionCount(), lessThanOrEqualTo(2));
+
+        for (Session session : sessions)
+        {
+            session.close(StatusCode.NORMAL, null);
+        }
+
+        // The transport of the HttpClient is restored when the client stops, so restarting does not wrap it again.
+        wsClient.stop();
+        assertSame(connectionPoolFactory, transport.getConnectionPoolFactory());
+        wsClient.start();
+        wsClient.stop();
+        assertSame(connectionPoolFactory, transport.getConnectionPoolFactory());
+    }
+
     @Test
     public void testSlowWebSocketUpgradeWithHTTP2DataFramesQueued() throws Exception
     {
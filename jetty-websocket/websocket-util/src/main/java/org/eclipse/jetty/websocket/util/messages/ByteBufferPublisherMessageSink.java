@@ -0,0 +1,43 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.websocket.util.messages;
+
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.Frame;
+
+/**
+ * A {@link PublisherMessageSink} publishing the payload of each frame of a binary message.
+ * The published {@link ByteBuffer} is only valid until {@link java.util.concurrent.Flow.Subscriber#onNext(Object)} returns.
+ */
+public class ByteBufferPublisherMessageSink extends PublisherMessageSink<ByteBuffer>
+{
+    public ByteBufferPublisherMessageSink(CoreSession session, MethodHandle methodHandle)
+    {
+        super(session, methodHandle);
+    }
+
+    @Override
+    protected ByteBuffer next(Frame frame)
+    {
+        return frame.hasPayload() ? frame.getPayload() : null;
+    }
+}
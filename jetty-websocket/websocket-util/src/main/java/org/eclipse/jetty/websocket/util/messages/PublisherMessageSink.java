@@ -0,0 +1,264 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.websocket.util.messages;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.Flow;
+
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.MathUtils;
+import org.eclipse.jetty.util.thread.AutoLock;
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.Frame;
+
+/**
+ * <p>A {@link MessageSink} which streams each message to a {@link Flow.Subscriber} with backpressure.</p>
+ * <p>On the first frame of a message the method is invoked with a {@link Flow.Publisher} for that message,
+ * the parts of the message are then delivered to the subscriber as they arrive from the network,
+ * so the message is never aggregated in memory.</p>
+ * <p>The callback of a frame is only completed after its part has been delivered to the subscriber,
+ * so when the subscriber does not {@link Flow.Subscription#request(long) request} more parts
+ * no more frames are read from the network. If the method does not subscribe to the publisher,
+ * the connection will stay suspended until the subscription is made or the idle timeout expires.</p>
+ * <p>The part passed to {@link Flow.Subscriber#onNext(Object)} is only valid for the duration of that call.</p>
+ *
+ * @param <T> the type of the parts of the message
+ */
+public abstract class PublisherMessageSink<T> extends AbstractMessageSink
+{
+    private MessagePublisher publisher;
+
+    public PublisherMessageSink(CoreSession session, MethodHandle methodHandle)
+    {
+        super(session, methodHandle);
+    }
+
+    @Override
+    public void accept(Frame frame, Callback callback)
+    {
+        MessagePublisher current = publisher;
+        try
+        {
+            if (current == null)
+            {
+                current = new MessagePublisher();
+                publisher = current;
+                methodHandle.invoke(current);
+            }
+
+            T item = next(frame);
+            if (frame.isFin())
+                publisher = null;
+            current.offer(item, frame.isFin(), callback);
+        }
+        catch (Throwable t)
+        {
+            publisher = null;
+            if (current != null)
+                current.fail(t);
+            callback.failed(t);
+        }
+    }
+
+    /**
+     * @param frame the frame of the message
+     * @return the part of the message to deliver for this frame, or null if there is nothing to deliver
+     */
+    protected abstract T next(Frame frame);
+
+    private class MessagePublisher implements Flow.Publisher<T>, Flow.Subscription
+    {
+        private final AutoLock lock = new AutoLock();
+        private Flow.Subscriber<? super T> subscriber;
+        private long demand;
+        private boolean delivering;
+        private boolean done;
+        private T item;
+        private boolean last;
+        private Callback callback;
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber)
+        {
+            boolean subscribed;
+            try (AutoLock l = lock.lock())
+            {
+                subscribed = this.subscriber != null || done;
+                if (!subscribed)
+                    this.subscriber = subscriber;
+            }
+
+            if (subscribed)
+            {
+                subscriber.onSubscribe(new Flow.Subscription()
+                {
+                    @Override
+                    public void request(long n)
+                    {
+                    }
+
+                    @Override
+                    public void cancel()
+                    {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("Message already subscribed"));
+                return;
+            }
+
+            subscriber.onSubscribe(this);
+            process();
+        }
+
+        @Override
+        public void request(long n)
+        {
+            if (n <= 0)
+            {
+                Flow.Subscriber<? super T> subscriber;
+                try (AutoLock l = lock.lock())
+                {
+                    subscriber = this.subscriber;
+                }
+                cancel();
+                if (subscriber != null)
+                    subscriber.onError(new IllegalArgumentException("Invalid demand " + n));
+                return;
+            }
+
+            try (AutoLock l = lock.lock())
+            {
+                demand = MathUtils.cappedAdd(demand, n);
+            }
+            process();
+        }
+
+        @Override
+        public void cancel()
+        {
+            Callback callback;
+            try (AutoLock l = lock.lock())
+            {
+                done = true;
+                callback = this.callback;
+                this.callback = null;
+                item = null;
+            }
+
+            // The rest of the message is discarded.
+            if (callback != null)
+                callback.succeeded();
+        }
+
+        private void offer(T item, boolean last, Callback callback)
+        {
+            try (AutoLock l = lock.lock())
+            {
+                if (!done && (item != null || last))
+                {
+                    this.item = item;
+                    this.last = last;
+                    this.callback = callback;
+                    callback = null;
+                }
+            }
+
+            // Nothing to deliver, read the next frame.
+            if (callback != null)
+                callback.succeeded();
+            else
+                process();
+        }
+
+        private void fail(Throwable failure)
+        {
+            Flow.Subscriber<? super T> subscriber;
+            try (AutoLock l = lock.lock())
+            {
+                subscriber = done ? null : this.subscriber;
+                done = true;
+            }
+
+            if (subscriber != null)
+                subscriber.onError(failure);
+        }
+
+        private void process()
+        {
+            while (true)
+            {
+                Flow.Subscriber<? super T> subscriber;
+                T item;
+                boolean last;
+                Callback callback;
+                try (AutoLock l = lock.lock())
+                {
+                    if (delivering || done || this.callback == null || this.subscriber == null)
+                        return;
+                    if (this.item != null)
+                    {
+                        if (demand == 0)
+                            return;
+                        --demand;
+                    }
+                    subscriber = this.subscriber;
+                    item = this.item;
+                    last = this.last;
+                    callback = this.callback;
+                    this.item = null;
+                    this.callback = null;
+                    delivering = true;
+                }
+
+                try
+                {
+                    if (item != null)
+                        subscriber.onNext(item);
+                    if (last)
+                    {
+                        boolean complete;
+                        try (AutoLock l = lock.lock())
+                        {
+                            complete = !done;
+                            done = true;
+                        }
+                        if (complete)
+                            subscriber.onComplete();
+                    }
+                    callback.succeeded();
+                }
+                catch (Throwable x)
+                {
+                    try (AutoLock l = lock.lock())
+                    {
+                        done = true;
+                    }
+                    callback.failed(x);
+                }
+                finally
+                {
+                    try (AutoLock l = lock.lock())
+                    {
+                        delivering = false;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.websocket.util.messages;
+
+import java.lang.invoke.MethodHandle;
+
+import org.eclipse.jetty.util.Utf8StringBuilder;
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.Frame;
+
+/**
+ * A {@link PublisherMessageSink} publishing the characters of a text message as they are decoded from each frame.
+ */
+public class StringPublisherMessageSink extends PublisherMessageSink<String>
+{
+    private Utf8StringBuilder out;
+
+    public StringPublisherMessageSink(CoreSession session, MethodHandle methodHandle)
+    {
+        super(session, methodHandle);
+    }
+
+    @Override
+    protected String next(Frame frame)
+    {
+        try
+        {
+            if (out == null)
+                out = new Utf8StringBuilder(session.getInputBufferSize());
+
+            if (frame.hasPayload())
+                out.append(frame.getPayload());
+            String partial = frame.isFin() ? out.toString() : out.takePartialString();
+            return partial.isEmpty() ? null : partial;
+        }
+        finally
+        {
+            if (frame.isFin())
+                out = null;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.websocket.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.util.FutureCallback;
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.OpCode;
+import org.eclipse.jetty.websocket.util.messages.ByteBufferPublisherMessageSink;
+import org.eclipse.jetty.websocket.util.messages.StringPublisherMessageSink;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class PublisherMessageSinkTest
+{
+    private CoreSession coreSession = new CoreSession.Empty();
+
+    @Test
+    public void testBinaryBackpressure() throws Exception
+    {
+        OnMessageEndpoint endpoint = new OnMessageEndpoint();
+        ByteBufferPublisherMessageSink messageSink = new ByteBufferPublisherMessageSink(coreSession, endpoint.getMethodHandle());
+
+        FutureCallback callback = new FutureCallback();
+        messageSink.accept(new Frame(OpCode.BINARY, BufferUtil.toBuffer("Hello")).setFin(false), callback);
+        assertThat(endpoint.subscriber, notNullValue());
+
+        // No demand yet, so the frame is held and the next frame is not read.
+        assertThat(callback.isDone(), is(false));
+        endpoint.subscriber.subscription.request(1);
+        callback.block(5, TimeUnit.SECONDS);
+        assertThat(endpoint.subscriber.parts, contains("Hello"));
+
+        callback = new FutureCallback();
+        messageSink.accept(new Frame(OpCode.CONTINUATION, BufferUtil.toBuffer(" World")).setFin(true), callback);
+        assertThat(callback.isDone(), is(false));
+        endpoint.subscriber.subscription.request(1);
+        callback.block(5, TimeUnit.SECONDS);
+        assertThat(endpoint.subscriber.parts, contains("Hello", " World"));
+        assertThat(endpoint.subscriber.completed, is(true));
+        assertThat(endpoint.subscriber.failure, nullValue());
+    }
+
+    @Test
+    public void testCancelDiscardsMessage() throws Exception
+    {
+        OnMessageEndpoint endpoint = new OnMessageEndpoint();
+        ByteBufferPublisherMessageSink messageSink = new ByteBufferPublisherMessageSink(coreSession, endpoint.getMethodHandle());
+
+        FutureCallback callback = new FutureCallback();
+        messageSink.accept(new Frame(OpCode.BINARY, BufferUtil.toBuffer("Hello")).setFin(false), callback);
+        assertThat(callback.isDone(), is(false));
+
+        // Cancelling releases the held frame and discards the rest of the message.
+        endpoint.subscriber.subscription.cancel();
+        callback.block(5, TimeUnit.SECONDS);
+        callback = new FutureCallback();
+        messageSink.accept(new Frame(OpCode.CONTINUATION, BufferUtil.toBuffer(" World")).setFin(true), callback);
+        callback.block(5, TimeUnit.SECONDS);
+        assertThat(endpoint.subscriber.parts.isEmpty(), is(true));
+        assertThat(endpoint.subscriber.completed, is(false));
+
+        // The next message gets a new publisher.
+        OnMessageEndpoint.TestSubscriber previous = endpoint.subscriber;
+        endpoint.demand = Long.MAX_VALUE;
+        callback = new FutureCallback();
+        messageSink.accept(new Frame(OpCode.BINARY, BufferUtil.toBuffer("Next")).setFin(true), callback);
+        callback.block(5, TimeUnit.SECONDS);
+        assertThat(endpoint.subscriber == previous, is(false));
+        assertThat(endpoint.subscriber.parts, contains("Next"));
+        assertThat(endpoint.subscriber.completed, is(true));
+    }
+
+    @Test
+    public void testTextUtf8Continuation() throws Exception
+    {
+        OnMessageEndpoint endpoint = new OnMessageEndpoint();
+        endpoint.demand = Long.MAX_VALUE;
+        StringPublisherMessageSink messageSink = new StringPublisherMessageSink(coreSession, endpoint.getMethodHandle());
+
+        ByteBuffer firstUtf8Payload = BufferUtil.toBuffer(new byte[]{'a', (byte)0xF0, (byte)0x90});
+        ByteBuffer continuationUtf8Payload = BufferUtil.toBuffer(new byte[]{(byte)0x8D, (byte)0x88});
+
+        FutureCallback callback = new FutureCallback();
+        messageSink.accept(new Frame(OpCode.TEXT, firstUtf8Payload).setFin(false), callback);
+        callback.block(5, TimeUnit.SECONDS);
+
+        callback = new FutureCallback();
+        messageSink.accept(new Frame(OpCode.CONTINUATION, continuationUtf8Payload).setFin(true), callback);
+        callback.block(5, TimeUnit.SECONDS);
+
+        assertThat(endpoint.subscriber.parts, contains("a", "\uD800\uDF48"));
+        assertThat(endpoint.subscriber.completed, is(true));
+    }
+
+    public static class OnMessageEndpoint
+    {
+        private long demand;
+        private TestSubscriber subscriber;
+
+        public void onMessage(Flow.Publisher<Object> publisher)
+        {
+            subscriber = new TestSubscriber(demand);
+            publisher.subscribe(subscriber);
+        }
+
+        public MethodHandle getMethodHandle() throws Exception
+        {
+            return MethodHandles.lookup()
+                .findVirtual(this.getClass(), "onMessage", MethodType.methodType(void.class, Flow.Publisher.class))
+                .bindTo(this);
+        }
+
+        public static class TestSubscriber implements Flow.Subscriber<Object>
+        {
+            private final long demand;
+            private final List<String> parts = new CopyOnWriteArrayList<>();
+            private Flow.Subscription subscription;
+            private volatile boolean completed;
+            private volatile Throwable failure;
+
+            public TestSubscriber(long demand)
+            {
+                this.demand = demand;
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription)
+            {
+                this.subscription = subscription;
+                if (demand > 0)
+                    subscription.request(demand);
+            }
+
+            @Override
+            public void onNext(Object item)
+            {
+                parts.add(item instanceof ByteBuffer ? BufferUtil.toString((ByteBuffer)item) : (String)item);
+            }
+
+            @Override
+            public void onError(Throwable throwable)
+            {
+                failure = throwable;
+            }
+
+            @Override
+            public void onComplete()
+            {
+                completed = true;
+            }
+        }
+    }
+}
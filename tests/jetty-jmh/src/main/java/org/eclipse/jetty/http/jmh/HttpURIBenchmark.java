@@ -0,0 +1,97 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.HttpURI;
+import org.eclipse.jetty.util.URIUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Parses request targets the way a server request does: the target is parsed, completed
+ * with the scheme and authority, and the canonical decoded path is computed.
+ * Run with the GC profiler to see the allocations per request.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+public class HttpURIBenchmark
+{
+    @Param({
+        "/",
+        "/app/api/orders/123456",
+        "/app/api/orders/123456?expand=items&format=json",
+        "/app/files/My%20Document.pdf;jsessionid=0123456789abcdef?download=true",
+        "/app/static/./css/../js/site.js"
+    })
+    public String target;
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void testRequestPath(Blackhole blackhole)
+    {
+        HttpURI uri = parse();
+        blackhole.consume(URIUtil.canonicalPath(uri.getDecodedPath()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void testRequestPathAndQuery(Blackhole blackhole)
+    {
+        HttpURI uri = parse();
+        blackhole.consume(URIUtil.canonicalPath(uri.getDecodedPath()));
+        blackhole.consume(uri.getQuery());
+    }
+
+    private HttpURI parse()
+    {
+        HttpURI uri = HttpURI.from("GET", target);
+        return HttpURI.build(uri)
+            .scheme("http")
+            .host("localhost")
+            .port(8080)
+            .asImmutable();
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(HttpURIBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,70 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http2.hpack.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpScheme;
+import org.eclipse.jetty.http.HttpURI;
+import org.eclipse.jetty.http.HttpVersion;
+import org.eclipse.jetty.http.MetaData;
+
+/**
+ * A sequence of realistic request and response header blocks, as would be
+ * exchanged on a single HTTP/2 connection loading a page and its resources.
+ */
+class HpackBenchmarkData
+{
+    static final int BLOCKS = 32;
+
+    static List<MetaData> newBlocks()
+    {
+        List<MetaData> blocks = new ArrayList<>(BLOCKS);
+        for (int i = 0; i < BLOCKS / 2; i++)
+        {
+            String path = i == 0 ? "/index.html" : "/static/resource-" + i + (i % 3 == 0 ? ".css" : ".js");
+
+            HttpFields.Mutable requestFields = HttpFields.build()
+                .add(HttpHeader.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8")
+                .add(HttpHeader.ACCEPT_ENCODING, "gzip, deflate, br")
+                .add(HttpHeader.ACCEPT_LANGUAGE, "en-US,en;q=0.5")
+                .add(HttpHeader.USER_AGENT, "Mozilla/5.0 (X11; Linux x86_64; rv:82.0) Gecko/20100101 Firefox/82.0")
+                .add(HttpHeader.COOKIE, "JSESSIONID=node01a8k4lh3bqwz71ht1wi6ktvq5y0.node0; theme=dark")
+                .add(HttpHeader.REFERER, "https://www.example.com/index.html")
+                .add("x-request-id", "c0ffee-" + i);
+            HttpURI uri = HttpURI.build().scheme(HttpScheme.HTTPS).host("www.example.com").port(443).path(path);
+            blocks.add(new MetaData.Request("GET", uri, HttpVersion.HTTP_2, requestFields));
+
+            HttpFields.Mutable responseFields = HttpFields.build()
+                .add(HttpHeader.SERVER, "Jetty(10.0.x)")
+                .add(HttpHeader.DATE, "Wed, 21 Oct 2020 07:28:00 GMT")
+                .add(HttpHeader.CONTENT_TYPE, path.endsWith(".css") ? "text/css" : path.endsWith(".js") ? "application/javascript" : "text/html;charset=utf-8")
+                .add(HttpHeader.CACHE_CONTROL, "max-age=3600, public")
+                .add(HttpHeader.LAST_MODIFIED, "Tue, 20 Oct 2020 12:00:00 GMT")
+                .add(HttpHeader.ETAG, "W/\"" + Integer.toHexString(path.hashCode()) + "\"")
+                .add(HttpHeader.VARY, "Accept-Encoding")
+                .add(HttpHeader.CONTENT_LENGTH, Integer.toString(1024 + i * 37));
+            blocks.add(new MetaData.Response(HttpVersion.HTTP_2, 200, responseFields));
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,108 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.http2.hpack.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.http.MetaData;
+import org.eclipse.jetty.http2.hpack.HpackEncoder;
+import org.eclipse.jetty.util.BufferUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+@State(Scope.Thread)
+@Threads(4)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class HpackEncoderBenchmark
+{
+    private final List<MetaData> _blocks = HpackBenchmarkData.newBlocks();
+    private final ByteBuffer _buffer = BufferUtil.allocate(16 * 1024);
+    private HpackEncoder _warmEncoder;
+
+    @Setup
+    public void setUp() throws Exception
+    {
+        _warmEncoder = new HpackEncoder();
+        for (MetaData metaData : _blocks)
+        {
+            BufferUtil.clearToFill(_buffer);
+            _warmEncoder.encode(_buffer, metaData);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public int testEncodeNewConnection() throws Exception
+    {
+        // A new connection starts with an empty dynamic table.
+        HpackEncoder encoder = new HpackEncoder();
+        int bytes = 0;
+        for (MetaData metaData : _blocks)
+        {
+            BufferUtil.clearToFill(_buffer);
+            encoder.encode(_buffer, metaData);
+            bytes += _buffer.position();
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    public int testEncodeWarmConnection() throws Exception
+    {
+        // A long lived connection finds most fields in its dynamic table.
+        int bytes = 0;
+        for (MetaData metaData : _blocks)
+        {
+            BufferUtil.clearToFill(_buffer);
+            _warmEncoder.encode(_buffer, metaData);
+            bytes += _buffer.position();
+        }
+        return bytes;
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(HpackEncoderBenchmark.class.getSimpleName())
+            .warmupIterations(10)
+            .measurementIterations(10)
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,103 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.util.jmh;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.util.Utf8StringBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the decoding of UTF-8 bytes with {@link Utf8StringBuilder}, for
+ * ASCII-heavy JSON and for mixed-script text, from arrays and from heap or
+ * direct {@link ByteBuffer}s.
+ */
+@State(Scope.Thread)
+@Threads(4)
+@Warmup(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+public class Utf8StringBuilderBenchmark
+{
+    // @checkstyle-disable-check : AvoidEscapedUnicodeCharactersCheck
+    private static final String JSON = "{\"id\":12345,\"type\":\"quote\",\"symbol\":\"JETTY\",\"bid\":10.25,\"ask\":10.27," +
+        "\"currency\":\"EUR\",\"venue\":\"Z\u00fcrich\",\"tags\":[\"fast\",\"async\",\"http\"],\"timestamp\":1600000000000}";
+    private static final String MIXED = "Jetty \u2014 \u3053\u3093\u306b\u3061\u306f \u041f\u0440\u0438\u0432\u0435\u0442 " +
+        "\u0645\u0631\u062d\u0628\u0627 \uD83D\uDE80 caf\u00e9 na\u00efve \u00fcber ";
+    // @checkstyle-enable-check : AvoidEscapedUnicodeCharactersCheck
+
+    @Param({"json", "mixed"})
+    public String text;
+
+    @Param({"array", "heap", "direct"})
+    public String source;
+
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private final Utf8StringBuilder builder = new Utf8StringBuilder(4096);
+
+    @Setup(Level.Trial)
+    public void setupTrial()
+    {
+        String value = ("json".equals(text) ? JSON : MIXED).repeat(16);
+        bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer = "direct".equals(source) ? ByteBuffer.allocateDirect(bytes.length) : ByteBuffer.allocate(bytes.length);
+        buffer.put(bytes).flip();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String testDecode()
+    {
+        builder.reset();
+        if ("array".equals(source))
+            builder.append(bytes, 0, bytes.length);
+        else
+            builder.append(buffer.duplicate());
+        return builder.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(Utf8StringBuilderBenchmark.class.getSimpleName())
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,192 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.websocket.core.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.io.ByteArrayEndPoint;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.FutureCallback;
+import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+import org.eclipse.jetty.websocket.core.Behavior;
+import org.eclipse.jetty.websocket.core.Broadcaster;
+import org.eclipse.jetty.websocket.core.CloseStatus;
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.ExtensionConfig;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.FrameHandler;
+import org.eclipse.jetty.websocket.core.OpCode;
+import org.eclipse.jetty.websocket.core.WebSocketComponents;
+import org.eclipse.jetty.websocket.core.internal.ExtensionStack;
+import org.eclipse.jetty.websocket.core.internal.Negotiated;
+import org.eclipse.jetty.websocket.core.internal.WebSocketConnection;
+import org.eclipse.jetty.websocket.core.internal.WebSocketCoreSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the CPU cost of sending one message to many server sessions with
+ * {@link Broadcaster#broadcast(Frame, java.util.Collection, Callback)} against
+ * calling {@link CoreSession#sendFrame(Frame, Callback, boolean)} on each session.
+ */
+@State(Scope.Thread)
+@Threads(4)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class BroadcastBenchmark
+{
+    private static final String MESSAGE = "{\"topic\":\"prices\",\"symbol\":\"JETTY\",\"bid\":10.25,\"ask\":10.27,\"volume\":123456} ".repeat(16);
+
+    @Param({"identity", "permessage-deflate"})
+    public String extension;
+
+    @Param({"100"})
+    public int sessionCount;
+
+    private WebSocketComponents components;
+    private ScheduledExecutorScheduler scheduler;
+    private final List<CoreSession> sessions = new ArrayList<>();
+    private final List<ByteArrayEndPoint> endPoints = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception
+    {
+        components = new WebSocketComponents();
+        components.start();
+        scheduler = new ScheduledExecutorScheduler();
+        scheduler.start();
+
+        List<ExtensionConfig> configs = new ArrayList<>();
+        if (!"identity".equals(extension))
+            configs.add(ExtensionConfig.parse(extension));
+
+        for (int i = 0; i < sessionCount; i++)
+        {
+            ExtensionStack extensionStack = new ExtensionStack(components, Behavior.SERVER);
+            extensionStack.negotiate(configs, configs);
+            WebSocketCoreSession session = new WebSocketCoreSession(new NoopFrameHandler(), Behavior.SERVER, Negotiated.from(extensionStack), components);
+            ByteArrayEndPoint endPoint = new ByteArrayEndPoint(scheduler, -1);
+            endPoint.setGrowOutput(true);
+            WebSocketConnection connection = new WebSocketConnection(endPoint, Runnable::run, scheduler, components.getBufferPool(), session);
+            session.setWebSocketConnection(connection);
+            connection.onOpen();
+            sessions.add(session);
+            endPoints.add(endPoint);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopTrial() throws Exception
+    {
+        scheduler.stop();
+        components.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.AverageTime})
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long testBroadcast() throws Exception
+    {
+        FutureCallback callback = new FutureCallback();
+        Broadcaster.broadcast(new Frame(OpCode.TEXT, MESSAGE), sessions, callback);
+        callback.block();
+        return drain();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.AverageTime})
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long testSendEach() throws Exception
+    {
+        for (CoreSession session : sessions)
+        {
+            FutureCallback callback = new FutureCallback();
+            session.sendFrame(new Frame(OpCode.TEXT, MESSAGE), callback, false);
+            callback.block();
+        }
+        return drain();
+    }
+
+    private long drain()
+    {
+        long bytes = 0;
+        for (ByteArrayEndPoint endPoint : endPoints)
+        {
+            bytes += endPoint.takeOutput().remaining();
+        }
+        return bytes;
+    }
+
+    private static class NoopFrameHandler implements FrameHandler
+    {
+        @Override
+        public void onOpen(CoreSession coreSession, Callback callback)
+        {
+            callback.succeeded();
+        }
+
+        @Override
+        public void onFrame(Frame frame, Callback callback)
+        {
+            callback.succeeded();
+        }
+
+        @Override
+        public void onError(Throwable cause, Callback callback)
+        {
+            callback.succeeded();
+        }
+
+        @Override
+        public void onClosed(CloseStatus closeStatus, Callback callback)
+        {
+            callback.succeeded();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(BroadcastBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
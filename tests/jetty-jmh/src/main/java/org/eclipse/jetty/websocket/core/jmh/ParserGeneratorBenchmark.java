@@ -0,0 +1,152 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.websocket.core.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.io.ArrayByteBufferPool;
+import org.eclipse.jetty.util.BufferUtil;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.OpCode;
+import org.eclipse.jetty.websocket.core.internal.Generator;
+import org.eclipse.jetty.websocket.core.internal.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the WebSocket {@link Generator} and {@link Parser} on a binary message
+ * of the given size, masked as sent by a client or unmasked as sent by a server,
+ * and split in the given number of fragments.
+ */
+@State(Scope.Thread)
+@Threads(4)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class ParserGeneratorBenchmark
+{
+    @Param({"16", "1024", "16384"})
+    public int payloadSize;
+
+    @Param({"false", "true"})
+    public boolean masked;
+
+    @Param({"1", "4"})
+    public int fragments;
+
+    private final Generator generator = new Generator();
+    private Parser parser;
+    private final List<Frame> frames = new ArrayList<>();
+    private ByteBuffer output;
+    private byte[] encoded;
+    private ByteBuffer input;
+
+    @Setup(Level.Trial)
+    public void setupTrial()
+    {
+        parser = new Parser(new ArrayByteBufferPool());
+
+        byte[] payload = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(payload);
+        byte[] mask = {0x11, 0x22, 0x33, 0x44};
+        int fragmentSize = (payloadSize + fragments - 1) / fragments;
+        for (int offset = 0; offset < payloadSize; offset += fragmentSize)
+        {
+            int length = Math.min(fragmentSize, payloadSize - offset);
+            byte opCode = offset == 0 ? OpCode.BINARY : OpCode.CONTINUATION;
+            boolean fin = offset + length == payloadSize;
+            Frame frame = new Frame(opCode, fin, ByteBuffer.wrap(payload, offset, length).slice());
+            if (masked)
+                frame.setMask(mask);
+            frames.add(frame);
+        }
+
+        output = BufferUtil.allocate(payloadSize + frames.size() * Generator.MAX_HEADER_LENGTH);
+        generate();
+        encoded = BufferUtil.toArray(output);
+        input = ByteBuffer.allocate(encoded.length);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int testGenerate()
+    {
+        return generate();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int testParse()
+    {
+        // Parsing unmasks in place, so start each time from a fresh copy of the encoded bytes.
+        input.clear();
+        input.put(encoded).flip();
+
+        int length = 0;
+        Parser.ParsedFrame frame;
+        while ((frame = parser.parse(input)) != null)
+        {
+            length += frame.getPayloadLength();
+            frame.close();
+        }
+        return length;
+    }
+
+    private int generate()
+    {
+        BufferUtil.clear(output);
+        for (Frame frame : frames)
+        {
+            generator.generateWholeFrame(frame, output);
+        }
+        return output.remaining();
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(ParserGeneratorBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,192 @@
+//
+// ========================================================================
+// Copyright (c) 1995-2020 Mort Bay Consulting Pty Ltd and others.
+//
+// This program and the accompanying materials are made available under
+// the terms of the Eclipse Public License 2.0 which is available at
+// https://www.eclipse.org/legal/epl-2.0
+//
+// This Source Code may also be made available under the following
+// Secondary Licenses when the conditions for such availability set
+// forth in the Eclipse Public License, v. 2.0 are satisfied:
+// the Apache License v2.0 which is available at
+// https://www.apache.org/licenses/LICENSE-2.0
+//
+// SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+// ========================================================================
+//
+
+package org.eclipse.jetty.websocket.core.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.io.ByteArrayEndPoint;
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.FutureCallback;
+import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+import org.eclipse.jetty.websocket.core.Behavior;
+import org.eclipse.jetty.websocket.core.CloseStatus;
+import org.eclipse.jetty.websocket.core.CoreSession;
+import org.eclipse.jetty.websocket.core.ExtensionConfig;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.FrameHandler;
+import org.eclipse.jetty.websocket.core.OpCode;
+import org.eclipse.jetty.websocket.core.WebSocketComponents;
+import org.eclipse.jetty.websocket.core.internal.ExtensionStack;
+import org.eclipse.jetty.websocket.core.internal.Negotiated;
+import org.eclipse.jetty.websocket.core.internal.WebSocketConnection;
+import org.eclipse.jetty.websocket.core.internal.WebSocketCoreSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures a text message sent by a client session and received by a server session,
+ * connected in memory through {@link ByteArrayEndPoint}s, so that the masking, the
+ * generation, the parsing and the given extension are all on the measured path.
+ */
+@State(Scope.Thread)
+@Threads(4)
+@Warmup(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class PerMessageDeflateBenchmark
+{
+    private static final String MESSAGE = "{\"topic\":\"prices\",\"symbol\":\"JETTY\",\"bid\":10.25,\"ask\":10.27,\"volume\":123456} ";
+
+    @Param({
+        "identity",
+        "permessage-deflate",
+        "permessage-deflate; client_no_context_takeover; server_no_context_takeover"
+    })
+    public String extension;
+
+    @Param({"1", "16", "256"})
+    public int repeat;
+
+    private WebSocketComponents components;
+    private ScheduledExecutorScheduler scheduler;
+    private String message;
+    private ByteArrayEndPoint clientEndPoint;
+    private ByteArrayEndPoint serverEndPoint;
+    private CoreSession clientSession;
+    private final CountingFrameHandler serverHandler = new CountingFrameHandler();
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception
+    {
+        components = new WebSocketComponents();
+        components.start();
+        scheduler = new ScheduledExecutorScheduler();
+        scheduler.start();
+        message = MESSAGE.repeat(repeat);
+
+        clientEndPoint = newEndPoint();
+        clientSession = newSession(Behavior.CLIENT, new CountingFrameHandler(), clientEndPoint);
+        serverEndPoint = newEndPoint();
+        newSession(Behavior.SERVER, serverHandler, serverEndPoint);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopTrial() throws Exception
+    {
+        scheduler.stop();
+        components.stop();
+    }
+
+    private ByteArrayEndPoint newEndPoint()
+    {
+        ByteArrayEndPoint endPoint = new ByteArrayEndPoint(scheduler, -1)
+        {
+            @Override
+            protected void execute(Runnable task)
+            {
+                // Read the input in the calling thread.
+                task.run();
+            }
+        };
+        endPoint.setGrowOutput(true);
+        return endPoint;
+    }
+
+    private WebSocketCoreSession newSession(Behavior behavior, FrameHandler handler, ByteArrayEndPoint endPoint)
+    {
+        List<ExtensionConfig> configs = "identity".equals(extension) ? List.of() : List.of(ExtensionConfig.parse(extension));
+        ExtensionStack extensionStack = new ExtensionStack(components, behavior);
+        extensionStack.negotiate(configs, configs);
+        WebSocketCoreSession session = new WebSocketCoreSession(handler, behavior, Negotiated.from(extensionStack), components);
+        WebSocketConnection connection = new WebSocketConnection(endPoint, Runnable::run, scheduler, components.getBufferPool(), session);
+        session.setWebSocketConnection(connection);
+        connection.onOpen();
+        return session;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long testSendAndReceive() throws Exception
+    {
+        FutureCallback callback = new FutureCallback();
+        clientSession.sendFrame(new Frame(OpCode.TEXT, message), callback, false);
+        callback.block();
+        serverEndPoint.addInputAndExecute(clientEndPoint.takeOutput());
+        return serverHandler.bytes;
+    }
+
+    private static class CountingFrameHandler implements FrameHandler
+    {
+        private long bytes;
+
+        @Override
+        public void onOpen(CoreSession coreSession, Callback callback)
+        {
+            callback.succeeded();
+        }
+
+        @Override
+        public void onFrame(Frame frame, Callback callback)
+        {
+            bytes += frame.getPayloadLength();
+            callback.succeeded();
+        }
+
+        @Override
+        public void onError(Throwable cause, Callback callback)
+        {
+            callback.succeeded();
+        }
+
+        @Override
+        public void onClosed(CloseStatus closeStatus, Callback callback)
+        {
+            callback.succeeded();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+            .include(PerMessageDeflateBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .forks(1)
+            .threads(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}